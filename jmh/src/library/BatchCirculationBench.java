@@ -0,0 +1,110 @@
+package library;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmark of a book drop -- checking in a pile of checked-out copies -- one checkin() at
+ * a time and with a single checkinAll(), for each Library implementation, reported as time per
+ * drop. Each drop is a fresh random pile.
+ *
+ * The rep invariant checks are what a batch saves on SmallLibrary, and JMH forks without -ea;
+ * to include them, pass -Djmh.args="BatchCirculationBench -jvmArgsAppend -ea".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchCirculationBench {
+
+    private static final int BOOKS = 1_000;
+
+    @Param({"SmallLibrary", "BigLibrary", "ConcurrentLibrary", "DurableLibrary"})
+    public String implementation;
+
+    @Param({"20000"})
+    public int copies;
+
+    /** Number of copies in each drop. */
+    @Param({"2000"})
+    public int drop;
+
+    private Path directory;
+    private Library library;
+    private final List<BookCopy> stock = new ArrayList<>();
+    private final Random random = new Random(6005);
+    private List<BookCopy> pile;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (implementation) {
+        case "SmallLibrary": library = new SmallLibrary(); break;
+        case "BigLibrary": library = new BigLibrary(); break;
+        case "ConcurrentLibrary": library = new ConcurrentLibrary(); break;
+        case "DurableLibrary":
+            directory = Files.createTempDirectory("batch-circulation");
+            library = DurableLibrary.open(directory, new BigLibrary(), Integer.MAX_VALUE);
+            break;
+        default: throw new IllegalArgumentException("unknown implementation " + implementation);
+        }
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book("Title " + i, Arrays.asList("Author " + i % 100), 2000);
+            stock.addAll(library.buyCopies(book, copies / BOOKS));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void checkOutPile() {
+        Collections.shuffle(stock, random);
+        pile = stock.subList(0, drop);
+        library.checkoutAll(pile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (directory == null)
+            return;
+        ((DurableLibrary) library).close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file: (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public List<BookCopy> checkin() {
+        for (BookCopy copy: pile)
+            library.checkin(copy);
+        return pile;
+    }
+
+    @Benchmark
+    public List<BookCopy> checkinAll() {
+        library.checkinAll(pile);
+        return pile;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
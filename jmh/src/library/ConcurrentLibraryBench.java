@@ -0,0 +1,104 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * JMH benchmark of circulation (a checkout followed by a checkin) from many threads at once,
+ * comparing ConcurrentLibrary with a BigLibrary serialized behind one global lock, reported as
+ * circulations per second across all threads. Each thread circulates copies of its own.
+ *
+ * Runs one thread per core by default; pass e.g. -Djmh.args="ConcurrentLibraryBench -t 64"
+ * for more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+public class ConcurrentLibraryBench {
+
+    private static final int COPIES_PER_THREAD = 1_000;
+
+    @Param({"GlobalLock", "ConcurrentLibrary"})
+    public String implementation;
+
+    @Param({"10000"})
+    public int books;
+
+    private Library library;
+    private List<Book> catalog;
+
+    @Setup
+    public void setUp() {
+        library = implementation.equals("GlobalLock") ? new GlobalLockLibrary(new BigLibrary()) : new ConcurrentLibrary();
+        catalog = SyntheticBooks.make(books, books / 10 + 1, 6005);
+    }
+
+    /**
+     * The copies that one thread circulates.
+     */
+    @State(Scope.Thread)
+    public static class Patron {
+        private final List<BookCopy> copies = new ArrayList<>();
+        private final Random random = new Random();
+
+        @Setup
+        public void setUp(ConcurrentLibraryBench bench) {
+            for (int i = 0; i < COPIES_PER_THREAD; i++)
+                copies.add(bench.library.buy(bench.catalog.get(random.nextInt(bench.catalog.size()))));
+        }
+    }
+
+    @Benchmark
+    public BookCopy circulate(Patron patron) {
+        BookCopy copy = patron.copies.get(patron.random.nextInt(patron.copies.size()));
+        library.checkout(copy);
+        library.checkin(copy);
+        return copy;
+    }
+
+    /**
+     * Serializes every operation of a Library behind one lock, as the branch terminals do today.
+     */
+    private static class GlobalLockLibrary implements Library {
+        private final Library library;
+
+        GlobalLockLibrary(Library library) {
+            this.library = library;
+        }
+
+        @Override public synchronized BookCopy buy(Book book) { return library.buy(book); }
+        @Override public synchronized void checkout(BookCopy copy) { library.checkout(copy); }
+        @Override public synchronized void checkin(BookCopy copy) { library.checkin(copy); }
+        @Override public synchronized boolean isAvailable(BookCopy copy) { return library.isAvailable(copy); }
+        @Override public synchronized Set<BookCopy> allCopies(Book book) { return library.allCopies(book); }
+        @Override public synchronized Set<BookCopy> availableCopies(Book book) { return library.availableCopies(book); }
+        @Override public synchronized List<Book> find(String query) { return library.find(query); }
+        @Override public synchronized List<Book> search(String query, int limit) { return library.search(query, limit); }
+        @Override public synchronized List<Book> fuzzySearch(String query, int limit) { return library.fuzzySearch(query, limit); }
+        @Override public synchronized void lose(BookCopy copy) { library.lose(copy); }
+        @Override public synchronized List<BookCopy> buyCopies(Book book, int n) { return library.buyCopies(book, n); }
+        @Override public synchronized void checkoutAll(Collection<BookCopy> copies) { library.checkoutAll(copies); }
+        @Override public synchronized void checkinAll(Collection<BookCopy> copies) { library.checkinAll(copies); }
+        @Override public synchronized void loseAll(Collection<BookCopy> copies) { library.loseAll(copies); }
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
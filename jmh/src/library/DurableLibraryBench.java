@@ -0,0 +1,98 @@
+package library;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * JMH benchmark of durable circulation (a checkout followed by a checkin, each committed to the
+ * write-ahead log of a DurableLibrary) from many threads at once, reported as circulations per
+ * second across all threads. How many changes shared each force of the log is printed at the
+ * end of each trial. Snapshots are turned off, so that forces() counts the whole trial.
+ *
+ * Runs one thread per core by default; pass e.g. -Djmh.args="DurableLibraryBench -t 64" for
+ * more. The library is kept in a fresh temporary directory, unless the directory param names
+ * one on the disk to measure: -Djmh.args="DurableLibraryBench -p directory=/mnt/disk".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+public class DurableLibraryBench {
+
+    private static final int BOOKS = 1_000;
+
+    /** Directory in which to make the library's directory, or empty for the temporary directory. */
+    @Param({""})
+    public String directory;
+
+    private Path root;
+    private DurableLibrary library;
+    private final AtomicInteger patrons = new AtomicInteger();
+    private final LongAdder changes = new LongAdder();
+
+    @Setup
+    public void setUp() throws IOException {
+        root = directory.isEmpty() ? Files.createTempDirectory("durable-library")
+                : Files.createTempDirectory(Paths.get(directory), "durable-library");
+        library = DurableLibrary.open(root.resolve("library"), new BigLibrary(), Integer.MAX_VALUE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        long forces = library.forces();
+        System.out.printf("%d changes in %d forces, %.1f changes/force%n",
+                changes.sum(), forces, (double) changes.sum() / forces);
+        library.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file: (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(file);
+        }
+    }
+
+    /**
+     * The copy that one thread circulates.
+     */
+    @State(Scope.Thread)
+    public static class Patron {
+        private BookCopy copy;
+
+        @Setup
+        public void setUp(DurableLibraryBench bench) {
+            int patron = bench.patrons.getAndIncrement();
+            copy = bench.library.buy(new Book("Title " + patron % BOOKS, Arrays.asList("Author"), 2000));
+            bench.changes.increment();
+        }
+    }
+
+    @Benchmark
+    public BookCopy circulate(Patron patron) {
+        library.checkout(patron.copy);
+        library.checkin(patron.copy);
+        changes.add(2);
+        return patron.copy;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
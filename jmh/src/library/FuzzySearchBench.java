@@ -0,0 +1,76 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of Library.fuzzySearch() for the first results of misspelled queries, over a
+ * BigLibrary of a million synthetic editions, against computing the edit distance from the
+ * query to every word of the catalog; reported as time per query.
+ *
+ * Stocking the library takes a while, and a heap of a few gigabytes; pass e.g.
+ * -Djmh.args="FuzzySearchBench -jvmArgs -Xmx4g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzySearchBench {
+
+    private static final int MAX_DISTANCE = 2;
+
+    @Param({"1000000"})
+    public int editions;
+
+    @Param({"10"})
+    public int limit;
+
+    // misspelled words, names and authors, two misspelled words, and a query that matches nothing
+    @Param({"programing", "intrepretation", "konkurrency", "barbra", "nikluas author77", "alysa autor1234",
+            "java desing", "zebra"})
+    public String query;
+
+    private Library library;
+    private final List<String> words = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        library = new BigLibrary();
+        for (Book book: SyntheticBooks.make(editions, 10_000, 6005)) {
+            library.buy(book);
+            words.addAll(SearchIndex.words(book.getTitle() + " " + String.join(" ", book.getAuthors())));
+        }
+    }
+
+    @Benchmark
+    public List<Book> fuzzySearch() {
+        return library.fuzzySearch(query, limit);
+    }
+
+    /**
+     * Count the words of the catalog within MAX_DISTANCE edits of the first word of the query.
+     */
+    @Benchmark
+    public int distanceToEveryWord() {
+        String first = SearchIndex.words(query).get(0);
+        int close = 0;
+        for (String word: words)
+            if (SearchIndex.distance(first, word, MAX_DISTANCE) <= MAX_DISTANCE)
+                close++;
+        return close;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
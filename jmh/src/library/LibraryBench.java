@@ -0,0 +1,133 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of the Library operations of SmallLibrary and BigLibrary, on a collection of
+ * synthetic books with several copies each, reported as time per operation.
+ *
+ * Every benchmark leaves the library as it found it, so that the collection keeps its size
+ * across iterations: a checkout is paired with a checkin, and a buy with a lose.
+ *
+ * allCopies() looks up the library's own Book instances, and allCopiesOfEqualBook() equal but
+ * separate ones, as a patron's query would be, whose hashing and comparison are not
+ * short-circuited by identity. Run them with -prof gc, e.g.
+ * -Djmh.args="LibraryBench.allCopies -prof gc", for the bytes allocated per call
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LibraryBench {
+
+    private static final int COPIES_PER_BOOK = 3;
+
+    @Param({"SmallLibrary", "BigLibrary"})
+    public String implementation;
+
+    @Param({"1000", "30000", "100000"})
+    public int books;
+
+    private Library library;
+    private List<Book> catalog;
+    private List<Book> equalCatalog;
+    private List<BookCopy> copies;
+    private List<String> queries;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        library = implementation.equals("SmallLibrary") ? new SmallLibrary() : new BigLibrary();
+        catalog = SyntheticBooks.make(books, books / 10 + 1, 6005);
+        copies = new ArrayList<>(books * COPIES_PER_BOOK);
+        for (Book book: catalog)
+            for (int i = 0; i < COPIES_PER_BOOK; i++)
+                copies.add(library.buy(book));
+
+        // a third of the copies are checked out
+        for (int i = 0; i < copies.size(); i += 3)
+            library.checkout(copies.get(i));
+
+        equalCatalog = new ArrayList<>(books);
+        for (Book book: catalog)
+            equalCatalog.add(new Book(new String(book.getTitle()), book.getAuthors(), book.getYear()));
+
+        queries = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Book book = catalog.get(i * books / 16);
+            queries.add(book.getTitle());
+            queries.add(book.getAuthors().get(0));
+        }
+        queries.addAll(SyntheticBooks.words().subList(0, 8));
+        random = new Random(6005);
+    }
+
+    private Book anyBook() {
+        return catalog.get(random.nextInt(catalog.size()));
+    }
+
+    private BookCopy anyAvailableCopy() {
+        // copies whose index is not a multiple of 3 stay available between benchmarks
+        int i = random.nextInt(copies.size());
+        return copies.get(i % 3 == 0 ? i + 1 : i);
+    }
+
+    @Benchmark
+    public BookCopy buyAndLose() {
+        BookCopy copy = library.buy(anyBook());
+        library.lose(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public BookCopy checkoutAndCheckin() {
+        BookCopy copy = anyAvailableCopy();
+        library.checkout(copy);
+        library.checkin(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return library.isAvailable(copies.get(random.nextInt(copies.size())));
+    }
+
+    @Benchmark
+    public Set<BookCopy> allCopies() {
+        return library.allCopies(anyBook());
+    }
+
+    @Benchmark
+    public Set<BookCopy> allCopiesOfEqualBook() {
+        return library.allCopies(equalCatalog.get(random.nextInt(equalCatalog.size())));
+    }
+
+    @Benchmark
+    public Set<BookCopy> availableCopies() {
+        return library.availableCopies(anyBook());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Book> find() {
+        return library.find(queries.get(random.nextInt(queries.size())));
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,81 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of the rep invariant checks that -ea turns on, as the collection grows: the
+ * cost of a circulation (a checkout followed by a checkin) with a third of the copies checked
+ * out, reported as time per circulation, and the cost of a full audit, reported as time per
+ * audit. Forks run with -ea, since the checks are what it measures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-ea")
+public class RepCheckBench {
+
+    private static final int COPIES_PER_BOOK = 10;
+
+    @Param({"SmallLibrary", "BigLibrary"})
+    public String implementation;
+
+    @Param({"1000", "10000", "100000"})
+    public int copies;
+
+    private Library library;
+    private Auditable auditable;
+    private List<BookCopy> stock;
+    private int out;
+    private final Random random = new Random(6005);
+
+    @Setup
+    public void setUp() {
+        if (implementation.equals("SmallLibrary")) {
+            SmallLibrary small = new SmallLibrary();
+            library = small;
+            auditable = small;
+        } else {
+            BigLibrary big = new BigLibrary();
+            library = big;
+            auditable = big;
+        }
+        stock = new ArrayList<>(copies);
+        for (int i = 0; i < copies / COPIES_PER_BOOK; i++)
+            stock.addAll(library.buyCopies(new Book("Title " + i, Arrays.asList("Author " + i % 100), 2000), COPIES_PER_BOOK));
+        out = stock.size() / 3;
+        library.checkoutAll(stock.subList(0, out));
+    }
+
+    @Benchmark
+    public BookCopy circulate() {
+        BookCopy copy = stock.get(out + random.nextInt(stock.size() - out));
+        library.checkout(copy);
+        library.checkin(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public Auditable audit() {
+        auditable.audit();
+        return auditable;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
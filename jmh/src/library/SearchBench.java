@@ -0,0 +1,59 @@
+package library;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of Library.search() for the first results of queries of each kind, over a
+ * BigLibrary of a million synthetic editions, reported as time per query. FuzzySearchBench
+ * measures misspelled queries.
+ *
+ * Stocking the library takes a while, and a heap of a few gigabytes; pass e.g.
+ * -Djmh.args="SearchBench -jvmArgs -Xmx4g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBench {
+
+    @Param({"1000000"})
+    public int editions;
+
+    @Param({"10"})
+    public int limit;
+
+    // a whole word, long and short prefixes, a prefix of many numbers, several words, common
+    // words that rarely meet, prefixes of words and of many numbers, authors, a phrase, and a
+    // query that matches nothing
+    @Param({"programming", "interp", "Co", "c", "7", "java design", "clean code the", "effective conc 12",
+            "barbara author9", "Alyssa Author0", "Structure computer programs", "zebra"})
+    public String query;
+
+    private Library library;
+
+    @Setup
+    public void setUp() {
+        library = new BigLibrary();
+        for (Book book: SyntheticBooks.make(editions, 10_000, 6005))
+            library.buy(book);
+    }
+
+    @Benchmark
+    public List<Book> search() {
+        return library.search(query, limit);
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,109 @@
+package twitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmark of scanning the columns of a ColumnarTweets file, against Filter and Extract on
+ * a List of the same synthetic tweets, reported as time per call; and of opening and writing
+ * the file.
+ *
+ * A corpus of 10M tweets needs a large heap for the list; pass e.g.
+ * -Djmh.args="ColumnarBench -p tweets=10000000 -jvmArgs -Xmx4g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ColumnarBench {
+
+    private static final Timespan WINDOW = new Timespan(
+            Instant.parse("2016-02-17T00:10:00Z"), Instant.parse("2016-02-17T00:20:00Z"));
+
+    @Param({"1000000"})
+    public int tweets;
+
+    @Param({"100000"})
+    public int users;
+
+    private List<Tweet> list;
+    private Path path;
+    private Path written;
+    private ColumnarTweets columns;
+
+    @Setup
+    public void setUp() throws IOException {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        path = Files.createTempFile("tweets", ".columns");
+        ColumnarTweets.write(list, path);
+        columns = ColumnarTweets.open(path);
+        // write() replaces its own file, not the one mapped by columns
+        written = Files.createTempFile("tweets", ".columns");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(path);
+        Files.delete(written);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ColumnarTweets open() throws IOException {
+        return ColumnarTweets.open(path);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        ColumnarTweets.write(list, written);
+        return written;
+    }
+
+    @Benchmark
+    public int[] columnsWrittenBy() {
+        return columns.writtenBy("User_7");
+    }
+
+    @Benchmark
+    public List<Tweet> listWrittenBy() {
+        return Filter.writtenBy(list, "User_7");
+    }
+
+    @Benchmark
+    public int[] columnsInTimespan() {
+        return columns.inTimespan(WINDOW);
+    }
+
+    @Benchmark
+    public List<Tweet> listInTimespan() {
+        return Filter.inTimespan(list, WINDOW);
+    }
+
+    @Benchmark
+    public Timespan columnsGetTimespan() {
+        return columns.getTimespan();
+    }
+
+    @Benchmark
+    public Timespan listGetTimespan() {
+        return Extract.getTimespan(list);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,64 @@
+package twitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of building the follows graph of synthetic tweets as a CompactFollowsGraph
+ * and, as the baseline, as the Map<String, Set<String>> of SocialNetwork.guessFollowsGraph(),
+ * reported as time per build. Run with -prof gc for the bytes allocated per build.
+ *
+ * A corpus of 5M tweets needs a large heap; pass e.g.
+ * -Djmh.args="CompactGraphBench -p tweets=5000000 -p users=1000000 -jvmArgs -Xmx8g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompactGraphBench {
+
+    @Param({"1000000"})
+    public int tweets;
+
+    @Param({"100000"})
+    public int users;
+
+    private List<Tweet> list;
+    private Map<String, Set<String>> map;
+
+    @Setup
+    public void setUp() {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        map = SocialNetwork.guessFollowsGraph(list);
+    }
+
+    @Benchmark
+    public CompactFollowsGraph fromTweets() {
+        return CompactFollowsGraph.fromTweets(list);
+    }
+
+    @Benchmark
+    public CompactFollowsGraph fromMap() {
+        return CompactFollowsGraph.fromMap(map);
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> guessFollowsGraph() {
+        return SocialNetwork.guessFollowsGraph(list);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,91 @@
+package twitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of Extract over synthetic tweets, reported as time per call on the whole list.
+ *
+ * getMentionedUsersCompilingPattern() is the baseline for MentionScanner: it extracts the same
+ * mentions with the regular expression that getMentionedUsersInTweet() used to compile for
+ * every tweet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExtractBench {
+
+    @Param({"1000", "100000"})
+    public int tweets;
+
+    @Param({"1000"})
+    public int users;
+
+    private List<Tweet> list;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        text = list.get(0).getText();
+    }
+
+    @Benchmark
+    public Timespan getTimespan() {
+        return Extract.getTimespan(list);
+    }
+
+    @Benchmark
+    public Set<String> getMentionedUsers() {
+        return Extract.getMentionedUsers(list);
+    }
+
+    @Benchmark
+    public Set<String> getMentionedUsersCompilingPattern() {
+        Set<String> mentions = new HashSet<>();
+        for (Tweet tweet: list)
+            mentions.addAll(compileAndMatch(tweet.getText()));
+        return mentions;
+    }
+
+    @Benchmark
+    public Set<String> getMentionedUsersParallel() {
+        return Extract.getMentionedUsersParallel(list);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Set<String> getMentionedUsersInTweet() {
+        return Extract.getMentionedUsersInTweet(text);
+    }
+
+    /**
+     * The original implementation of Extract.getMentionedUsersInTweet().
+     */
+    private static Set<String> compileAndMatch(String tweetText) {
+        Set<String> mentions = new HashSet<>();
+        Pattern mentionPattern = Pattern.compile("(?<![a-z0-9_-])@([a-z0-9_-]+)(?![a-z0-9_-])");
+        Matcher matcher = mentionPattern.matcher(tweetText.toLowerCase());
+        while (matcher.find())
+            mentions.add(matcher.group(1));
+        return mentions;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
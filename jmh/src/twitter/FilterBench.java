@@ -0,0 +1,76 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of Filter over synthetic tweets, reported as time per call on the whole list.
+ *
+ * writtenByLowercasing() is the baseline for comparing through Username: it lowercases every
+ * author, as writtenBy() used to. Run with -prof gc for the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBench {
+
+    @Param({"1000", "100000"})
+    public int tweets;
+
+    @Param({"1000"})
+    public int users;
+
+    private List<Tweet> list;
+    private Timespan middle;
+    private final List<String> words = Arrays.asList("RIVEST", "hype", "#6005");
+
+    @Setup
+    public void setUp() {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        // the middle tenth of the timespan, which holds about a tenth of the tweets
+        Timespan all = Extract.getTimespan(list);
+        long millis = all.getEnd().toEpochMilli() - all.getStart().toEpochMilli();
+        middle = new Timespan(all.getStart().plusMillis(millis * 45 / 100), all.getStart().plusMillis(millis * 55 / 100));
+    }
+
+    @Benchmark
+    public List<Tweet> writtenBy() {
+        // a popular author, in a case that few of the tweets use
+        return Filter.writtenBy(list, "USER_1");
+    }
+
+    @Benchmark
+    public List<Tweet> writtenByLowercasing() {
+        List<Tweet> written = new ArrayList<>();
+        for (Tweet tweet: list)
+            if (tweet.getAuthor().toLowerCase().equals("USER_1".toLowerCase()))
+                written.add(tweet);
+        return written;
+    }
+
+    @Benchmark
+    public List<Tweet> inTimespan() {
+        return Filter.inTimespan(list, middle);
+    }
+
+    @Benchmark
+    public List<Tweet> containing() {
+        return Filter.containing(list, words);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,93 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of InfluencerRanking on a random social network whose follower counts are
+ * skewed towards low-numbered users, reported as time per call: counting followers, top(k),
+ * ranking everyone, and, as the baseline, boxed counts in a map and a sort of every user.
+ *
+ * Graphs of tens of millions of users need a very large heap; pass e.g.
+ * -Djmh.args="InfluencerBench -p users=10000000 -jvmArgs -Xmx16g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InfluencerBench {
+
+    private static final int FOLLOWINGS = 4;
+
+    @Param({"1000000"})
+    public int users;
+
+    @Param({"100"})
+    public int k;
+
+    private Map<String, Set<String>> graph;
+    private InfluencerRanking ranking;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(6005);
+        graph = new HashMap<>();
+        for (int user = 0; user < users; user++) {
+            Set<String> followings = new HashSet<>();
+            for (int i = 0; i < FOLLOWINGS; i++)
+                followings.add("user_" + (int) (users * Math.pow(random.nextDouble(), 3)));
+            followings.remove("user_" + user);
+            graph.put("user_" + user, followings);
+        }
+        ranking = new InfluencerRanking(graph);
+    }
+
+    @Benchmark
+    public InfluencerRanking countFollowers() {
+        return new InfluencerRanking(graph);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> top() {
+        return ranking.top(k);
+    }
+
+    @Benchmark
+    public List<String> topAll() {
+        return ranking.top(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<String> mapAndFullSort() {
+        Map<String, Integer> followers = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry: graph.entrySet()) {
+            followers.putIfAbsent(entry.getKey(), 0);
+            for (String followee: entry.getValue())
+                followers.merge(followee, 1, Integer::sum);
+        }
+        List<String> sorted = new ArrayList<>(followers.keySet());
+        sorted.sort((a, b) -> followers.get(a).equals(followers.get(b))
+                ? a.compareTo(b) : Integer.compare(followers.get(b), followers.get(a)));
+        return sorted;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,94 @@
+package twitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmark of answering influencer and followings queries from a MappedFollowsGraph file,
+ * against rebuilding the follows graph from the tweets, reported as time per call.
+ *
+ * A corpus of 5M tweets needs a large heap; pass e.g.
+ * -Djmh.args="MappedGraphBench -p tweets=5000000 -p users=1000000 -jvmArgs -Xmx8g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappedGraphBench {
+
+    @Param({"1000000"})
+    public int tweets;
+
+    @Param({"100000"})
+    public int users;
+
+    private List<Tweet> list;
+    private CompactFollowsGraph compact;
+    private Path path;
+    private Path written;
+    private MappedFollowsGraph graph;
+
+    @Setup
+    public void setUp() throws IOException {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        compact = CompactFollowsGraph.fromTweets(list);
+        path = Files.createTempFile("follows", ".graph");
+        MappedFollowsGraph.write(compact, path);
+        graph = MappedFollowsGraph.open(path);
+        // write() replaces its own file, not the one mapped by graph
+        written = Files.createTempFile("follows", ".graph");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(path);
+        Files.delete(written);
+    }
+
+    @Benchmark
+    public MappedFollowsGraph open() throws IOException {
+        return MappedFollowsGraph.open(path);
+    }
+
+    @Benchmark
+    public Set<String> followings() {
+        return graph.followings("user_1");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String> influencers() {
+        return graph.influencers(10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String> rebuildFromTweets() {
+        return new InfluencerRanking(CompactFollowsGraph.fromTweets(list)).top(10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Path write() throws IOException {
+        MappedFollowsGraph.write(compact, written);
+        return written;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
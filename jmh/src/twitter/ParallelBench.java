@@ -0,0 +1,70 @@
+package twitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH benchmark of how getMentionedUsersParallel() and guessFollowsGraphParallel() scale with
+ * the number of worker threads, reported as time per call on the whole list. The sequential
+ * baselines are ExtractBench.getMentionedUsers and SocialNetworkBench.guessFollowsGraph, run
+ * with the same -p tweets and -p users.
+ *
+ * A corpus of 10M tweets needs a large heap; pass e.g.
+ * -Djmh.args="ParallelBench -p tweets=10000000 -p users=1000000 -jvmArgs -Xmx8g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelBench {
+
+    @Param({"1000000"})
+    public int tweets;
+
+    @Param({"100000"})
+    public int users;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<Tweet> list;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Set<String> getMentionedUsersParallel() {
+        return Extract.getMentionedUsersParallel(list, pool);
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> guessFollowsGraphParallel() {
+        return SocialNetwork.guessFollowsGraphParallel(list, pool);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,81 @@
+package twitter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of SocialNetwork over synthetic tweets, reported as time per call.
+ *
+ * guessFollowsGraphLowercasing() is the baseline for caching the lowercase key of each
+ * spelling: it lowercases the author of every tweet, as guessFollowsGraph() used to. Run with
+ * -prof gc for the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SocialNetworkBench {
+
+    @Param({"1000", "100000"})
+    public int tweets;
+
+    @Param({"1000"})
+    public int users;
+
+    private List<Tweet> list;
+    private Map<String, Set<String>> followsGraph;
+
+    @Setup
+    public void setUp() {
+        list = SyntheticTweets.make(tweets, users, 6005);
+        followsGraph = SocialNetwork.guessFollowsGraph(list);
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> guessFollowsGraph() {
+        return SocialNetwork.guessFollowsGraph(list);
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> guessFollowsGraphLowercasing() {
+        Map<String, Set<String>> graph = new HashMap<>();
+        for (Tweet tweet: list) {
+            String author = tweet.getAuthor().toLowerCase();
+            Set<String> followings = graph.get(author);
+            if (followings == null) {
+                followings = new HashSet<>();
+                graph.put(author, followings);
+            }
+            MentionScanner.addMentions(tweet.getText(), followings);
+            followings.remove(author);
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Map<String, Set<String>> guessFollowsGraphParallel() {
+        return SocialNetwork.guessFollowsGraphParallel(list);
+    }
+
+    @Benchmark
+    public List<String> influencers() {
+        return SocialNetwork.influencers(followsGraph);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,92 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH benchmark of WordIndex.containing() against Filter.containing() on synthetic tweets, for
+ * queries of many words: mostly rare ones (emails and mentions of single users), some common
+ * ones, and some that match nothing. Reported as time per query, and per index build.
+ *
+ * A corpus of 1M tweets needs a large heap; pass e.g.
+ * -Djmh.args="WordIndexBench -p tweets=1000000 -jvmArgs -Xmx4g".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WordIndexBench {
+
+    private static final int USERS = 10_000;
+    private static final int QUERIES = 20;
+
+    @Param({"100000"})
+    public int tweets;
+
+    @Param({"100"})
+    public int wordsPerQuery;
+
+    private List<Tweet> list;
+    private WordIndex index;
+    private List<List<String>> queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        list = SyntheticTweets.make(tweets, USERS, 6005);
+        index = new WordIndex(list);
+
+        Random random = new Random(6005);
+        queries = new ArrayList<>();
+        for (int q = 0; q < QUERIES; q++) {
+            List<String> words = new ArrayList<>();
+            for (int i = 0; i < wordsPerQuery; i++) {
+                int user = random.nextInt(USERS);
+                switch (random.nextInt(4)) {
+                case 0:  words.add("User_" + user + "@MIT.edu"); break;
+                case 1:  words.add("@user_" + user); break;
+                case 2:  words.add("missing" + i); break;
+                default: words.add(i % 10 == 0 ? "Rivest" : "hype" + i);
+                }
+            }
+            queries.add(words);
+        }
+        next = 0;
+    }
+
+    private List<String> nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries.get(next);
+    }
+
+    @Benchmark
+    public List<Tweet> indexContaining() {
+        return index.containing(nextQuery());
+    }
+
+    @Benchmark
+    public List<Tweet> filterContaining() {
+        return Filter.containing(list, nextQuery());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public WordIndex build() {
+        return new WordIndex(list);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,122 @@
+package warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmark of Quadratic.roots(), Quadratic.solve() and the batch solvers over a fixed
+ * batch of synthetic equations, reported as time per equation, against the floating-point
+ * implementation that roots() used to have. For bytes allocated per equation, add the GC
+ * profiler: -Djmh.args="QuadraticBench -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuadraticBench {
+
+    private static final int EQUATIONS = 1024;
+    private static final int BATCH = 1 << 20;
+
+    /** Bound on the absolute value of roots and coefficients. */
+    @Param({"10", "1000"})
+    public int range;
+
+    private int[] coefficients;
+    private final int[] buffer = new int[2];
+    private final int[] a = new int[BATCH], b = new int[BATCH], c = new int[BATCH];
+    private final int[] counts = new int[BATCH], roots = new int[2 * BATCH];
+
+    @Setup
+    public void setUp() {
+        coefficients = SyntheticEquations.make(EQUATIONS, range, 6005);
+        int[] batch = SyntheticEquations.make(BATCH, range, 6005);
+        for (int i = 0; i < BATCH; i++) {
+            a[i] = batch[3 * i];
+            b[i] = batch[3 * i + 1];
+            c[i] = batch[3 * i + 2];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EQUATIONS)
+    public void doubleRoots(Blackhole blackhole) {
+        for (int i = 0; i < coefficients.length; i += 3)
+            blackhole.consume(doubleRoots(coefficients[i], coefficients[i + 1], coefficients[i + 2]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EQUATIONS)
+    public void roots(Blackhole blackhole) {
+        for (int i = 0; i < coefficients.length; i += 3)
+            blackhole.consume(Quadratic.roots(coefficients[i], coefficients[i + 1], coefficients[i + 2]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EQUATIONS)
+    public int solve() {
+        int found = 0;
+        for (int i = 0; i < coefficients.length; i += 3)
+            found += Quadratic.solve(coefficients[i], coefficients[i + 1], coefficients[i + 2], buffer);
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] solveAll() {
+        Quadratic.solveAll(a, b, c, counts, roots);
+        return counts;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] solveAllParallel() {
+        Quadratic.solveAllParallel(a, b, c, counts, roots);
+        return counts;
+    }
+
+    /**
+     * The previous implementation of Quadratic.roots(), without printing the discriminant.
+     */
+    private static Set<Integer> doubleRoots(int a, int b, int c) {
+        Set<Integer> roots = new HashSet<Integer>();
+        double discriminant = Math.pow(b, 2) - (4.0 * a * c);
+        double sqrt = Math.sqrt(discriminant);
+        if (! Double.isNaN(sqrt) && isWholeNumber(sqrt)) {
+            int discriminantSquareRoot  = (int) sqrt;
+            double firstRoot = (-b + discriminantSquareRoot) / (2.0 * a);
+            double secondRoot = (-b - discriminantSquareRoot) / (2.0 * a);
+            if (a == 0) {
+                if(b != 0 && isWholeNumber((double)-c/b))
+                    roots.add(-c/b);
+            }
+            else if (isWholeNumber(firstRoot)) {
+                roots.add((int)firstRoot);
+                roots.add((int)secondRoot);
+            }
+            else if (c == 0 && isWholeNumber(Math.sqrt(-b/a)))
+                roots.add((int)Math.sqrt(-b/a));
+        }
+        return roots;
+    }
+
+    private static boolean isWholeNumber(double number) {
+        return number == (int) number;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
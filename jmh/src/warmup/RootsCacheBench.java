@@ -0,0 +1,74 @@
+package warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmark of Quadratic.roots() and RootsCache.roots() on a workload that repeats a skewed
+ * selection of equations, reported as time per call. The hit rate of the cache is printed at
+ * the end of each trial. For bytes allocated per call, add the GC profiler:
+ * -Djmh.args="RootsCacheBench -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RootsCacheBench {
+
+    private static final int CALLS = 1 << 16;
+
+    @Param({"100000"})
+    public int equations;
+
+    @Param({"1000", "10000"})
+    public int capacity;
+
+    private int[] coefficients;
+    private final int[] workload = new int[CALLS];
+    private RootsCache cache;
+
+    @Setup
+    public void setUp() {
+        coefficients = SyntheticEquations.make(equations, 1000, 6005);
+        // each call picks an equation with a skew towards low-numbered ones
+        Random random = new Random(6005);
+        for (int i = 0; i < CALLS; i++)
+            workload[i] = 3 * (int) (equations * Math.pow(random.nextDouble(), 4));
+        cache = new RootsCache(capacity);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("hit rate %.1f%%, %s%n", 100.0 * cache.hits() / (cache.hits() + cache.misses()), cache);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void roots(Blackhole blackhole) {
+        for (int e: workload)
+            blackhole.consume(Quadratic.roots(coefficients[e], coefficients[e + 1], coefficients[e + 2]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void cachedRoots(Blackhole blackhole) {
+        for (int e: workload)
+            blackhole.consume(cache.roots(coefficients[e], coefficients[e + 1], coefficients[e + 2]));
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -2,9 +2,14 @@ package warmup;
 
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class Quadratic {
 
+    // batches at most this large are solved sequentially
+    static final int PARALLEL_THRESHOLD = 16384;
+
     /**
      * Find the integer roots of a quadratic equation, ax^2 + bx + c = 0.
      * @param a coefficient of x^2
@@ -16,35 +21,195 @@ public class Quadratic {
 
         assert(!((a == 0) && (b == 0) && (c == 0)));
 
+        int[] buffer = new int[2];
+        int count = solve(a, b, c, buffer);
         Set<Integer> roots = new HashSet<Integer>();
-        double discriminant = Math.pow(b, 2) - (4.0 * a * c);
-        System.out.println(discriminant);
-        double sqrt = Math.sqrt(discriminant);
-
-        // Check to see if the roots are imaginary
-        if (! Double.isNaN(sqrt) && isWholeNumber(sqrt)) {
-            int discriminantSquareRoot  = (int) sqrt;
-            double firstRoot = (-b + discriminantSquareRoot) / (2.0 * a);
-            double secondRoot = (-b - discriminantSquareRoot) / (2.0 * a);
-
-            if (a == 0) {
-                if(b != 0 && isWholeNumber((double)-c/b))
-                    roots.add(-c/b);
-            }
-            else if (isWholeNumber(firstRoot)) {
-                roots.add((int)firstRoot);
-                roots.add((int)secondRoot);
-            }
-            else if (c == 0 && isWholeNumber(Math.sqrt(-b/a)))
-                roots.add((int)Math.sqrt(-b/a));
-        }
+        for (int i = 0; i < count; i++)
+            roots.add(buffer[i]);
         return roots;
     }
 
-    private static boolean isWholeNumber(double number) {
-        return number == (int) number;
+    /**
+     * Find the integer roots of a quadratic equation, ax^2 + bx + c = 0, exactly and without
+     * allocating: the discriminant is computed in long arithmetic, which cannot overflow for
+     * int coefficients, and tested for being a perfect square with an integer square root.
+     * @param a coefficient of x^2
+     * @param b coefficient of x
+     * @param c constant term.  Requires that a, b, and c are not ALL zero.
+     * @param roots buffer of length at least 2. Its first n elements are set to the roots,
+     *        where n is the return value, and the rest are unchanged.
+     * @return number n of integers x in the range of int such that ax^2 + bx + c = 0, which
+     *         is 0, 1 or 2. The roots are written in increasing order.
+     */
+    public static int solve(int a, int b, int c, int[] roots) {
+        return solve(a, b, c, roots, 0);
     }
 
+    /**
+     * Find the integer roots of a quadratic equation, as solve(a, b, c, roots) does, writing
+     * them to roots[offset..offset+2).
+     */
+    private static int solve(int a, int b, int c, int[] roots, int offset) {
+        if (a == 0) {
+            // bx + c = 0
+            if (b == 0 || c % b != 0)
+                return 0;
+            return put(-(long) c / b, roots, offset, 0);
+        }
+
+        // Halving b keeps the discriminant within a long. With b = 2h, the roots are
+        // (-h +- sqrt(h^2 - ac)) / a. With b = 2h + 1, b^2 - 4ac = 4e + 1, where
+        // e = h^2 + h - ac, is the square of an odd number 2t + 1 iff e = t(t + 1),
+        // and then the roots are (-b +- (2t + 1)) / 2a.
+        long h = b >> 1;
+        long e = h * h - (long) a * c;
+        long minus, plus, denominator;
+        if ((b & 1) == 0) {
+            if (e < 0)
+                return 0;
+            long s = isqrt(e);
+            if (s * s != e)
+                return 0;
+            minus = -h - s;
+            plus = -h + s;
+            denominator = a;
+        } else {
+            e += h;
+            if (e < 0)
+                return 0;
+            long t = isqrt(e);
+            if (t * (t + 1) != e)
+                return 0;
+            minus = -(long) b - (2 * t + 1);
+            plus = -(long) b + (2 * t + 1);
+            denominator = 2L * a;
+        }
+        if (denominator < 0) {
+            long negated = -minus;
+            minus = -plus;
+            plus = negated;
+            denominator = -denominator;
+        }
+
+        int count = 0;
+        if (minus % denominator == 0)
+            count = put(minus / denominator, roots, offset, count);
+        if (plus != minus && plus % denominator == 0)
+            count = put(plus / denominator, roots, offset, count);
+        return count;
+    }
+
+    /**
+     * Append x to roots[offset..offset+count) if it is an int.
+     * @return the new count
+     */
+    private static int put(long x, int[] roots, int offset, int count) {
+        if (x < Integer.MIN_VALUE || x > Integer.MAX_VALUE)
+            return count;
+        roots[offset + count] = (int) x;
+        return count + 1;
+    }
+
+    /**
+     * Find the integer roots of many quadratic equations, a[i]x^2 + b[i]x + c[i] = 0, as
+     * solve() does, into flat arrays. Neither allocates nor boxes.
+     * @param a coefficients of x^2
+     * @param b coefficients of x, b.length == a.length
+     * @param c constant terms, c.length == a.length.  Requires that a[i], b[i] and c[i] are
+     *        not ALL zero for any i.
+     * @param counts buffer of length at least a.length; counts[i] is set to the number of
+     *        roots of equation i, 0, 1 or 2
+     * @param roots buffer of length at least 2 * a.length; the roots of equation i are written
+     *        in increasing order to roots[2i..2i+counts[i]), and roots[2i+counts[i]..2i+2) are
+     *        unchanged
+     * @throws IllegalArgumentException if the arrays have the wrong lengths
+     */
+    public static void solveAll(int[] a, int[] b, int[] c, int[] counts, int[] roots) {
+        checkLengths(a, b, c, counts, roots);
+        solveRange(a, b, c, counts, roots, 0, a.length);
+    }
+
+    /**
+     * Find the integer roots of many quadratic equations, as solveAll() does, splitting the
+     * work across the common ForkJoinPool.
+     */
+    public static void solveAllParallel(int[] a, int[] b, int[] c, int[] counts, int[] roots) {
+        solveAllParallel(a, b, c, counts, roots, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Find the integer roots of many quadratic equations, as solveAll() does, splitting the
+     * work across pool.
+     * @param pool pool whose threads solve the equations
+     */
+    public static void solveAllParallel(int[] a, int[] b, int[] c, int[] counts, int[] roots,
+            ForkJoinPool pool) {
+        checkLengths(a, b, c, counts, roots);
+        pool.invoke(new SolveTask(a, b, c, counts, roots, 0, a.length));
+    }
+
+    private static void checkLengths(int[] a, int[] b, int[] c, int[] counts, int[] roots) {
+        if (b.length != a.length || c.length != a.length)
+            throw new IllegalArgumentException("coefficient arrays differ in length");
+        if (counts.length < a.length || roots.length < 2L * a.length)
+            throw new IllegalArgumentException("output arrays too short for " + a.length + " equations");
+    }
+
+    /**
+     * Solve equations [from, to). The loop has no calls other than to solve(), which the JIT
+     * inlines, and writes each equation's output at a fixed place, so ranges can be solved
+     * independently.
+     */
+    private static void solveRange(int[] a, int[] b, int[] c, int[] counts, int[] roots, int from, int to) {
+        for (int i = from; i < to; i++)
+            counts[i] = solve(a[i], b[i], c[i], roots, 2 * i);
+    }
+
+    /**
+     * Solves a range of equations, splitting it in half until the halves are small enough to
+     * solve sequentially. The halves write disjoint parts of the output arrays.
+     */
+    private static class SolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a, b, c, counts, roots;
+        private final int from, to;
+
+        SolveTask(int[] a, int[] b, int[] c, int[] counts, int[] roots, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.counts = counts;
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                solveRange(a, b, c, counts, roots, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveTask(a, b, c, counts, roots, from, middle),
+                      new SolveTask(a, b, c, counts, roots, middle, to));
+        }
+    }
+
+    /**
+     * @param n nonnegative number less than 2^62 + 2^61
+     * @return floor(sqrt(n))
+     */
+    private static long isqrt(long n) {
+        // the double estimate is within one of the answer; the products cannot overflow
+        long r = (long) Math.sqrt((double) n);
+        while (r * r > n)
+            r--;
+        while ((r + 1) * (r + 1) <= n)
+            r++;
+        return r;
+    }
     
     /**
      * Main function of program.
@@ -0,0 +1,337 @@
+package warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RootsCache is a bounded, thread-safe memo of Quadratic.roots() for workloads that ask for the
+ * same equations again and again. It holds at most capacity() equations, evicting the least
+ * recently used, and returns immutable root sets that are shared between callers.
+ *
+ * The cache is split into stripes by a hash of the coefficients, each an LRU list with its own
+ * lock, so that threads asking about different equations rarely wait for each other; LRU order
+ * is kept within each stripe. The coefficients are packed into primitive arrays, so a hit
+ * allocates nothing. Hits, misses and evictions are counted for sizing the cache.
+ */
+public class RootsCache {
+
+    private static final int MAX_STRIPES = 16;
+    // a stripe holds at least this many equations, so that small caches evict in LRU order
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /* Rep invariant:
+     *    stripes.length is a power of two, and the capacities of the stripes sum to capacity
+     *    every equation is in the stripe its coefficients hash to, and maps to its roots
+     *    hits, misses and evictions are nonnegative
+     * Abstraction function:
+     *    represents the memo of the equations in the stripes, each with its roots, ordered from
+     *    least to most recently used within its stripe, together with counts of the lookups
+     *    that found their equation, that did not, and of the equations evicted so far
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and Stripe is a private class. Root sets are
+     *    unmodifiable, so sharing them between callers is safe.
+     * Thread safety argument:
+     *    Each stripe's map is only accessed while holding the stripe's lock. The counters are
+     *    LongAdders, and capacity is final and immutable.
+     */
+
+    /**
+     * Make an empty cache.
+     * @param capacity maximum number of equations to hold, at least 1
+     */
+    public RootsCache(int capacity) {
+        this(capacity, Math.max(1, Math.min(MAX_STRIPES, Integer.highestOneBit(capacity / MIN_STRIPE_CAPACITY))));
+    }
+
+    /**
+     * Make an empty cache split into a given number of stripes.
+     * @param capacity maximum number of equations to hold, at least stripes
+     * @param stripes a power of two
+     */
+    RootsCache(int capacity, int stripes) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        if (Integer.bitCount(stripes) != 1 || stripes > capacity)
+            throw new IllegalArgumentException("bad number of stripes: " + stripes);
+        this.capacity = capacity;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++)
+            this.stripes[i] = new Stripe(capacity / stripes + (i < capacity % stripes ? 1 : 0));
+        checkRep();
+    }
+
+    // assert the parts of the rep invariant that do not need the stripes' locks
+    private void checkRep() {
+        assert Integer.bitCount(stripes.length) == 1;
+        int sum = 0;
+        for (Stripe stripe: stripes)
+            sum += stripe.capacity;
+        assert sum == capacity;
+    }
+
+    /**
+     * Find the integer roots of a quadratic equation, ax^2 + bx + c = 0, from the cache if
+     * possible, or else by Quadratic.solve(), remembering them.
+     * @param a coefficient of x^2
+     * @param b coefficient of x
+     * @param c constant term.  Requires that a, b, and c are not ALL zero.
+     * @return an unmodifiable set equal to Quadratic.roots(a, b, c)
+     */
+    public Set<Integer> roots(int a, int b, int c) {
+        long ab = (long) a << 32 | (b & 0xffffffffL);
+        int hash = hash(ab, c);
+        // the stripe is chosen by high bits of the hash, which its table does not index by
+        Stripe stripe = stripes[(hash >>> 24) & (stripes.length - 1)];
+        Set<Integer> roots;
+        synchronized (stripe) {
+            roots = stripe.get(ab, c, hash);
+        }
+        if (roots != null) {
+            hits.increment();
+            return roots;
+        }
+
+        // solve outside the lock; a racing thread may solve the same equation, and the
+        // first to finish wins
+        misses.increment();
+        roots = solve(a, b, c);
+        synchronized (stripe) {
+            Set<Integer> cached = stripe.get(ab, c, hash);
+            if (cached != null)
+                return cached;
+            if (stripe.put(ab, c, hash, roots))
+                evictions.increment();
+        }
+        return roots;
+    }
+
+    /**
+     * @return a well-mixed hash of packed coefficients
+     */
+    private static int hash(long ab, int c) {
+        long hash = (ab ^ (ab >>> 29) ^ c) * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * @return an unmodifiable set of the roots of ax^2 + bx + c = 0, of the smallest kind
+     */
+    private static Set<Integer> solve(int a, int b, int c) {
+        int[] buffer = new int[2];
+        switch (Quadratic.solve(a, b, c, buffer)) {
+        case 0:
+            return Collections.emptySet();
+        case 1:
+            return Collections.singleton(buffer[0]);
+        default:
+            return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(buffer[0], buffer[1])));
+        }
+    }
+
+    /**
+     * @return maximum number of equations this cache holds
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of equations this cache holds now
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe: stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return number of calls to roots() so far that found their equation in the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of calls to roots() so far that did not find their equation in the cache
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of equations evicted so far to keep the cache within its capacity
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Remove every equation from the cache. The counters are not reset.
+     */
+    public void clear() {
+        for (Stripe stripe: stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    @Override public String toString() {
+        return "RootsCache[size=" + size() + ", capacity=" + capacity + ", hits=" + hits()
+                + ", misses=" + misses() + ", evictions=" + evictions() + "]";
+    }
+
+    /**
+     * An LRU map from equations to their roots, holding at most capacity equations, in
+     * primitive arrays so that neither a lookup nor a replacement allocates; guarded by its
+     * own lock.
+     *
+     * Equations live in numbered entries: entry e holds the coefficients packed into abs[e]
+     * and cs[e], and roots[e]. The entries are on a doubly-linked list from the most recently
+     * used, head, to the least, tail. table is an open-addressing hash index with linear
+     * probing, whose slots hold an entry plus one, or 0 if empty.
+     */
+    private static final class Stripe {
+        private static final int NONE = -1;
+
+        private final int capacity;
+        private final long[] abs;
+        private final int[] cs;
+        private final Object[] roots;
+        private final int[] previous;
+        private final int[] next;
+        private final int[] table;
+        private int head = NONE;
+        private int tail = NONE;
+        private int size = 0;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            abs = new long[capacity];
+            cs = new int[capacity];
+            roots = new Object[capacity];
+            previous = new int[capacity];
+            next = new int[capacity];
+            // at most half full
+            table = new int[Integer.highestOneBit(capacity) << 2];
+        }
+
+        /**
+         * @return the roots of the equation, making it the most recently used, or null if
+         *         this stripe does not hold it
+         */
+        @SuppressWarnings("unchecked")
+        private Set<Integer> get(long ab, int c, int hash) {
+            int slot = find(ab, c, hash);
+            if (table[slot] == 0)
+                return null;
+            int entry = table[slot] - 1;
+            if (entry != head) {
+                unlink(entry);
+                linkFirst(entry);
+            }
+            return (Set<Integer>) roots[entry];
+        }
+
+        /**
+         * Add an equation this stripe does not hold, as the most recently used, evicting the
+         * least recently used if the stripe is full.
+         * @return true iff an equation was evicted
+         */
+        private boolean put(long ab, int c, int hash, Set<Integer> equationRoots) {
+            int entry;
+            boolean evicted = size == capacity;
+            if (evicted) {
+                entry = tail;
+                unlink(entry);
+                remove(find(abs[entry], cs[entry], hash(abs[entry], cs[entry])));
+            } else {
+                entry = size++;
+            }
+            abs[entry] = ab;
+            cs[entry] = c;
+            roots[entry] = equationRoots;
+            linkFirst(entry);
+            table[find(ab, c, hash)] = entry + 1;
+            return evicted;
+        }
+
+        /**
+         * @return the slot of table that holds the equation, or the empty slot where it belongs
+         */
+        private int find(long ab, int c, int hash) {
+            int mask = table.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int entry = table[slot] - 1;
+                if (entry < 0 || (abs[entry] == ab && cs[entry] == c))
+                    return slot;
+            }
+        }
+
+        /**
+         * Empty a slot of table, shifting later slots of its probe run back into the gap so
+         * that no lookup stops early.
+         */
+        private void remove(int slot) {
+            int mask = table.length - 1;
+            int gap = slot;
+            for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+                int entry = table[i] - 1;
+                int home = hash(abs[entry], cs[entry]) & mask;
+                // move the entry back iff its home slot is not cyclically within (gap, i]
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    table[gap] = table[i];
+                    gap = i;
+                }
+            }
+            table[gap] = 0;
+        }
+
+        private void unlink(int entry) {
+            if (previous[entry] == NONE)
+                head = next[entry];
+            else
+                next[previous[entry]] = next[entry];
+            if (next[entry] == NONE)
+                tail = previous[entry];
+            else
+                previous[next[entry]] = previous[entry];
+        }
+
+        private void linkFirst(int entry) {
+            previous[entry] = NONE;
+            next[entry] = head;
+            if (head != NONE)
+                previous[head] = entry;
+            head = entry;
+            if (tail == NONE)
+                tail = entry;
+        }
+
+        private void clear() {
+            Arrays.fill(table, 0);
+            Arrays.fill(roots, null);
+            head = NONE;
+            tail = NONE;
+            size = 0;
+        }
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,114 @@
+package warmup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class QuadraticBatchTest {
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+    /*
+     * Testing strategy:
+     *
+     * Partitions:
+     *    batch size: 0, 1, many; below and above PARALLEL_THRESHOLD
+     *    sequential, parallel on the common pool, parallel on a given pool
+     *    output arrays exactly long enough, longer, too short; coefficient arrays of equal
+     *      and unequal lengths
+     *
+     * Each equation's result is compared with solve(), and output slots beyond an
+     * equation's count are checked to be unchanged.
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        int[] none = new int[0];
+        Quadratic.solveAll(none, none, none, none, none);
+        Quadratic.solveAllParallel(none, none, none, none, none);
+    }
+
+    @Test
+    public void testOneEquation() {
+        int[] counts = new int[1];
+        int[] roots = {-1, -1};
+        Quadratic.solveAll(new int[] {1}, new int[] {-26}, new int[] {169}, counts, roots);
+        assertArrayEquals(new int[] {1}, counts);
+        assertArrayEquals(new int[] {13, -1}, roots);
+    }
+
+    @Test
+    public void testSequentialMatchesSolve() {
+        int n = 1000;
+        int[][] abc = split(SyntheticEquations.make(n, 1000, 6005));
+        int[] counts = new int[n + 3];
+        int[] roots = new int[2 * n + 5];
+        Quadratic.solveAll(abc[0], abc[1], abc[2], counts, roots);
+        assertMatchesSolve(abc, counts, roots);
+    }
+
+    @Test
+    public void testParallelMatchesSolve() {
+        int n = 4 * Quadratic.PARALLEL_THRESHOLD + 17;
+        int[][] abc = split(SyntheticEquations.make(n, 1000, 6005));
+        int[] counts = new int[n];
+        int[] roots = new int[2 * n];
+        Quadratic.solveAllParallel(abc[0], abc[1], abc[2], counts, roots);
+        assertMatchesSolve(abc, counts, roots);
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int[] poolCounts = new int[n];
+            int[] poolRoots = new int[2 * n];
+            Quadratic.solveAllParallel(abc[0], abc[1], abc[2], poolCounts, poolRoots, pool);
+            assertArrayEquals(counts, poolCounts);
+            assertMatchesSolve(abc, poolCounts, poolRoots);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCoefficientLengthsDiffer() {
+        Quadratic.solveAll(new int[2], new int[2], new int[1], new int[2], new int[4]);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testRootsTooShort() {
+        int[] ones = {1, 1};
+        Quadratic.solveAllParallel(ones, ones, ones, new int[2], new int[3]);
+    }
+
+    // split flat coefficients into arrays of a, b and c
+    private static int[][] split(int[] coefficients) {
+        int n = coefficients.length / 3;
+        int[][] abc = new int[3][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < 3; j++)
+                abc[j][i] = coefficients[3 * i + j];
+        return abc;
+    }
+
+    // assert that each equation's count and roots equal solve()'s, and the unused slots are 0
+    private static void assertMatchesSolve(int[][] abc, int[] counts, int[] roots) {
+        int[] buffer = new int[2];
+        for (int i = 0; i < abc[0].length; i++) {
+            int count = Quadratic.solve(abc[0][i], abc[1][i], abc[2][i], buffer);
+            assertEquals("equation " + i, count, counts[i]);
+            int[] expected = Arrays.copyOf(Arrays.copyOf(buffer, count), 2);
+            assertArrayEquals("equation " + i, expected, Arrays.copyOfRange(roots, 2 * i, 2 * i + 2));
+        }
+    }
+}
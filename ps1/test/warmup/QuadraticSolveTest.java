@@ -0,0 +1,179 @@
+package warmup;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class QuadraticSolveTest {
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+    /*
+     * Testing strategy:
+     *
+     * Partitions:
+     *    a=0 (linear), a!=0
+     *    b even, b odd
+     *    discriminant negative, zero, positive perfect square, positive non-square
+     *    # roots: 0, 1, 2; roots that are rational but not integers
+     *    coefficients small, or at the ends of the int range where double arithmetic is inexact
+     *    a root outside the int range
+     *
+     * Also: solve() writes roots in increasing order and leaves the rest of the buffer alone,
+     * agrees with substituting every candidate on a grid of small coefficients, and roots()
+     * returns the same roots as a set.
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    // covers a=0, b!=0, one root
+    @Test
+    public void testLinear() {
+        assertRoots(0, 3, -6, 2);
+        assertRoots(0, -4, 8, 2);
+    }
+
+    // covers a=0 with a rational root, and a=0, b=0
+    @Test
+    public void testLinearNoRoots() {
+        assertRoots(0, 2, 3);
+        assertRoots(0, 0, 5);
+    }
+
+    // covers b even, two roots, written in increasing order whatever the sign of a
+    @Test
+    public void testTwoRoots() {
+        assertRoots(1, -13, 40, 5, 8);
+        assertRoots(-7, 98, -231, 3, 11);
+    }
+
+    // covers b odd, with two roots and with one
+    @Test
+    public void testOddB() {
+        assertRoots(1, -1, -6, -2, 3);
+        // -(2x + 1)(x - 2)
+        assertRoots(-2, 3, 2, 2);
+    }
+
+    // covers one integer root and one rational root
+    @Test
+    public void testOneIntegerRoot() {
+        // (2x - 1)(x - 3)
+        assertRoots(2, -7, 3, 3);
+    }
+
+    // covers discriminant zero
+    @Test
+    public void testDoubleRoot() {
+        assertRoots(1, -26, 169, 13);
+        assertRoots(1, 0, 0, 0);
+    }
+
+    // covers discriminant negative and positive non-square
+    @Test
+    public void testNoRoots() {
+        assertRoots(1, 0, 1);
+        assertRoots(1, 1, -1);
+    }
+
+    // covers coefficients whose discriminant has more than 53 bits
+    @Test
+    public void testExtremeCoefficients() {
+        // x = 1, and 1/MAX_VALUE
+        assertRoots(Integer.MAX_VALUE, Integer.MIN_VALUE, 1, 1);
+        // MIN_VALUE x^2 + MIN_VALUE x = 0 at x = 0 and x = -1
+        assertRoots(Integer.MIN_VALUE, Integer.MIN_VALUE, 0, -1, 0);
+        // (x + 46341)(x - 46340) = x^2 + x - 2147441940
+        assertRoots(1, 1, -46341 * 46340, -46341, 46340);
+        // -x^2 + MIN_VALUE x + MIN_VALUE has no integer roots, and a discriminant over 2^62
+        assertRoots(-1, Integer.MIN_VALUE, Integer.MIN_VALUE);
+    }
+
+    // covers a root outside the int range: (x - 2^31)(x + 1) = x^2 - (2^31 - 1)x - 2^31
+    @Test
+    public void testRootOutsideIntRange() {
+        assertRoots(1, -Integer.MAX_VALUE, Integer.MIN_VALUE, -1);
+    }
+
+    @Test
+    public void testBufferBeyondCountUnchanged() {
+        int[] buffer = {7, 7, 7};
+        assertEquals(1, Quadratic.solve(1, -26, 169, buffer));
+        assertArrayEquals(new int[] {13, 7, 7}, buffer);
+    }
+
+    @Test
+    public void testAgainstSubstitutionSmall() {
+        for (int a = -6; a <= 6; a++)
+            for (int b = -12; b <= 12; b++)
+                for (int c = -12; c <= 12; c++)
+                    if (a != 0 || b != 0 || c != 0)
+                        assertSubstitution(a, b, c, 25);
+    }
+
+    @Test
+    public void testAgainstSubstitutionRandomRoots() {
+        Random random = new Random(6005);
+        for (int i = 0; i < 10_000; i++) {
+            long r = random.nextInt(200_001) - 100_000;
+            long s = random.nextInt(2001) - 1000;
+            long a = random.nextInt(21) - 10;
+            if (a == 0 || Math.abs(a * r * s) > Integer.MAX_VALUE || Math.abs(a * (r + s)) > Integer.MAX_VALUE)
+                continue;
+            int[] expected = r == s ? new int[] {(int) r} : new int[] {(int) Math.min(r, s), (int) Math.max(r, s)};
+            assertRoots((int) a, (int) (-a * (r + s)), (int) (a * r * s), expected);
+        }
+    }
+
+    @Test
+    public void testRootsMatchesSolve() {
+        assertEquals(new HashSet<>(Arrays.asList(5, 8)), Quadratic.roots(1, -13, 40));
+        assertEquals(new HashSet<>(Arrays.asList(1)), Quadratic.roots(Integer.MAX_VALUE, Integer.MIN_VALUE, 1));
+        assertEquals(new HashSet<>(), Quadratic.roots(1, 0, 1));
+    }
+
+    // assert that solve(a, b, c) finds exactly the roots, in increasing order
+    private static void assertRoots(int a, int b, int c, int... roots) {
+        int[] buffer = new int[2];
+        int count = Quadratic.solve(a, b, c, buffer);
+        String equation = a + "x^2 + " + b + "x + " + c;
+        assertArrayEquals(equation, roots, Arrays.copyOf(buffer, count));
+        for (int x: roots)
+            assertEquals(equation, BigInteger.ZERO, evaluate(a, b, c, x));
+    }
+
+    // assert that solve(a, b, c) finds exactly the roots in [-bound, bound], which for small
+    // coefficients is every integer root
+    private static void assertSubstitution(int a, int b, int c, int bound) {
+        Set<Integer> expected = new HashSet<>();
+        for (int x = -bound; x <= bound; x++)
+            if (evaluate(a, b, c, x).signum() == 0)
+                expected.add(x);
+        int[] buffer = new int[2];
+        int count = Quadratic.solve(a, b, c, buffer);
+        Set<Integer> actual = new HashSet<>();
+        for (int i = 0; i < count; i++)
+            actual.add(buffer[i]);
+        assertEquals(a + "x^2 + " + b + "x + " + c, expected, actual);
+    }
+
+    private static BigInteger evaluate(int a, int b, int c, int x) {
+        BigInteger bx = BigInteger.valueOf(x);
+        return BigInteger.valueOf(a).multiply(bx).multiply(bx)
+                .add(BigInteger.valueOf(b).multiply(bx))
+                .add(BigInteger.valueOf(c));
+    }
+}
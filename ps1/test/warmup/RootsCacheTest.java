@@ -0,0 +1,175 @@
+package warmup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RootsCacheTest {
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+    /*
+     * Testing strategy:
+     *
+     * Partitions:
+     *    lookup: miss, hit
+     *    equations with 0, 1, 2 roots; coefficients that differ only in sign or in one of a, b, c
+     *    cache: below capacity, at capacity (evicts), one stripe or many
+     *    threads: one, many racing on the same equations
+     *
+     * Also: results equal Quadratic.roots(), are unmodifiable, and are shared between hits;
+     * counters add up; bad capacities are rejected.
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testMissThenHit() {
+        RootsCache cache = new RootsCache(100);
+        Set<Integer> first = cache.roots(1, -13, 40);
+        Set<Integer> second = cache.roots(1, -13, 40);
+        assertEquals(Quadratic.roots(1, -13, 40), first);
+        assertSame(first, second);
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testZeroOneTwoRoots() {
+        RootsCache cache = new RootsCache(100);
+        assertEquals(Quadratic.roots(1, 0, 1), cache.roots(1, 0, 1));
+        assertEquals(Quadratic.roots(1, -26, 169), cache.roots(1, -26, 169));
+        assertEquals(Quadratic.roots(1, -1, -6), cache.roots(1, -1, -6));
+        assertEquals(Quadratic.roots(Integer.MAX_VALUE, Integer.MIN_VALUE, 1),
+                cache.roots(Integer.MAX_VALUE, Integer.MIN_VALUE, 1));
+    }
+
+    @Test
+    public void testSimilarKeysDistinct() {
+        RootsCache cache = new RootsCache(100);
+        int[][] equations = {
+            {1, -1, -6}, {-1, 1, 6}, {1, 1, -6}, {1, -1, 6}, {-6, -1, 1}, {0, 1, -6}, {1, 0, -1}, {-1, 0, 1}
+        };
+        for (int[] e: equations)
+            assertEquals(Quadratic.roots(e[0], e[1], e[2]), cache.roots(e[0], e[1], e[2]));
+        assertEquals(equations.length, cache.misses());
+        assertEquals(equations.length, cache.size());
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        new RootsCache(10).roots(1, -13, 40).add(3);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        RootsCache cache = new RootsCache(2, 1);
+        Set<Integer> first = cache.roots(1, -13, 40);
+        cache.roots(1, -26, 169);
+        cache.roots(1, -13, 40); // now the most recently used
+        cache.roots(1, -1, -6);  // evicts (1, -26, 169)
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+
+        assertSame(first, cache.roots(1, -13, 40));
+        cache.roots(1, -26, 169);
+        assertEquals(4, cache.misses());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test
+    public void testBoundedWithManyStripes() {
+        RootsCache cache = new RootsCache(1000);
+        for (int c = -5000; c < 5000; c++)
+            assertEquals(Quadratic.roots(1, 0, c), cache.roots(1, 0, c));
+        assertTrue(cache.size() <= 1000);
+        assertEquals(10_000, cache.misses());
+        assertEquals(10_000 - cache.size(), cache.evictions());
+    }
+
+    @Test
+    public void testAgainstLruModel() {
+        int capacity = 64;
+        RootsCache cache = new RootsCache(capacity, 1);
+        Map<Integer, Boolean> model = new LinkedHashMap<Integer, Boolean>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        Random random = new Random(6005);
+        long hits = 0;
+        for (int i = 0; i < 50_000; i++) {
+            int c = random.nextInt(200) - 100;
+            if (model.get(c) != null)
+                hits++;
+            else
+                model.put(c, true);
+            assertEquals(Quadratic.roots(1, 0, c), cache.roots(1, 0, c));
+            assertEquals(hits, cache.hits());
+        }
+        assertEquals(model.size(), cache.size());
+    }
+
+    @Test
+    public void testClear() {
+        RootsCache cache = new RootsCache(10);
+        Set<Integer> before = cache.roots(1, -13, 40);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(before, cache.roots(1, -13, 40));
+        assertEquals(2, cache.misses());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new RootsCache(0);
+    }
+
+    @Test
+    public void testConcurrentLookups() throws InterruptedException {
+        RootsCache cache = new RootsCache(256);
+        int threads = 4, calls = 20_000;
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    for (int i = 0; i < calls; i++) {
+                        int r = i % 500 - 250;
+                        assertEquals(Quadratic.roots(1, -2 * r, r * r), cache.roots(1, -2 * r, r * r));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker: workers)
+            worker.join();
+        assertEquals(new ArrayList<>(), failures);
+        assertEquals(threads * calls, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 256);
+    }
+}
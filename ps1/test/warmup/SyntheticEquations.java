@@ -0,0 +1,61 @@
+package warmup;
+
+import java.util.Random;
+
+/**
+ * Deterministic generator of quadratic equations for benchmarks. Half of the equations are
+ * built from integer roots, so that roots() has something to find, and the rest have random
+ * coefficients, which mostly have no integer roots; a few are linear.
+ */
+public class SyntheticEquations {
+
+    private SyntheticEquations() {
+        // static methods only
+    }
+
+    /**
+     * Make equations ax^2 + bx + c = 0, none with a, b and c all zero.
+     * @param count number of equations
+     * @param range bound on the absolute value of the roots and the random coefficients,
+     *        at least 1; with range up to 1000, every coefficient fits in an int
+     * @param seed random seed; equal seeds give equal arrays
+     * @return an array of 3 * count coefficients, a, b and c of each equation in turn
+     */
+    public static int[] make(int count, int range, long seed) {
+        Random random = new Random(seed);
+        int[] coefficients = new int[3 * count];
+        for (int i = 0; i < count; i++) {
+            long a, b, c;
+            if (i % 2 == 0) {
+                // a(x - r)(x - s)
+                long r = between(random, range);
+                long s = between(random, range);
+                a = random.nextBoolean() ? 1 : -1 - random.nextInt(9);
+                b = -a * (r + s);
+                c = a * r * s;
+            } else {
+                a = i % 16 == 1 ? 0 : between(random, range);
+                b = between(random, range);
+                c = between(random, range);
+                if (a == 0 && b == 0 && c == 0)
+                    c = 1;
+            }
+            coefficients[3 * i] = (int) a;
+            coefficients[3 * i + 1] = (int) b;
+            coefficients[3 * i + 2] = (int) c;
+        }
+        return coefficients;
+    }
+
+    /**
+     * @return a uniformly random integer in [-range, range]
+     */
+    private static long between(Random random, int range) {
+        return random.nextInt(2 * range + 1) - range;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,87 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AuthorIndex is a mutable index from Twitter usernames to the tweets they wrote, for answering
+ * Filter.writtenBy() for many users over the same collection of tweets.
+ *
+ * Authors are keyed by Username, so neither appending a tweet nor looking up a user creates a
+ * lowercase copy of a name, and writtenBy() takes time proportional to the number of tweets it
+ * returns.
+ */
+public class AuthorIndex {
+
+    private final Map<Username, List<Tweet>> tweetsByAuthor;
+
+    /* Rep invariant:
+     *    every tweet in tweetsByAuthor.get(a) has author a, ignoring case
+     *    no list in tweetsByAuthor is empty
+     * Abstraction function:
+     *    represents the sequence of tweets added so far, grouped by author: each list of
+     *    tweetsByAuthor holds one author's tweets in order of insertion
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and writtenBy() returns a fresh list.
+     *    Tweets, usernames and strings are immutable.
+     */
+
+    /**
+     * Make an empty index.
+     */
+    public AuthorIndex() {
+        tweetsByAuthor = new HashMap<>();
+    }
+
+    /**
+     * Make an index of a list of tweets.
+     * @param tweets tweets with distinct ids, not modified by this method
+     */
+    public AuthorIndex(List<Tweet> tweets) {
+        this();
+        for (Tweet tweet: tweets)
+            add(tweet);
+    }
+
+    /**
+     * Append a tweet to the index.
+     * @param tweet tweet whose id is distinct from the tweets already in this index
+     */
+    public void add(Tweet tweet) {
+        Username author = new Username(tweet.getAuthor());
+        List<Tweet> tweets = tweetsByAuthor.get(author);
+        if (tweets == null) {
+            tweets = new ArrayList<>();
+            tweetsByAuthor.put(author, tweets);
+        }
+        tweets.add(tweet);
+    }
+
+    /**
+     * Find tweets written by a particular user.
+     * @param username Twitter username, required to be a valid Twitter username as defined
+     *        by Tweet.getAuthor()'s spec
+     * @return all and only the tweets in this index whose author is username, in order of
+     *         insertion. For an index built from a list, this is Filter.writtenBy() of that list.
+     */
+    public List<Tweet> writtenBy(String username) {
+        List<Tweet> tweets = tweetsByAuthor.get(new Username(username));
+        if (tweets == null)
+            return new ArrayList<>();
+        return new ArrayList<>(tweets);
+    }
+
+    /**
+     * @return number of distinct authors in this index, ignoring case
+     */
+    public int authorCount() {
+        return tweetsByAuthor.size();
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
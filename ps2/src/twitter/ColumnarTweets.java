@@ -0,0 +1,416 @@
+package twitter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ColumnarTweets is an immutable sequence of tweets read in place from a file written by
+ * write(), in which each attribute of the tweets is stored as a separate column. The file is
+ * mapped into memory rather than read, and the queries writtenBy(), inTimespan() and
+ * getTimespan() scan only the columns they need and return row numbers, so that corpora much
+ * larger than the heap can be filtered without creating a Tweet for each row.
+ *
+ * The file is big-endian binary, every section aligned to 8 bytes:
+ *     header              magic, version, row count, author count, dictionary size, text size
+ *     ids                 long[rows]
+ *     seconds             long[rows], epoch second of each timestamp
+ *     nanos               int[rows], nanosecond adjustment of each timestamp
+ *     authors             int[rows], index into the author dictionary
+ *     dictionary offsets  long[authors + 1], into the dictionary
+ *     dictionary          UTF-8 authors, each spelling once, concatenated in order of first use
+ *     text offsets        long[rows + 1], into the text
+ *     text                UTF-8 texts, concatenated in order of rows
+ */
+public class ColumnarTweets {
+
+    private static final int MAGIC = 0x54575443; // "TWTC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SECTIONS = 8;
+
+    private final int rows;
+    private final int authorCount;
+    private final MappedRegion ids;
+    private final MappedRegion seconds;
+    private final MappedRegion nanos;
+    private final MappedRegion authors;
+    private final MappedRegion dictionaryOffsets;
+    private final MappedRegion dictionary;
+    private final MappedRegion textOffsets;
+    private final MappedRegion text;
+    private Map<Username, int[]> codesByUser = null;
+
+    /* Rep invariant:
+     *    the regions are the sections of a well-formed file, as described above, with rows rows
+     *      and authorCount authors
+     *    codesByUser is null, or maps every author to the dictionary codes of its spellings
+     * Abstraction function:
+     *    represents the tweets whose row'th has id ids[row], timestamp (seconds[row], nanos[row]),
+     *    the author whose code is authors[row], and text text[textOffsets[row]..textOffsets[row+1])
+     * Safety from rep exposure argument:
+     *    All fields are private, regions and codesByUser are never returned, and the mapping is
+     *    read-only. Queries return fresh arrays and lists.
+     * Thread safety argument:
+     *    The regions are immutable after construction. codesByUser is only accessed within
+     *    codes(), which is synchronized.
+     */
+
+    /**
+     * Write tweets to a columnar file, replacing any file already there. The tweets are read once,
+     * in order, and not held in memory: each column is spooled to a temporary file in the same
+     * directory, and the columns are then concatenated into another temporary file, which is
+     * forced to disk and atomically moved into place, so that path never holds a partial file.
+     * @param tweets tweets with distinct ids
+     * @param path file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Iterator<Tweet> tweets, Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path[] columns = new Path[SECTIONS];
+        DataOutputStream[] outs = new DataOutputStream[SECTIONS];
+        Path temporary = null;
+        try {
+            for (int i = 0; i < SECTIONS; i++) {
+                columns[i] = Files.createTempFile(directory, "column", ".tmp");
+                outs[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(columns[i])));
+            }
+            DataOutputStream idsOut = outs[0], secondsOut = outs[1], nanosOut = outs[2], authorsOut = outs[3];
+            DataOutputStream dictionaryOffsetsOut = outs[4], dictionaryOut = outs[5];
+            DataOutputStream textOffsetsOut = outs[6], textOut = outs[7];
+
+            Map<String, Integer> codes = new HashMap<>();
+            int rows = 0;
+            long dictionaryBytes = 0, textBytes = 0;
+            dictionaryOffsetsOut.writeLong(0);
+            textOffsetsOut.writeLong(0);
+            while (tweets.hasNext()) {
+                Tweet tweet = tweets.next();
+                idsOut.writeLong(tweet.getId());
+                secondsOut.writeLong(tweet.getTimestamp().getEpochSecond());
+                nanosOut.writeInt(tweet.getTimestamp().getNano());
+
+                Integer code = codes.get(tweet.getAuthor());
+                if (code == null) {
+                    code = codes.size();
+                    codes.put(tweet.getAuthor(), code);
+                    byte[] author = tweet.getAuthor().getBytes(StandardCharsets.UTF_8);
+                    dictionaryOut.write(author);
+                    dictionaryBytes += author.length;
+                    dictionaryOffsetsOut.writeLong(dictionaryBytes);
+                }
+                authorsOut.writeInt(code);
+
+                byte[] bytes = tweet.getText().getBytes(StandardCharsets.UTF_8);
+                textOut.write(bytes);
+                textBytes += bytes.length;
+                textOffsetsOut.writeLong(textBytes);
+                rows++;
+            }
+            MappedRegion.pad(nanosOut, 4L * rows);
+            MappedRegion.pad(authorsOut, 4L * rows);
+            MappedRegion.pad(dictionaryOut, dictionaryBytes);
+            for (DataOutputStream out: outs)
+                out.close();
+
+            temporary = Files.createTempFile(directory, "columnar", ".tmp");
+            try (DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(rows);
+                header.writeInt(codes.size());
+                header.writeLong(dictionaryBytes);
+                header.writeLong(textBytes);
+            }
+            try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                for (Path column: columns) {
+                    try (FileChannel in = FileChannel.open(column, StandardOpenOption.READ)) {
+                        long size = in.size();
+                        for (long copied = 0; copied < size; )
+                            copied += in.transferTo(copied, size - copied, file);
+                    }
+                }
+                file.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            if (temporary != null)
+                Files.deleteIfExists(temporary);
+            for (int i = 0; i < SECTIONS; i++) {
+                if (outs[i] != null)
+                    outs[i].close();
+                if (columns[i] != null)
+                    Files.deleteIfExists(columns[i]);
+            }
+        }
+    }
+
+    /**
+     * Write tweets to a columnar file, as by write(tweets.iterator(), path).
+     * @param tweets tweets with distinct ids, not modified by this method
+     * @param path file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Iterable<Tweet> tweets, Path path) throws IOException {
+        write(tweets.iterator(), path);
+    }
+
+    /**
+     * Open a file written by write().
+     * @param path file to open
+     * @return the tweets in the file
+     * @throws IOException if the file cannot be read or is not a well-formed columnar tweet file
+     */
+    public static ColumnarTweets open(Path path) throws IOException {
+        return open(path, MappedRegion.CHUNK_BITS);
+    }
+
+    /**
+     * Open a file written by write(), mapping it in chunks of 2^chunkBits bytes.
+     */
+    static ColumnarTweets open(Path path, int chunkBits) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES)
+                throw new IOException("not a columnar tweet file: " + path);
+            MappedRegion header = new MappedRegion(channel, 0, HEADER_BYTES, chunkBits);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("not a columnar tweet file: " + path);
+            if (header.getInt(4) != VERSION)
+                throw new IOException("unsupported columnar tweet file version " + header.getInt(4) + ": " + path);
+            int rows = header.getInt(8);
+            int authorCount = header.getInt(12);
+            long dictionaryBytes = header.getLong(16);
+            long textBytes = header.getLong(24);
+
+            long[] sizes = {
+                8L * rows, 8L * rows, MappedRegion.aligned(4L * rows), MappedRegion.aligned(4L * rows),
+                8L * (authorCount + 1), MappedRegion.aligned(dictionaryBytes), 8L * (rows + 1), textBytes
+            };
+            long expected = HEADER_BYTES;
+            for (long size: sizes)
+                expected += size;
+            if (rows < 0 || authorCount < 0 || dictionaryBytes < 0 || textBytes < 0 || channel.size() != expected)
+                throw new IOException("truncated or corrupt columnar tweet file: " + path);
+
+            MappedRegion[] regions = new MappedRegion[SECTIONS];
+            long position = HEADER_BYTES;
+            for (int i = 0; i < SECTIONS; i++) {
+                regions[i] = new MappedRegion(channel, position, sizes[i], chunkBits);
+                position += sizes[i];
+            }
+            return new ColumnarTweets(rows, authorCount, regions);
+        }
+    }
+
+    private ColumnarTweets(int rows, int authorCount, MappedRegion[] regions) {
+        this.rows = rows;
+        this.authorCount = authorCount;
+        this.ids = regions[0];
+        this.seconds = regions[1];
+        this.nanos = regions[2];
+        this.authors = regions[3];
+        this.dictionaryOffsets = regions[4];
+        this.dictionary = regions[5];
+        this.textOffsets = regions[6];
+        this.text = regions[7];
+        checkRep();
+    }
+
+    // assert the parts of the rep invariant that take constant time to check
+    private void checkRep() {
+        assert dictionaryOffsets.getLong(0) == 0 && textOffsets.getLong(0) == 0;
+    }
+
+    /**
+     * @return number of tweets in this file
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * @param row row in [0, size())
+     * @return the id of the row'th tweet
+     */
+    public long getId(int row) {
+        return ids.getLong(8L * row);
+    }
+
+    /**
+     * @param row row in [0, size())
+     * @return the timestamp of the row'th tweet
+     */
+    public Instant getTimestamp(int row) {
+        return Instant.ofEpochSecond(seconds.getLong(8L * row), nanos.getInt(4L * row));
+    }
+
+    /**
+     * @param row row in [0, size())
+     * @return the author of the row'th tweet
+     */
+    public String getAuthor(int row) {
+        return author(authors.getInt(4L * row));
+    }
+
+    /**
+     * @param row row in [0, size())
+     * @return the text of the row'th tweet
+     */
+    public String getText(int row) {
+        long start = textOffsets.getLong(8L * row);
+        int length = (int) (textOffsets.getLong(8L * row + 8) - start);
+        return new String(text.getBytes(start, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param row row in [0, size())
+     * @return the row'th tweet
+     */
+    public Tweet getTweet(int row) {
+        return new Tweet(getId(row), getAuthor(row), getText(row), getTimestamp(row));
+    }
+
+    /**
+     * @param rows rows in [0, size())
+     * @return the tweets at rows, in the same order
+     */
+    public List<Tweet> getTweets(int[] rows) {
+        List<Tweet> tweets = new ArrayList<>(rows.length);
+        for (int row: rows)
+            tweets.add(getTweet(row));
+        return tweets;
+    }
+
+    /**
+     * Find tweets written by a particular user, reading only the author column.
+     * @param username Twitter username, required to be a valid Twitter username as defined
+     *        by Tweet.getAuthor()'s spec
+     * @return the rows, in increasing order, of all and only the tweets whose author is
+     *         username; getTweets() of this is Filter.writtenBy() of the tweets in this file
+     */
+    public int[] writtenBy(String username) {
+        int[] codes = codes(new Username(username));
+        Rows found = new Rows();
+        if (codes.length == 1) {
+            int code = codes[0];
+            for (int row = 0; row < rows; row++)
+                if (authors.getInt(4L * row) == code)
+                    found.add(row);
+        } else if (codes.length > 1) {
+            for (int row = 0; row < rows; row++)
+                if (Arrays.binarySearch(codes, authors.getInt(4L * row)) >= 0)
+                    found.add(row);
+        }
+        return found.toArray();
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan, reading only the timestamp columns.
+     * @param timespan timespan
+     * @return the rows, in increasing order, of all and only the tweets sent during timespan;
+     *         getTweets() of this is Filter.inTimespan() of the tweets in this file
+     */
+    public int[] inTimespan(Timespan timespan) {
+        long startSecond = timespan.getStart().getEpochSecond();
+        int startNano = timespan.getStart().getNano();
+        long endSecond = timespan.getEnd().getEpochSecond();
+        int endNano = timespan.getEnd().getNano();
+        Rows found = new Rows();
+        for (int row = 0; row < rows; row++) {
+            long second = seconds.getLong(8L * row);
+            if (second < startSecond || second > endSecond)
+                continue;
+            int nano = nanos.getInt(4L * row);
+            if ((second == startSecond && nano < startNano) || (second == endSecond && nano > endNano))
+                continue;
+            found.add(row);
+        }
+        return found.toArray();
+    }
+
+    /**
+     * Get the time period spanned by the tweets in this file, reading only the timestamp columns.
+     * @return what Extract.getTimespan() returns for a list of the tweets in this file
+     */
+    public Timespan getTimespan() {
+        if (rows == 0)
+            return new Timespan(Instant.MIN, Instant.MIN);
+        long minSecond = Long.MAX_VALUE, maxSecond = Long.MIN_VALUE;
+        int minNano = 0, maxNano = 0;
+        for (int row = 0; row < rows; row++) {
+            long second = seconds.getLong(8L * row);
+            if (second > minSecond && second < maxSecond)
+                continue;
+            int nano = nanos.getInt(4L * row);
+            if (second < minSecond || (second == minSecond && nano < minNano)) {
+                minSecond = second;
+                minNano = nano;
+            }
+            if (second > maxSecond || (second == maxSecond && nano > maxNano)) {
+                maxSecond = second;
+                maxNano = nano;
+            }
+        }
+        return new Timespan(Instant.ofEpochSecond(minSecond, minNano), Instant.ofEpochSecond(maxSecond, maxNano));
+    }
+
+    private String author(int code) {
+        long start = dictionaryOffsets.getLong(8L * code);
+        int length = (int) (dictionaryOffsets.getLong(8L * code + 8) - start);
+        return new String(dictionary.getBytes(start, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param user username
+     * @return the dictionary codes of the spellings of user, in increasing order
+     */
+    private synchronized int[] codes(Username user) {
+        if (codesByUser == null) {
+            // decode the dictionary once; it has one entry per spelling, not per tweet
+            codesByUser = new HashMap<>();
+            for (int code = 0; code < authorCount; code++) {
+                Username author = new Username(author(code));
+                int[] codes = codesByUser.get(author);
+                codes = codes == null ? new int[] { code } : Arrays.copyOf(codes, codes.length + 1);
+                codes[codes.length - 1] = code;
+                codesByUser.put(author, codes);
+            }
+        }
+        int[] codes = codesByUser.get(user);
+        return codes == null ? new int[0] : codes;
+    }
+
+    /** A growable array of rows. */
+    private static class Rows {
+        private int[] rows = new int[16];
+        private int size = 0;
+
+        private void add(int row) {
+            if (size == rows.length)
+                rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,338 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * CompactFollowsGraph is an immutable social network, as defined by SocialNetwork, stored in
+ * compressed sparse row form: usernames are interned to int ids, and the ids that user u follows
+ * are targets[offsets[u]..offsets[u+1]). An edge costs 4 bytes and a user about the size of its
+ * username, against hundreds of bytes per edge for a Map<String, Set<String>>.
+ *
+ * Ids are assigned in lexicographic order of lowercase username, so looking up a name is a
+ * binary search, and the followings of each user are in increasing order of id.
+ */
+public class CompactFollowsGraph {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Most edges a builder can hold before removing duplicates: the largest safe array length. */
+    static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+    private final String[] usernames;
+    private final BitSet authors;
+    private final int[] offsets;
+    private final int[] targets;
+
+    /* Rep invariant:
+     *    usernames is strictly increasing, and every username is lowercase
+     *    offsets.length == usernames.length + 1, offsets[0] == 0,
+     *      offsets is nondecreasing, offsets[usernames.length] == targets.length
+     *    for every id u, targets[offsets[u]..offsets[u+1]) is strictly increasing,
+     *      within [0, usernames.length), and does not contain u
+     *    every id u with offsets[u] < offsets[u+1] is in authors
+     * Abstraction function:
+     *    represents the social network in which, for every id u in authors, usernames[u] is a
+     *    key that follows the users usernames[v] for v in targets[offsets[u]..offsets[u+1]).
+     *    Users that are not in authors are only followed.
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and no array or the bitset is returned; adapters
+     *    return fresh collections. Strings are immutable.
+     */
+
+    private CompactFollowsGraph(String[] usernames, BitSet authors, int[] offsets, int[] targets) {
+        this.usernames = usernames;
+        this.authors = authors;
+        this.offsets = offsets;
+        this.targets = targets;
+        checkRep();
+    }
+
+    // assert the rep invariant, in time linear in the size of the graph
+    private void checkRep() {
+        assert offsets.length == usernames.length + 1;
+        assert offsets[0] == 0 && offsets[usernames.length] == targets.length;
+        for (int u = 0; u < usernames.length; u++) {
+            assert u == 0 || usernames[u - 1].compareTo(usernames[u]) < 0;
+            assert offsets[u] <= offsets[u + 1];
+            assert offsets[u] == offsets[u + 1] || authors.get(u);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+                assert targets[e] != u && (e == offsets[u] || targets[e - 1] < targets[e]);
+        }
+    }
+
+    /**
+     * Guess a social network from tweets, as SocialNetwork.guessFollowsGraph() does, without
+     * building a Set for each user.
+     * @param tweets a list of tweets providing the evidence, not modified by this method
+     * @return a graph that represents SocialNetwork.guessFollowsGraph(tweets)
+     * @throws IllegalArgumentException if the tweets have more than MAX_EDGES mentions of
+     *         users other than their authors, counting repeats
+     */
+    public static CompactFollowsGraph fromTweets(List<Tweet> tweets) {
+        Builder builder = new Builder();
+        List<String> mentions = new ArrayList<>();
+        for (Tweet tweet: tweets) {
+            int author = builder.id(tweet.getAuthor());
+            builder.addAuthor(author);
+            mentions.clear();
+            MentionScanner.addMentions(tweet.getText(), mentions);
+            for (String mention: mentions)
+                builder.addEdge(author, builder.id(mention));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compact a social network.
+     * @param followsGraph a social network as defined by SocialNetwork, not modified by this method
+     * @return a graph that represents followsGraph, with every username in lowercase
+     * @throws IllegalArgumentException if followsGraph has more than MAX_EDGES edges
+     */
+    public static CompactFollowsGraph fromMap(Map<String, Set<String>> followsGraph) {
+        Builder builder = new Builder();
+        for (Entry<String, Set<String>> entry: followsGraph.entrySet()) {
+            int author = builder.id(entry.getKey());
+            builder.addAuthor(author);
+            for (String followee: entry.getValue())
+                builder.addEdge(author, builder.id(followee));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Accumulates interned usernames and an unsorted list of edges, with duplicates.
+     */
+    static class Builder {
+        // ids in order of first appearance, keyed by username ignoring case
+        private final Map<Username, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final BitSet authors = new BitSet();
+        private int[] sources = new int[INITIAL_CAPACITY];
+        private int[] destinations = new int[INITIAL_CAPACITY];
+        private int edges = 0;
+
+        /**
+         * @return the id of username, in any case, assigning the next id to a new user
+         */
+        int id(String username) {
+            Username user = new Username(username);
+            Integer id = ids.get(user);
+            if (id == null) {
+                id = names.size();
+                names.add(username.toLowerCase());
+                ids.put(user, id);
+            }
+            return id;
+        }
+
+        /**
+         * Make user id a key of the graph.
+         */
+        void addAuthor(int id) {
+            authors.set(id);
+        }
+
+        /**
+         * Add an edge; self-loops are ignored and duplicates are removed by build().
+         * @throws IllegalArgumentException if the builder already holds MAX_EDGES edges
+         */
+        void addEdge(int source, int destination) {
+            if (source == destination)
+                return; // users can't follow themselves
+            if (edges == sources.length) {
+                int capacity = grow(edges);
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+            }
+            sources[edges] = source;
+            destinations[edges] = destination;
+            edges++;
+        }
+
+        /**
+         * @param capacity length of a full edge array
+         * @return the length to grow it to: twice capacity, but at most MAX_EDGES
+         * @throws IllegalArgumentException if capacity is already MAX_EDGES or more
+         */
+        static int grow(int capacity) {
+            if (capacity >= MAX_EDGES)
+                throw new IllegalArgumentException("more than " + MAX_EDGES + " edges before removing duplicates");
+            // in long arithmetic, since doubling overflows int past 2^30
+            return (int) Math.min(2L * capacity, MAX_EDGES);
+        }
+
+        /**
+         * @return the graph accumulated so far; this builder must not be used afterwards
+         */
+        CompactFollowsGraph build() {
+            int users = names.size();
+
+            // renumber users in order of username; ids whose spellings only lowercase alike
+            // are merged
+            String[] sorted = names.toArray(new String[users]);
+            Arrays.sort(sorted);
+            Map<String, Integer> sortedIds = new HashMap<>();
+            for (String name: sorted)
+                if (!sortedIds.containsKey(name))
+                    sortedIds.put(name, sortedIds.size());
+            String[] usernames = new String[sortedIds.size()];
+            for (Entry<String, Integer> entry: sortedIds.entrySet())
+                usernames[entry.getValue()] = entry.getKey();
+            int[] renumbered = new int[users];
+            BitSet sortedAuthors = new BitSet(usernames.length);
+            for (int old = 0; old < users; old++) {
+                renumbered[old] = sortedIds.get(names.get(old));
+                if (authors.get(old))
+                    sortedAuthors.set(renumbered[old]);
+            }
+            users = usernames.length;
+
+            // counting sort of edges by source
+            int[] offsets = new int[users + 1];
+            for (int e = 0; e < edges; e++)
+                offsets[renumbered[sources[e]] + 1]++;
+            for (int u = 0; u < users; u++)
+                offsets[u + 1] += offsets[u];
+            int[] targets = new int[edges];
+            int[] next = Arrays.copyOf(offsets, users);
+            for (int e = 0; e < edges; e++)
+                targets[next[renumbered[sources[e]]]++] = renumbered[destinations[e]];
+            sources = null;
+            destinations = null;
+
+            // sort and deduplicate each row, compacting in place
+            int size = 0;
+            for (int u = 0; u < users; u++) {
+                int start = offsets[u];
+                int end = offsets[u + 1];
+                Arrays.sort(targets, start, end);
+                offsets[u] = size;
+                for (int e = start; e < end; e++)
+                    if ((e == start || targets[e] != targets[e - 1]) && targets[e] != u)
+                        targets[size++] = targets[e];
+            }
+            offsets[users] = size;
+            return new CompactFollowsGraph(usernames, sortedAuthors, offsets,
+                    size == targets.length ? targets : Arrays.copyOf(targets, size));
+        }
+    }
+
+    /**
+     * @return number of users in this graph, whether they follow anyone or are only followed
+     */
+    public int userCount() {
+        return usernames.length;
+    }
+
+    /**
+     * @return number of (follower, followee) pairs in this graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param username Twitter username, in any case
+     * @return the id of username in [0, userCount()), or -1 if username is not in this graph
+     */
+    public int id(String username) {
+        int id = Arrays.binarySearch(usernames, username.toLowerCase());
+        return id >= 0 ? id : -1;
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return the username of id, in lowercase
+     */
+    public String username(int id) {
+        return usernames[id];
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return true iff id is a key of the social network this graph represents, that is, an
+     *         author of one of the tweets or a key of the map it was made from
+     */
+    public boolean isAuthor(int id) {
+        return authors.get(id);
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return number of users that id follows
+     */
+    public int followingCount(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @param index index in [0, followingCount(id))
+     * @return the index'th user that id follows, in increasing order of id
+     */
+    public int following(int id, int index) {
+        assert 0 <= index && index < followingCount(id);
+        return targets[offsets[id] + index];
+    }
+
+    /**
+     * @param follower user id in [0, userCount())
+     * @param followee user id in [0, userCount())
+     * @return true iff follower follows followee, in time logarithmic in followingCount(follower)
+     */
+    public boolean follows(int follower, int followee) {
+        return Arrays.binarySearch(targets, offsets[follower], offsets[follower + 1], followee) >= 0;
+    }
+
+    /**
+     * @return an array whose id'th element is the number of followers of id, computed in one
+     *         pass over the edges
+     */
+    public int[] followerCounts() {
+        int[] counts = new int[usernames.length];
+        for (int followee: targets)
+            counts[followee]++;
+        return counts;
+    }
+
+    /**
+     * @param username Twitter username, in any case
+     * @return the lowercase usernames that username follows; empty if username is not in this graph
+     */
+    public Set<String> followings(String username) {
+        int id = id(username);
+        Set<String> followings = new HashSet<>();
+        if (id >= 0)
+            for (int e = offsets[id]; e < offsets[id + 1]; e++)
+                followings.add(usernames[targets[e]]);
+        return followings;
+    }
+
+    /**
+     * @return this graph as a social network in the representation of SocialNetwork, with a key
+     *         for every user that is a key of the graph it was made from. For a graph made by
+     *         fromTweets(tweets), this equals SocialNetwork.guessFollowsGraph(tweets).
+     */
+    public Map<String, Set<String>> toMap() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        for (int u = authors.nextSetBit(0); u >= 0; u = authors.nextSetBit(u + 1)) {
+            Set<String> followings = new HashSet<>();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+                followings.add(usernames[targets[e]]);
+            followsGraph.put(usernames[u], followings);
+        }
+        return followsGraph;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
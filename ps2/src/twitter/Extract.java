@@ -1,11 +1,10 @@
 package twitter;
 
-import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Extract consists of methods that extract information from a list of tweets.
@@ -16,6 +15,11 @@ import java.util.regex.Pattern;
  */
 public class Extract {
 
+    /**
+     * Number of tweets below which the parallel methods stop splitting the list.
+     */
+    static final int PARALLEL_THRESHOLD = 8192;
+
     /**
      * Get the time period spanned by tweets.
      * 
@@ -25,19 +29,10 @@ public class Extract {
      *         every tweet in the list.
      */
     public static Timespan getTimespan(List<Tweet> tweets) {
-        if (tweets.isEmpty())
-            return new Timespan(Instant.MIN, Instant.MIN);
-
-        Instant firstTweetInstant = tweets.get(0).getTimestamp();
-        Instant start = firstTweetInstant, end = firstTweetInstant;
-        for (Tweet tweet: tweets) {
-            Instant instant = tweet.getTimestamp();
-            if(instant.isBefore(start))
-                start = instant;
-            else if (instant.isAfter(end))
-                end = instant;
-        }
-        return new Timespan(start, end);
+        TimespanAccumulator timespan = new TimespanAccumulator();
+        for (Tweet tweet: tweets)
+            timespan.accept(tweet);
+        return timespan.getTimespan();
     }
 
     /**
@@ -57,24 +52,84 @@ public class Extract {
      */
     public static Set<String> getMentionedUsers(List<Tweet> tweets) {
         Set<String> mentions = new HashSet<>();
-        Set<String> mentionsInATweet;
+        MentionAccumulator accumulator = new MentionAccumulator(mentions);
 
-        for (Tweet tweet: tweets) {
-            mentionsInATweet = getMentionedUsersInTweet(tweet.getText());
-            for (String mention: mentionsInATweet)
-                mentions.add(mention);
-        }
+        for (Tweet tweet: tweets)
+            accumulator.accept(tweet);
         return mentions;
     }
 
-    public static Set<String> getMentionedUsersInTweet(String tweetText) {
-        Set<String> mentions = new HashSet<>();
-        Pattern mentionPattern = Pattern.compile("(?<![a-z0-9_-])@([a-z0-9_-]+)(?![a-z0-9_-])");
-        Matcher matcher = mentionPattern.matcher(tweetText.toLowerCase());
-        while (matcher.find())
-            mentions.add(matcher.group(1));
+    /**
+     * Get usernames mentioned in a list of tweets, splitting the work across the
+     * common ForkJoinPool.
+     * 
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     * @return the same set as getMentionedUsers(tweets)
+     */
+    public static Set<String> getMentionedUsersParallel(List<Tweet> tweets) {
+        return getMentionedUsersParallel(tweets, ForkJoinPool.commonPool());
+    }
 
-        return mentions;
+    /**
+     * Get usernames mentioned in a list of tweets, splitting the work across pool.
+     * 
+     * @param tweets
+     *            list of tweets with distinct ids, not modified by this method.
+     *            Should support fast random access.
+     * @param pool
+     *            pool whose threads extract the mentions
+     * @return the same set as getMentionedUsers(tweets)
+     */
+    public static Set<String> getMentionedUsersParallel(List<Tweet> tweets, ForkJoinPool pool) {
+        return pool.invoke(new MentionsTask(tweets));
+    }
+
+    /**
+     * Extracts the mentions of a range of tweets, splitting it in half until the halves
+     * are small enough to scan sequentially, and then merging the partial mention sets.
+     */
+    private static class MentionsTask extends RecursiveTask<Set<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+
+        MentionsTask(List<Tweet> tweets) {
+            this.tweets = tweets;
+        }
+
+        @Override
+        protected Set<String> compute() {
+            if (tweets.size() <= PARALLEL_THRESHOLD)
+                return getMentionedUsers(tweets);
+
+            int middle = tweets.size() / 2;
+            MentionsTask left = new MentionsTask(tweets.subList(0, middle));
+            MentionsTask right = new MentionsTask(tweets.subList(middle, tweets.size()));
+            left.fork();
+            Set<String> rightMentions = right.compute();
+            Set<String> leftMentions = left.join();
+
+            // merge the smaller set into the larger one
+            if (leftMentions.size() < rightMentions.size()) {
+                rightMentions.addAll(leftMentions);
+                return rightMentions;
+            }
+            leftMentions.addAll(rightMentions);
+            return leftMentions;
+        }
+    }
+
+    /**
+     * Get usernames mentioned in the text of one tweet.
+     * 
+     * @param tweetText
+     *            text of a tweet
+     * @return the set of lowercase usernames mentioned in tweetText, as defined
+     *         by getMentionedUsers()
+     */
+    public static Set<String> getMentionedUsersInTweet(String tweetText) {
+        return MentionScanner.mentions(tweetText);
     }
 
     /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
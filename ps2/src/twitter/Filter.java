@@ -2,8 +2,10 @@ package twitter;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Filter consists of methods that filter a list of tweets for those matching a
@@ -15,6 +17,8 @@ import java.util.List;
  */
 public class Filter {
 
+    static final Pattern SPACES = Pattern.compile("\\s+");
+
     /**
      * Find tweets written by a particular user.
      * 
@@ -28,11 +32,10 @@ public class Filter {
      */
     public static List<Tweet> writtenBy(List<Tweet> tweets, String username) {
         List<Tweet> tweetsWrittenByUsername = new ArrayList<>();
-        username = username.toLowerCase();
+        Username user = new Username(username);
 
         for (Tweet tweet: tweets) {
-            String tweetAuthor = tweet.getAuthor().toLowerCase();
-            if (tweetAuthor.equals(username))
+            if (user.matches(tweet.getAuthor()))
                 tweetsWrittenByUsername.add(tweet);
         }
         return tweetsWrittenByUsername;
@@ -77,24 +80,39 @@ public class Filter {
      */
     public static List<Tweet> containing(List<Tweet> tweets, List<String> words) {
         List<Tweet> containing = new ArrayList<>();
-        // Convert the words to lowercase
-        for(int i = 0; i < words.size(); i++)
-            words.set(i, words.get(i).toLowerCase());
-
+        Set<String> lowercaseWords = lowercase(words);
         for (Tweet tweet: tweets) {
-            List<String> wordsInTweet = Arrays.asList(tweet.getText().toLowerCase().split("\\s+"));
-            for (String word: words) {
-                for (String wordInTweet: wordsInTweet) {
-                    if (wordInTweet.equals(word) && !containing.contains(tweet)) {
-                        containing.add(tweet);
-                        break;
-                    }
-                }
-            }
+            if (containsAny(tweet, lowercaseWords))
+                containing.add(tweet);
         }
         return containing;
     }
 
+    /**
+     * @param words words, not modified by this method
+     * @return a fresh set of the words, in lower case
+     */
+    static Set<String> lowercase(List<String> words) {
+        Set<String> lowercaseWords = new HashSet<>();
+        for (String word: words)
+            lowercaseWords.add(word.toLowerCase());
+        return lowercaseWords;
+    }
+
+    /**
+     * @param tweet tweet
+     * @param lowercaseWords words in lower case, as returned by lowercase()
+     * @return true iff the text of tweet, split into words as containing() does, includes at
+     *         least one of lowercaseWords, ignoring case
+     */
+    static boolean containsAny(Tweet tweet, Set<String> lowercaseWords) {
+        for (String wordInTweet: SPACES.split(tweet.getText().toLowerCase())) {
+            if (lowercaseWords.contains(wordInTweet))
+                return true;
+        }
+        return false;
+    }
+
     /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
      * Redistribution of original or derived work requires explicit permission.
      * Don't post any of this code on the web or to a public Github repository.
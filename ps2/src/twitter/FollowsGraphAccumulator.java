@@ -0,0 +1,65 @@
+package twitter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * FollowsGraphAccumulator is a sink that adds the evidence found in each tweet it accepts
+ * to a social network owned by the caller, as specified by SocialNetwork.guessFollowsGraph().
+ * Its space is that of the graph, not of the tweets.
+ */
+public class FollowsGraphAccumulator implements Consumer<Tweet> {
+
+    private final Map<String, Set<String>> graph;
+    private final Map<String, String> keys = new HashMap<>();
+
+    /* Rep invariant:
+     *    for every spelling s in keys, keys.get(s).equals(s.toLowerCase())
+     * Abstraction function:
+     *    represents an accumulator that fills graph; keys caches the lowercase name of every
+     *    spelling of an author seen so far, so that a repeated author is found without
+     *    lowercasing its name
+     * Safety from rep exposure argument:
+     *    graph is owned by the caller, who is allowed to see it change. keys is private and
+     *    never returned.
+     */
+
+    /**
+     * Make an accumulator that fills graph.
+     * @param graph social network to which evidence is added. After a list of tweets has been
+     *        accepted, a graph that started empty equals SocialNetwork.guessFollowsGraph() of that list.
+     */
+    public FollowsGraphAccumulator(Map<String, Set<String>> graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Account for one more tweet: its author follows everyone it mentions, except itself.
+     * @param tweet tweet to account for
+     */
+    @Override
+    public void accept(Tweet tweet) {
+        String author = keys.get(tweet.getAuthor());
+        if (author == null) {
+            author = tweet.getAuthor().toLowerCase();
+            keys.put(tweet.getAuthor(), author);
+        }
+
+        // Find the people whom the author follows
+        Set<String> followings = graph.get(author);
+        if (followings == null) {
+            followings = new HashSet<>();
+            graph.put(author, followings);
+        }
+        MentionScanner.addMentions(tweet.getText(), followings);
+        followings.remove(author);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,301 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IncrementalFollowsGraph is a mutable social network, as defined by SocialNetwork, guessed from
+ * a stream of tweets: after a sequence of tweets has been added, it represents
+ * SocialNetwork.guessFollowsGraph() of that sequence.
+ *
+ * Adding a tweet scans its text for mentions once and takes amortized time proportional to the
+ * number of mentions. Follower counts and the ranking of users by follower count are updated as
+ * edges arrive: users are kept in an array in descending order of follower count, in which each
+ * count occupies a contiguous bucket, so that a user moves up one count by swapping with the
+ * first user of its bucket.
+ *
+ * This class is threadsafe. Readers that need a consistent view of many users while tweets keep
+ * arriving should take a snapshot(), which copies the graph under the lock and compacts it
+ * outside.
+ */
+public class IncrementalFollowsGraph {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Username, Integer> ids = new HashMap<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final BitSet authors = new BitSet();
+    private IntSet[] followings = new IntSet[INITIAL_CAPACITY];
+    private int[] followers = new int[INITIAL_CAPACITY];
+    private int[] ranking = new int[INITIAL_CAPACITY];
+    private int[] rank = new int[INITIAL_CAPACITY];
+    private int[] moreFollowed = new int[INITIAL_CAPACITY];
+    private long edges = 0;
+    private final List<String> mentions = new ArrayList<>();
+
+    /* Rep invariant:
+     *    ids maps the Username of every username in usernames to its index in usernames;
+     *      every username in usernames is lowercase
+     *    for every id u < usernames.size():
+     *      followings[u] is null iff u is not in authors, and does not contain u
+     *      followers[u] == number of ids v such that followings[v] contains u
+     *      ranking[rank[u]] == u
+     *    ranking[0..usernames.size()) is a permutation of the ids, in descending order of followers
+     *    for every count c in [0, moreFollowed.length): moreFollowed[c] == number of ids u
+     *      with followers[u] > c; and moreFollowed.length > every followers[u]
+     *    edges == total size of the followings sets
+     * Abstraction function:
+     *    represents the social network in which, for every id u in authors, usernames[u] is a
+     *    key that follows the usernames of followings[u]. The ranking orders the users by
+     *    influence, with ties in an unspecified order.
+     * Safety from rep exposure argument:
+     *    All fields are private. Queries return strings, numbers, fresh lists, or an immutable
+     *    snapshot.
+     * Thread safety argument:
+     *    All access to the rep is within methods synchronized on this; snapshot() builds
+     *    its result outside the lock from copies made under it.
+     */
+
+    // assert the rep invariant, in time linear in the number of users
+    private void checkRep() {
+        int users = usernames.size();
+        for (int i = 0; i < users; i++) {
+            assert rank[ranking[i]] == i;
+            assert i == 0 || followers[ranking[i - 1]] >= followers[ranking[i]];
+            assert moreFollowed[followers[ranking[i]]] <= i;
+        }
+    }
+
+    // assert the rep invariant around one user, in constant time
+    private void checkRep(int user) {
+        int i = rank[user];
+        assert ranking[i] == user;
+        assert i == 0 || followers[ranking[i - 1]] >= followers[user];
+        assert i + 1 == usernames.size() || followers[user] >= followers[ranking[i + 1]];
+        assert moreFollowed[followers[user]] <= i;
+        assert followings[user] == null || authors.get(user);
+    }
+
+    /**
+     * Account for one more tweet: its author follows everyone it mentions, except itself.
+     * @param tweet tweet whose id is distinct from the tweets already added
+     */
+    public synchronized void addTweet(Tweet tweet) {
+        int author = id(tweet.getAuthor());
+        authors.set(author);
+        IntSet authorFollowings = followings[author];
+        if (authorFollowings == null) {
+            authorFollowings = new IntSet();
+            followings[author] = authorFollowings;
+        }
+
+        mentions.clear();
+        MentionScanner.addMentions(tweet.getText(), mentions);
+        for (String mention: mentions) {
+            int followee = id(mention);
+            if (followee != author && authorFollowings.add(followee)) {
+                edges++;
+                follow(followee);
+                checkRep(followee);
+            }
+        }
+        checkRep(author);
+    }
+
+    /**
+     * Add tweets in order, as by addTweet().
+     * @param tweets tweets with ids distinct from each other and from the tweets already
+     *        added, not modified by this method
+     */
+    public synchronized void addTweets(List<Tweet> tweets) {
+        for (Tweet tweet: tweets)
+            addTweet(tweet);
+        checkRep();
+    }
+
+    /**
+     * @return the id of username, in any case, assigning the next id to a new user, who is
+     *         placed last in the ranking with no followers
+     */
+    private int id(String username) {
+        Username user = new Username(username);
+        Integer id = ids.get(user);
+        if (id != null)
+            return id;
+
+        id = usernames.size();
+        usernames.add(username.toLowerCase());
+        ids.put(user, id);
+        if (id == followers.length) {
+            int capacity = id * 2;
+            followings = Arrays.copyOf(followings, capacity);
+            followers = Arrays.copyOf(followers, capacity);
+            ranking = Arrays.copyOf(ranking, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+        }
+        ranking[id] = id;
+        rank[id] = id;
+        return id;
+    }
+
+    /**
+     * Give a user one more follower, keeping the ranking sorted in constant time.
+     */
+    private void follow(int user) {
+        int count = followers[user];
+        // the first user with this count; swapping user there puts it last among count + 1
+        int first = moreFollowed[count];
+        int other = ranking[first];
+        ranking[first] = user;
+        ranking[rank[user]] = other;
+        rank[other] = rank[user];
+        rank[user] = first;
+
+        moreFollowed[count]++;
+        followers[user] = count + 1;
+        if (count + 1 == moreFollowed.length)
+            moreFollowed = Arrays.copyOf(moreFollowed, moreFollowed.length * 2);
+    }
+
+    /**
+     * @return number of users in this graph, whether they follow anyone or are only followed
+     */
+    public synchronized int userCount() {
+        return usernames.size();
+    }
+
+    /**
+     * @return number of (follower, followee) pairs in this graph
+     */
+    public synchronized long edgeCount() {
+        return edges;
+    }
+
+    /**
+     * @param username Twitter username, in any case
+     * @return number of users that follow username
+     */
+    public synchronized int followerCount(String username) {
+        Integer id = ids.get(new Username(username));
+        return id == null ? 0 : followers[id];
+    }
+
+    /**
+     * Find the users with the most followers, in time proportional to k.
+     * @param k maximum number of users to return, k >= 0
+     * @return the min(k, userCount()) users with the most followers, in lowercase, in descending
+     *         order of follower count; users with equal counts are in an unspecified order
+     */
+    public synchronized List<String> top(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k must be nonnegative: " + k);
+        List<String> top = new ArrayList<>(Math.min(k, usernames.size()));
+        for (int i = 0; i < k && i < usernames.size(); i++)
+            top.add(usernames.get(ranking[i]));
+        return top;
+    }
+
+    /**
+     * Take a consistent snapshot of this graph. Only copying the graph is done while holding
+     * the lock, so tweets can be added while the snapshot is compacted.
+     * @return an immutable graph that represents this graph as of some moment during the call
+     * @throws IllegalStateException if this graph has more than CompactFollowsGraph.MAX_EDGES
+     *         edges, more than a CompactFollowsGraph can hold
+     */
+    public CompactFollowsGraph snapshot() {
+        String[] names;
+        BitSet keys;
+        int[] sources;
+        int[] destinations;
+        synchronized (this) {
+            names = usernames.toArray(new String[usernames.size()]);
+            keys = (BitSet) authors.clone();
+            if (edges > CompactFollowsGraph.MAX_EDGES)
+                throw new IllegalStateException("too many edges to snapshot: " + edges);
+            sources = new int[(int) edges];
+            destinations = new int[(int) edges];
+            int e = 0;
+            for (int u = keys.nextSetBit(0); u >= 0; u = keys.nextSetBit(u + 1)) {
+                IntSet set = followings[u];
+                for (int i = 0; i < set.table.length; i++) {
+                    if (set.table[i] != IntSet.EMPTY) {
+                        sources[e] = u;
+                        destinations[e] = set.table[i];
+                        e++;
+                    }
+                }
+            }
+        }
+
+        CompactFollowsGraph.Builder builder = new CompactFollowsGraph.Builder();
+        for (String name: names)
+            builder.id(name); // ids are assigned in the same order
+        for (int u = keys.nextSetBit(0); u >= 0; u = keys.nextSetBit(u + 1))
+            builder.addAuthor(u);
+        for (int e = 0; e < sources.length; e++)
+            builder.addEdge(sources[e], destinations[e]);
+        return builder.build();
+    }
+
+    /**
+     * A set of nonnegative ints, in an open-addressing hash table with linear probing.
+     */
+    private static class IntSet {
+        private static final int EMPTY = -1;
+
+        private int[] table = empty(4);
+        private int size = 0;
+
+        /**
+         * @return true iff value was not already in this set
+         */
+        private boolean add(int value) {
+            if (2 * (size + 1) > table.length)
+                rehash(table.length * 2);
+            int mask = table.length - 1;
+            for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+                if (table[i] == value)
+                    return false;
+                if (table[i] == EMPTY) {
+                    table[i] = value;
+                    size++;
+                    return true;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] old = table;
+            table = empty(capacity);
+            int mask = capacity - 1;
+            for (int value: old) {
+                if (value == EMPTY)
+                    continue;
+                int i = mix(value) & mask;
+                while (table[i] != EMPTY)
+                    i = (i + 1) & mask;
+                table[i] = value;
+            }
+        }
+
+        private static int mix(int value) {
+            int hash = value * 0x9e3779b9;
+            return hash ^ (hash >>> 16);
+        }
+
+        private static int[] empty(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
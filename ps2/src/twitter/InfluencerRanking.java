@@ -0,0 +1,204 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * InfluencerRanking ranks the users of a social network, as defined by SocialNetwork, by their
+ * number of followers.
+ *
+ * Follower counts are computed in one pass over the graph into a primitive array indexed by
+ * user id, and the top k users are selected with a bounded heap of ids, in O(n log k) time for
+ * n users without sorting or boxing all of them.
+ */
+public class InfluencerRanking {
+
+    private final List<String> usernames;
+    private final int[] followers;
+
+    /* Rep invariant:
+     *    followers.length >= usernames.size()
+     *    no two usernames are equal ignoring case
+     *    followers[i] >= 0 for i in [0, usernames.size())
+     * Abstraction function:
+     *    represents the users usernames.get(i), each with followers[i] followers
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and top() returns a fresh list.
+     */
+
+    /**
+     * Count the followers of every user in a social network.
+     * @param followsGraph a social network as defined by SocialNetwork, not modified by this
+     *        method. A user spelled in different cases is counted as one user, named by the
+     *        first spelling encountered.
+     */
+    public InfluencerRanking(Map<String, Set<String>> followsGraph) {
+        usernames = new ArrayList<>();
+        Map<Username, Integer> ids = new HashMap<>();
+        int[] counts = new int[Math.max(16, followsGraph.size())];
+
+        for (Entry<String, Set<String>> entry: followsGraph.entrySet()) {
+            int follower = id(entry.getKey(), ids);
+            for (String followee: entry.getValue()) {
+                int user = id(followee, ids);
+                if (user == follower)
+                    continue; // users can't follow themselves
+                if (user >= counts.length)
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                counts[user]++;
+            }
+        }
+        // users who follow but are never followed may have ids past the last one counted
+        followers = Arrays.copyOf(counts, Math.max(counts.length, usernames.size()));
+        checkRep();
+    }
+
+    /**
+     * Count the followers of every user in a compact social network.
+     * @param followsGraph a social network
+     */
+    public InfluencerRanking(CompactFollowsGraph followsGraph) {
+        usernames = new ArrayList<>(followsGraph.userCount());
+        for (int id = 0; id < followsGraph.userCount(); id++)
+            usernames.add(followsGraph.username(id));
+        followers = followsGraph.followerCounts();
+        checkRep();
+    }
+
+    // assert the rep invariant
+    private void checkRep() {
+        assert followers.length >= usernames.size();
+    }
+
+    /**
+     * Look up a user's id, assigning the next one to a new user.
+     * @param ids map from users to ids
+     */
+    private int id(String username, Map<Username, Integer> ids) {
+        Username user = new Username(username);
+        Integer id = ids.get(user);
+        if (id == null) {
+            id = usernames.size();
+            usernames.add(username);
+            ids.put(user, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return number of distinct users in the social network, ignoring case
+     */
+    public int size() {
+        return usernames.size();
+    }
+
+    /**
+     * Find the users with the most followers.
+     * @param k maximum number of users to return, k >= 0
+     * @return the min(k, size()) users with the most followers, in descending order of follower
+     *         count; users with equal counts are in ascending order of username, so that the
+     *         result is deterministic
+     */
+    public List<String> top(int k) {
+        int[] ids = top(usernames.size(), k, this::ranksAbove);
+        List<String> top = new ArrayList<>(ids.length);
+        for (int id: ids)
+            top.add(usernames.get(id));
+        return top;
+    }
+
+    /**
+     * @return true iff user a comes strictly before user b in the ranking
+     */
+    private boolean ranksAbove(int a, int b) {
+        if (followers[a] != followers[b])
+            return followers[a] > followers[b];
+        return usernames.get(a).compareTo(usernames.get(b)) < 0;
+    }
+
+    /**
+     * A strict total order on user ids.
+     */
+    interface Order {
+        /**
+         * @return true iff user a comes strictly before user b
+         */
+        boolean ranksAbove(int a, int b);
+    }
+
+    /**
+     * Select the first k users in an order with a bounded heap, in O(n log k) time.
+     * @param users number of users, whose ids are [0, users)
+     * @param k maximum number of ids to return, k >= 0
+     * @param order order of the users
+     * @return the first min(k, users) ids in order
+     */
+    static int[] top(int users, int k, Order order) {
+        if (k < 0)
+            throw new IllegalArgumentException("k must be nonnegative: " + k);
+        int capacity = Math.min(k, users);
+
+        // heap of ids with the last selected user at the root
+        int[] heap = new int[capacity];
+        int heapSize = 0;
+        for (int user = 0; user < users; user++) {
+            if (heapSize < capacity) {
+                heap[heapSize] = user;
+                siftUp(heap, heapSize++, order);
+            } else if (capacity > 0 && order.ranksAbove(user, heap[0])) {
+                heap[0] = user;
+                siftDown(heap, heapSize, order);
+            }
+        }
+
+        // pop the last first, filling the result from the back
+        int[] top = new int[heapSize];
+        while (heapSize > 0) {
+            top[heapSize - 1] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, order);
+        }
+        return top;
+    }
+
+    private static void siftUp(int[] heap, int i, Order order) {
+        int user = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!order.ranksAbove(heap[parent], user))
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = user;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, Order order) {
+        if (heapSize == 0)
+            return;
+        int user = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && order.ranksAbove(heap[child], heap[child + 1]))
+                child++;
+            if (!order.ranksAbove(user, heap[child]))
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = user;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
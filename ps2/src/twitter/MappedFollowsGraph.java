@@ -0,0 +1,343 @@
+package twitter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MappedFollowsGraph is an immutable social network, as defined by SocialNetwork, read in place
+ * from a file written by write(). The file is mapped into memory rather than read, so opening it
+ * takes time independent of its size, and queries touch only the pages they need without
+ * creating heap objects other than their results.
+ *
+ * The file holds a CompactFollowsGraph in big-endian binary, every section aligned to 8 bytes:
+ *     header         magic, version, user count, edge count, dictionary size
+ *     name offsets   long[users + 1], into the dictionary
+ *     dictionary     UTF-8 usernames in increasing order, concatenated
+ *     authors        long[(users + 63) / 64], bit u set iff user u is a key of the graph
+ *     edge offsets   long[users + 1], into the edges
+ *     followers      int[users], follower count of each user
+ *     ranking        int[users], user ids in descending order of follower count, then of id
+ *     edges          int[edges], the followings of each user in increasing order
+ * User ids are the same as in the CompactFollowsGraph that was written.
+ */
+public class MappedFollowsGraph {
+
+    private static final int MAGIC = 0x464c5747; // "FLWG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final int users;
+    private final long edges;
+    private final MappedRegion nameOffsets;
+    private final MappedRegion names;
+    private final MappedRegion authors;
+    private final MappedRegion edgeOffsets;
+    private final MappedRegion followers;
+    private final MappedRegion ranking;
+    private final MappedRegion targets;
+
+    /* Rep invariant:
+     *    the regions are the sections of a well-formed file, as described above, with users
+     *      users and edges edges
+     * Abstraction function:
+     *    represents the social network in which, for every user u whose authors bit is set,
+     *    the username at names[nameOffsets[u]..nameOffsets[u+1]) is a key that follows the
+     *    users targets[edgeOffsets[u]..edgeOffsets[u+1]), and each user v has followers[v]
+     *    followers; ranking caches the users in order of influence
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and regions are never returned. The mapping is
+     *    read-only.
+     */
+
+    /**
+     * Write a social network to a file, replacing any file already there.
+     * @param graph social network to write
+     * @param path file to write
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if graph has usernames whose order differs between
+     *         String.compareTo() and UTF-8 bytes, which can only happen outside the Basic
+     *         Multilingual Plane
+     */
+    public static void write(CompactFollowsGraph graph, Path path) throws IOException {
+        int users = graph.userCount();
+        long edges = graph.edgeCount();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            long dictionaryBytes = 0;
+            byte[] previous = null;
+            for (int u = 0; u < users; u++) {
+                byte[] name = graph.username(u).getBytes(StandardCharsets.UTF_8);
+                if (previous != null && compare(previous, name) >= 0)
+                    throw new IllegalArgumentException("usernames out of UTF-8 order: " + graph.username(u));
+                dictionaryBytes += name.length;
+                previous = name;
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(users);
+            out.writeInt(0);
+            out.writeLong(edges);
+            out.writeLong(dictionaryBytes);
+
+            long offset = 0;
+            out.writeLong(offset);
+            for (int u = 0; u < users; u++) {
+                offset += graph.username(u).getBytes(StandardCharsets.UTF_8).length;
+                out.writeLong(offset);
+            }
+            for (int u = 0; u < users; u++)
+                out.write(graph.username(u).getBytes(StandardCharsets.UTF_8));
+            MappedRegion.pad(out, dictionaryBytes);
+
+            for (int word = 0; word < words(users); word++) {
+                long bits = 0;
+                for (int bit = 0; bit < 64 && word * 64 + bit < users; bit++)
+                    if (graph.isAuthor(word * 64 + bit))
+                        bits |= 1L << bit;
+                out.writeLong(bits);
+            }
+
+            offset = 0;
+            out.writeLong(offset);
+            for (int u = 0; u < users; u++) {
+                offset += graph.followingCount(u);
+                out.writeLong(offset);
+            }
+
+            int[] followerCounts = graph.followerCounts();
+            for (int count: followerCounts)
+                out.writeInt(count);
+            MappedRegion.pad(out, 4L * users);
+
+            for (int id: InfluencerRanking.top(users, users, byFollowers(followerCounts)))
+                out.writeInt(id);
+            MappedRegion.pad(out, 4L * users);
+
+            for (int u = 0; u < users; u++)
+                for (int i = 0; i < graph.followingCount(u); i++)
+                    out.writeInt(graph.following(u, i));
+        }
+    }
+
+    /**
+     * Open a file written by write().
+     * @param path file to open
+     * @return the social network in the file
+     * @throws IOException if the file cannot be read or is not a well-formed follows graph file
+     */
+    public static MappedFollowsGraph open(Path path) throws IOException {
+        return open(path, MappedRegion.CHUNK_BITS);
+    }
+
+    /**
+     * Open a file written by write(), mapping it in chunks of 2^chunkBits bytes.
+     */
+    static MappedFollowsGraph open(Path path, int chunkBits) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedRegion header = new MappedRegion(channel, 0, Math.min(HEADER_BYTES, channel.size()), chunkBits);
+            if (channel.size() < HEADER_BYTES || header.getInt(0) != MAGIC)
+                throw new IOException("not a follows graph file: " + path);
+            if (header.getInt(4) != VERSION)
+                throw new IOException("unsupported follows graph file version " + header.getInt(4) + ": " + path);
+            int users = header.getInt(8);
+            long edges = header.getLong(16);
+            long dictionaryBytes = header.getLong(24);
+
+            long position = HEADER_BYTES;
+            long[] sizes = {
+                8L * (users + 1), MappedRegion.aligned(dictionaryBytes), 8L * words(users),
+                8L * (users + 1), MappedRegion.aligned(4L * users), MappedRegion.aligned(4L * users), 4L * edges
+            };
+            long expected = position;
+            for (long size: sizes)
+                expected += size;
+            if (users < 0 || edges < 0 || dictionaryBytes < 0 || channel.size() != expected)
+                throw new IOException("truncated or corrupt follows graph file: " + path);
+
+            MappedRegion[] regions = new MappedRegion[sizes.length];
+            for (int i = 0; i < sizes.length; i++) {
+                regions[i] = new MappedRegion(channel, position, sizes[i], chunkBits);
+                position += sizes[i];
+            }
+            // the mapping stays valid after the channel is closed
+            return new MappedFollowsGraph(users, edges, regions);
+        }
+    }
+
+    private MappedFollowsGraph(int users, long edges, MappedRegion[] regions) {
+        this.users = users;
+        this.edges = edges;
+        this.nameOffsets = regions[0];
+        this.names = regions[1];
+        this.authors = regions[2];
+        this.edgeOffsets = regions[3];
+        this.followers = regions[4];
+        this.ranking = regions[5];
+        this.targets = regions[6];
+        checkRep();
+    }
+
+    // assert the parts of the rep invariant that take constant time to check
+    private void checkRep() {
+        assert nameOffsets.getLong(0) == 0 && edgeOffsets.getLong(0) == 0;
+        assert edgeOffsets.getLong(8L * users) == edges;
+    }
+
+    /**
+     * @return number of users in this graph, whether they follow anyone or are only followed
+     */
+    public int userCount() {
+        return users;
+    }
+
+    /**
+     * @return number of (follower, followee) pairs in this graph
+     */
+    public long edgeCount() {
+        return edges;
+    }
+
+    /**
+     * @param username Twitter username, in any case
+     * @return the id of username in [0, userCount()), or -1 if username is not in this graph;
+     *         found by binary search over the mapped dictionary
+     */
+    public int id(String username) {
+        byte[] key = username.toLowerCase().getBytes(StandardCharsets.UTF_8);
+        int low = 0, high = users - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = compareName(middle, key);
+            if (order < 0)
+                low = middle + 1;
+            else if (order > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return the username of id, in lowercase
+     */
+    public String username(int id) {
+        long start = nameOffsets.getLong(8L * id);
+        int length = (int) (nameOffsets.getLong(8L * id + 8) - start);
+        return new String(names.getBytes(start, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return true iff id is a key of the social network this graph represents
+     */
+    public boolean isAuthor(int id) {
+        return (authors.getLong(8L * (id >>> 6)) & (1L << (id & 63))) != 0;
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return number of users that id follows
+     */
+    public int followingCount(int id) {
+        return (int) (edgeOffsets.getLong(8L * id + 8) - edgeOffsets.getLong(8L * id));
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @param index index in [0, followingCount(id))
+     * @return the index'th user that id follows, in increasing order of id
+     */
+    public int following(int id, int index) {
+        assert 0 <= index && index < followingCount(id);
+        return targets.getInt(4 * (edgeOffsets.getLong(8L * id) + index));
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return number of users that follow id, read from the file in constant time
+     */
+    public int followerCount(int id) {
+        return followers.getInt(4L * id);
+    }
+
+    /**
+     * @param username Twitter username, in any case
+     * @return the lowercase usernames that username follows; empty if username is not in this graph
+     */
+    public Set<String> followings(String username) {
+        int id = id(username);
+        Set<String> followings = new HashSet<>();
+        if (id >= 0)
+            for (int i = 0; i < followingCount(id); i++)
+                followings.add(username(following(id, i)));
+        return followings;
+    }
+
+    /**
+     * Find the users with the most followers, in time proportional to k: the ranking is
+     * computed when the file is written.
+     * @param k maximum number of users to return, k >= 0
+     * @return what InfluencerRanking.top(k) returns for this graph
+     */
+    public List<String> influencers(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k must be nonnegative: " + k);
+        List<String> influencers = new ArrayList<>(Math.min(k, users));
+        for (int i = 0; i < k && i < users; i++)
+            influencers.add(username(ranking.getInt(4L * i)));
+        return influencers;
+    }
+
+    /**
+     * @return order of user ids by descending follower count; ids are in order of username, so
+     *         ties are broken as InfluencerRanking does
+     */
+    private static InfluencerRanking.Order byFollowers(int[] followerCounts) {
+        return (a, b) -> followerCounts[a] != followerCounts[b] ? followerCounts[a] > followerCounts[b] : a < b;
+    }
+
+    /**
+     * @return negative, zero or positive as the username of id is before, equal to or after
+     *         the UTF-8 encoded key, comparing unsigned bytes
+     */
+    private int compareName(int id, byte[] key) {
+        long start = nameOffsets.getLong(8L * id);
+        long length = nameOffsets.getLong(8L * id + 8) - start;
+        for (int i = 0; i < length && i < key.length; i++) {
+            int order = Integer.compare(names.getByte(start + i) & 0xff, key[i] & 0xff);
+            if (order != 0)
+                return order;
+        }
+        return Long.compare(length, key.length);
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length && i < b.length; i++) {
+            int order = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            if (order != 0)
+                return order;
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    private static int words(int users) {
+        return (users + 63) / 64;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,91 @@
+package twitter;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappedRegion is a read-only section of a file mapped into memory, in chunks so that it may
+ * exceed 2GB. Offsets are relative to the start of the section; ints and longs must be aligned
+ * to their size, which file formats guarantee by aligning every section to 8 bytes.
+ */
+class MappedRegion {
+
+    // sections larger than 2GB are mapped in chunks of this many bytes, a multiple of 8
+    static final int CHUNK_BITS = 30;
+
+    private final MappedByteBuffer[] chunks;
+    private final int chunkBits;
+    private final long chunkMask;
+
+    /* Rep invariant:
+     *    every chunk but the last has 2^chunkBits bytes, and chunkMask == 2^chunkBits - 1
+     * Abstraction function:
+     *    represents the bytes of the file from position for size bytes, the concatenation of chunks
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and the chunks are read-only and never returned.
+     */
+
+    /**
+     * Map a section of a file. The mapping stays valid after the channel is closed.
+     * @param channel open file
+     * @param position offset of the section in the file
+     * @param size size of the section in bytes
+     * @param chunkBits log2 of the chunk size, in [3, 30]
+     * @throws IOException if the file cannot be mapped
+     */
+    MappedRegion(FileChannel channel, long position, long size, int chunkBits) throws IOException {
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1L << chunkBits) - 1;
+        int count = (int) ((size + chunkMask) >>> chunkBits);
+        chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << chunkBits;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + start,
+                    Math.min(size - start, 1L << chunkBits));
+        }
+    }
+
+    byte getByte(long offset) {
+        return chunks[(int) (offset >>> chunkBits)].get((int) (offset & chunkMask));
+    }
+
+    int getInt(long offset) {
+        return chunks[(int) (offset >>> chunkBits)].getInt((int) (offset & chunkMask));
+    }
+
+    long getLong(long offset) {
+        return chunks[(int) (offset >>> chunkBits)].getLong((int) (offset & chunkMask));
+    }
+
+    /**
+     * @return a copy of length bytes starting at offset
+     */
+    byte[] getBytes(long offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = getByte(offset + i);
+        return bytes;
+    }
+
+    /**
+     * @return bytes rounded up to a multiple of 8
+     */
+    static long aligned(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Write zeros after a section of the given size, up to the next multiple of 8.
+     */
+    static void pad(DataOutputStream out, long bytes) throws IOException {
+        for (long i = bytes; i < aligned(bytes); i++)
+            out.writeByte(0);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,37 @@
+package twitter;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * MentionAccumulator is a sink that adds the usernames mentioned in each tweet it accepts
+ * to a set owned by the caller. Its space is that of the set, which is proportional to the
+ * number of distinct usernames, not to the number of tweets.
+ */
+public class MentionAccumulator implements Consumer<Tweet> {
+
+    private final Set<String> mentions;
+
+    /**
+     * Make an accumulator that fills mentions.
+     * @param mentions set to which mentioned usernames are added. After a list of tweets has
+     *        been accepted, a set that started empty equals Extract.getMentionedUsers() of that list.
+     */
+    public MentionAccumulator(Set<String> mentions) {
+        this.mentions = mentions;
+    }
+
+    /**
+     * Account for one more tweet.
+     * @param tweet tweet to account for
+     */
+    @Override
+    public void accept(Tweet tweet) {
+        MentionScanner.addMentions(tweet.getText(), mentions);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
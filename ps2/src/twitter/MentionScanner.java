@@ -0,0 +1,138 @@
+package twitter;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MentionScanner finds the username-mentions in the text of a tweet, as specified by
+ * Extract.getMentionedUsers(), in one hand-written pass over the text.
+ *
+ * It returns exactly what matching the pattern
+ *     (?<![a-z0-9_-])@([a-z0-9_-]+)(?![a-z0-9_-])
+ * against text.toLowerCase() would, without compiling a pattern or making a lowercase copy
+ * of the text.
+ */
+public class MentionScanner {
+
+    /*
+     * Outside of A-Z, only two characters lowercase to characters valid in a username:
+     * KELVIN SIGN lowercases to 'k', and LATIN CAPITAL LETTER I WITH DOT ABOVE lowercases
+     * to 'i' followed by COMBINING DOT ABOVE, which ends the username.
+     * Turkish, Azeri and Lithuanian lowercasing differs for I, so in those locales the
+     * scanner falls back to the pattern.
+     */
+    private static final char KELVIN_SIGN = '\u212A';
+    private static final char CAPITAL_I_WITH_DOT = '\u0130';
+
+    private static final Pattern MENTION = Pattern.compile("(?<![a-z0-9_-])@([a-z0-9_-]+)(?![a-z0-9_-])");
+
+    private MentionScanner() {
+        // static methods only
+    }
+
+    /**
+     * Get usernames mentioned in the text of a tweet.
+     *
+     * @param text text of a tweet
+     * @return the set of lowercase usernames mentioned in text, as defined by
+     *         Extract.getMentionedUsers()
+     */
+    public static Set<String> mentions(String text) {
+        Set<String> mentions = new HashSet<>();
+        addMentions(text, mentions);
+        return mentions;
+    }
+
+    /**
+     * Mutates mentions by adding the usernames mentioned in the text of a tweet.
+     *
+     * @param text text of a tweet
+     * @param mentions collection to which each lowercase username mentioned in text is added,
+     *        once per mention, in order of appearance
+     */
+    public static void addMentions(String text, Collection<? super String> mentions) {
+        if (!isLowercaseLocaleNeutral(Locale.getDefault())) {
+            Matcher matcher = MENTION.matcher(text.toLowerCase());
+            while (matcher.find())
+                mentions.add(matcher.group(1));
+            return;
+        }
+
+        int length = text.length();
+        // whether the lowercased character before i is valid in a username
+        boolean afterUsernameChar = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c != '@' || afterUsernameChar) {
+                afterUsernameChar = isUsernameChar(fold(c)) && c != CAPITAL_I_WITH_DOT;
+                continue;
+            }
+
+            int start = i + 1;
+            int end = start;
+            boolean folded = false;
+            boolean dotted = false;
+            while (end < length && !dotted) {
+                char d = text.charAt(end);
+                char f = fold(d);
+                if (!isUsernameChar(f))
+                    break;
+                folded |= f != d;
+                dotted = d == CAPITAL_I_WITH_DOT;
+                end++;
+            }
+            if (end > start)
+                mentions.add(folded ? foldedSubstring(text, start, end) : text.substring(start, end));
+
+            // the character before end is either the '@', when no username followed it,
+            // or the last character of the username, which is valid unless it was a dotted I
+            afterUsernameChar = end > start && !dotted;
+            i = end - 1;
+        }
+    }
+
+    /**
+     * @return c as it appears in text.toLowerCase(), if that is a single character
+     *         valid in a username; otherwise some character that is not
+     */
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z')
+            return (char) (c + ('a' - 'A'));
+        if (c == KELVIN_SIGN)
+            return 'k';
+        if (c == CAPITAL_I_WITH_DOT)
+            return 'i';
+        return c;
+    }
+
+    /**
+     * @return true iff c is one of a-z, 0-9, underscore or hyphen
+     */
+    private static boolean isUsernameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    private static String foldedSubstring(String text, int start, int end) {
+        char[] username = new char[end - start];
+        for (int i = start; i < end; i++)
+            username[i - start] = fold(text.charAt(i));
+        return new String(username);
+    }
+
+    /**
+     * @return false iff String.toLowerCase() in locale treats I differently from the root locale
+     */
+    private static boolean isLowercaseLocaleNeutral(Locale locale) {
+        String language = locale.getLanguage();
+        return !(language.equals("tr") || language.equals("az") || language.equals("lt"));
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -2,16 +2,11 @@ package twitter;
 
 import java.util.List;
 import java.util.Map;
-import java.awt.geom.GeneralPath;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * SocialNetwork provides methods that operate on a social network.
@@ -48,22 +43,86 @@ public class SocialNetwork {
      */
     public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets) {
         Map<String, Set<String>> graph = new HashMap<String, Set<String>>();
-        Set<String> mentionsInTweet, followings;
-        String author;
+        FollowsGraphAccumulator accumulator = new FollowsGraphAccumulator(graph);
 
-        for(Tweet tweet: tweets) {
-            mentionsInTweet = Extract.getMentionedUsersInTweet(tweet.getText());
-            author = tweet.getAuthor().toLowerCase();
+        for(Tweet tweet: tweets)
+            accumulator.accept(tweet);
+        return graph;
+    }
+
+    /**
+     * Guess who might follow whom, from evidence found in tweets, splitting the work
+     * across the common ForkJoinPool.
+     * 
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method.
+     * @return a social network equal to guessFollowsGraph(tweets)
+     */
+    public static Map<String, Set<String>> guessFollowsGraphParallel(List<Tweet> tweets) {
+        return guessFollowsGraphParallel(tweets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Guess who might follow whom, from evidence found in tweets, splitting the work
+     * across pool.
+     * 
+     * @param tweets
+     *            a list of tweets providing the evidence, not modified by this
+     *            method. Should support fast random access.
+     * @param pool
+     *            pool whose threads build the graph
+     * @return a social network equal to guessFollowsGraph(tweets)
+     */
+    public static Map<String, Set<String>> guessFollowsGraphParallel(List<Tweet> tweets, ForkJoinPool pool) {
+        return pool.invoke(new FollowsGraphTask(tweets));
+    }
 
-            // Find the people whom the author follows
-            followings = (!graph.containsKey(author)) ? new HashSet<>() : graph.get(author);
-            for(String following: mentionsInTweet) {
-                if (!following.equals(author))
-                    followings.add(following);
+    /**
+     * Builds the follows graph of a range of tweets, splitting it in half until the halves
+     * are small enough to process sequentially, and then merging the partial graphs.
+     */
+    private static class FollowsGraphTask extends RecursiveTask<Map<String, Set<String>>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+
+        FollowsGraphTask(List<Tweet> tweets) {
+            this.tweets = tweets;
+        }
+
+        @Override
+        protected Map<String, Set<String>> compute() {
+            if (tweets.size() <= Extract.PARALLEL_THRESHOLD)
+                return guessFollowsGraph(tweets);
+
+            int middle = tweets.size() / 2;
+            FollowsGraphTask left = new FollowsGraphTask(tweets.subList(0, middle));
+            FollowsGraphTask right = new FollowsGraphTask(tweets.subList(middle, tweets.size()));
+            left.fork();
+            Map<String, Set<String>> rightGraph = right.compute();
+            Map<String, Set<String>> leftGraph = left.join();
+
+            // merge the smaller graph into the larger one
+            if (leftGraph.size() < rightGraph.size())
+                return merge(rightGraph, leftGraph);
+            return merge(leftGraph, rightGraph);
+        }
+
+        /**
+         * Mutates graph by adding every edge and every user of other.
+         * @return graph
+         */
+        private static Map<String, Set<String>> merge(Map<String, Set<String>> graph, Map<String, Set<String>> other) {
+            for (Entry<String, Set<String>> entry: other.entrySet()) {
+                Set<String> followings = graph.get(entry.getKey());
+                if (followings == null)
+                    graph.put(entry.getKey(), entry.getValue());
+                else
+                    followings.addAll(entry.getValue());
             }
-            graph.put(author, followings);
+            return graph;
         }
-        return graph;
     }
 
     /**
@@ -76,24 +135,7 @@ public class SocialNetwork {
      *         descending order of follower count.
      */
     public static List<String> influencers(Map<String, Set<String>> followsGraph) {
-        List<String> influencers = new ArrayList<>();
-
-        List<Entry<String, Set<String>>> list = new LinkedList(followsGraph.entrySet());
-
-        // Sort the list by passing an anonymous inner comparator class
-        Collections.sort(list, new Comparator<Entry<String, Set<String>>>() {
-            public int compare(Entry<String, Set<String>> o1, Entry<String, Set<String>> o2) {
-                return ((Comparable) o2.getValue().size()).compareTo((Comparable) o1.getValue().size());
-            }
-        });
-
-        Iterator<Entry<String, Set<String>>> iterator = list.iterator();
-        while(iterator.hasNext()) {
-            String influencer = iterator.next().getKey();
-            influencers.add(influencer);
-        }
-
-        return influencers;
+        return new InfluencerRanking(followsGraph).top(Integer.MAX_VALUE);
     }
 
     /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
@@ -0,0 +1,46 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * TimespanAccumulator is a mutable sink that computes, in constant space, the time period
+ * spanned by the tweets it has accepted.
+ */
+public class TimespanAccumulator implements Consumer<Tweet> {
+
+    private Instant start = null;
+    private Instant end = null;
+
+    /* Rep invariant: start and end are both null, or start <= end. */
+
+    /**
+     * Account for one more tweet.
+     * @param tweet tweet to account for
+     */
+    @Override
+    public void accept(Tweet tweet) {
+        Instant instant = tweet.getTimestamp();
+        if (start == null) {
+            start = end = instant;
+        } else if (instant.isBefore(start)) {
+            start = instant;
+        } else if (instant.isAfter(end)) {
+            end = instant;
+        }
+    }
+
+    /**
+     * @return the timespan that Extract.getTimespan() would return for the tweets accepted so far
+     */
+    public Timespan getTimespan() {
+        if (start == null)
+            return new Timespan(Instant.MIN, Instant.MIN);
+        return new Timespan(start, end);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
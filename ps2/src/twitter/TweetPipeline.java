@@ -0,0 +1,176 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * TweetPipeline processes a source of tweets in a single pass with bounded memory, for
+ * corpora too large to materialize as a List<Tweet>.
+ *
+ * A pipeline is built from a source and a chain of filter stages, mirroring the methods of
+ * Filter, which are fused into one predicate: no stage builds an intermediate list. A terminal
+ * operation then drains the source once, feeding every tweet that passes all the stages to
+ * one or more sinks, such as TimespanAccumulator, MentionAccumulator and
+ * FollowsGraphAccumulator, so that several results can be computed in the same pass:
+ *
+ *     TimespanAccumulator timespan = new TimespanAccumulator();
+ *     Map<String, Set<String>> graph = new HashMap<>();
+ *     TweetPipeline.from(tweets)
+ *                  .writtenBy("alyssa")
+ *                  .containing(Arrays.asList("rivest"))
+ *                  .forEach(timespan, new FollowsGraphAccumulator(graph));
+ *
+ * Pipelines are immutable, but their source is not: a source can be drained only once, so
+ * only one terminal operation may be run on the pipelines built from it.
+ */
+public class TweetPipeline {
+
+    private final Iterator<Tweet> source;
+    private final Predicate<Tweet> stages;
+
+    /* Rep invariant: true. */
+
+    private TweetPipeline(Iterator<Tweet> source, Predicate<Tweet> stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    /**
+     * Make a pipeline that passes every tweet of a source.
+     * @param tweets source of tweets with distinct ids, drained by the terminal operation
+     * @return a pipeline over tweets
+     */
+    public static TweetPipeline from(Iterator<Tweet> tweets) {
+        return new TweetPipeline(tweets, tweet -> true);
+    }
+
+    /**
+     * Make a pipeline that passes every tweet of a source.
+     * @param tweets source of tweets with distinct ids, consumed by the terminal operation
+     * @return a pipeline over tweets
+     */
+    public static TweetPipeline from(Stream<Tweet> tweets) {
+        return from(tweets.iterator());
+    }
+
+    /**
+     * Make a pipeline that passes every tweet of a source.
+     * @param tweets source of tweets with distinct ids, iterated by the terminal operation
+     * @return a pipeline over tweets
+     */
+    public static TweetPipeline from(Iterable<Tweet> tweets) {
+        return from(tweets.iterator());
+    }
+
+    /**
+     * Add a stage passing only the tweets that Filter.writtenBy() would keep.
+     * @param username Twitter username, as required by Filter.writtenBy()
+     * @return a pipeline passing the tweets that pass this one and are written by username
+     */
+    public TweetPipeline writtenBy(String username) {
+        Username user = new Username(username);
+        return then(tweet -> user.matches(tweet.getAuthor()));
+    }
+
+    /**
+     * Add a stage passing only the tweets that Filter.inTimespan() would keep.
+     * @param timespan timespan
+     * @return a pipeline passing the tweets that pass this one and were sent during timespan
+     */
+    public TweetPipeline inTimespan(Timespan timespan) {
+        Instant start = timespan.getStart();
+        Instant end = timespan.getEnd();
+        return then(tweet -> !tweet.getTimestamp().isBefore(start) && !tweet.getTimestamp().isAfter(end));
+    }
+
+    /**
+     * Add a stage passing only the tweets that Filter.containing() would keep.
+     * @param words words to search for, as required by Filter.containing(); not modified
+     * @return a pipeline passing the tweets that pass this one and contain at least one of words
+     */
+    public TweetPipeline containing(List<String> words) {
+        Set<String> lowercaseWords = Filter.lowercase(words);
+        return then(tweet -> Filter.containsAny(tweet, lowercaseWords));
+    }
+
+    /**
+     * Add a stage passing only the tweets that satisfy a condition.
+     * @param condition condition to test each tweet with
+     * @return a pipeline passing the tweets that pass this one and satisfy condition
+     */
+    public TweetPipeline filter(Predicate<Tweet> condition) {
+        return then(condition);
+    }
+
+    private TweetPipeline then(Predicate<Tweet> stage) {
+        return new TweetPipeline(source, stages.and(stage));
+    }
+
+    /**
+     * Drain the source, in one pass, giving each tweet that passes this pipeline to every sink.
+     * @param sinks consumers of the passing tweets, each called in source order
+     */
+    @SafeVarargs
+    public final void forEach(Consumer<? super Tweet>... sinks) {
+        while (source.hasNext()) {
+            Tweet tweet = source.next();
+            if (!stages.test(tweet))
+                continue;
+            for (Consumer<? super Tweet> sink: sinks)
+                sink.accept(tweet);
+        }
+    }
+
+    /**
+     * Drain the source and count the tweets that pass this pipeline.
+     * @return number of passing tweets
+     */
+    public long count() {
+        long[] count = { 0 };
+        forEach(tweet -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Drain the source and compute the time period spanned by the tweets that pass this pipeline.
+     * @return what Extract.getTimespan() would return for the list of passing tweets
+     */
+    public Timespan getTimespan() {
+        TimespanAccumulator timespan = new TimespanAccumulator();
+        forEach(timespan);
+        return timespan.getTimespan();
+    }
+
+    /**
+     * Drain the source and collect the usernames mentioned in the tweets that pass this pipeline.
+     * @return what Extract.getMentionedUsers() would return for the list of passing tweets
+     */
+    public Set<String> getMentionedUsers() {
+        Set<String> mentions = new HashSet<>();
+        forEach(new MentionAccumulator(mentions));
+        return mentions;
+    }
+
+    /**
+     * Drain the source and guess who follows whom from the tweets that pass this pipeline.
+     * @return what SocialNetwork.guessFollowsGraph() would return for the list of passing tweets
+     */
+    public Map<String, Set<String>> guessFollowsGraph() {
+        Map<String, Set<String>> graph = new HashMap<>();
+        forEach(new FollowsGraphAccumulator(graph));
+        return graph;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,215 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * TweetTimeline is a mutable collection of tweets kept in order of timestamp, for answering
+ * many time-window queries over the same corpus.
+ *
+ * Timestamps are stored as primitive arrays of epoch seconds and nanoseconds, so that
+ * inTimespan() is two binary searches and a copy of a contiguous slice, and getTimespan()
+ * takes constant time. Appending a tweet takes amortized constant time even when it is out of
+ * order: such tweets wait in a pending tail, which the next query sorts and merges in place.
+ */
+public class TweetTimeline {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Tweet> BY_TIMESTAMP = Comparator.comparing(Tweet::getTimestamp);
+
+    private long[] seconds;
+    private int[] nanos;
+    private Tweet[] tweets;
+    private int sorted;
+    private int size;
+
+    /* Rep invariant:
+     *    0 <= sorted <= size <= tweets.length == seconds.length == nanos.length
+     *    for i in [0, size): seconds[i] and nanos[i] are tweets[i].getTimestamp()'s
+     *      epoch second and nano adjustment
+     *    tweets[0..sorted) is in nondecreasing order of timestamp
+     *    tweets[sorted..size) is in order of insertion
+     * Abstraction function:
+     *    represents the tweets tweets[0..size), ordered by timestamp and then by order of
+     *    insertion
+     * Safety from rep exposure argument:
+     *    All fields are private and no array is returned; queries return fresh lists.
+     *    Tweets are immutable.
+     */
+
+    /**
+     * Make an empty timeline.
+     */
+    public TweetTimeline() {
+        seconds = new long[INITIAL_CAPACITY];
+        nanos = new int[INITIAL_CAPACITY];
+        tweets = new Tweet[INITIAL_CAPACITY];
+        sorted = 0;
+        size = 0;
+    }
+
+    /**
+     * Make a timeline holding a list of tweets.
+     * @param tweets tweets with distinct ids, in any order, not modified by this method
+     */
+    public TweetTimeline(List<Tweet> tweets) {
+        this();
+        addAll(tweets);
+    }
+
+    // assert the rep invariant, in time linear in the number of tweets
+    private void checkRep() {
+        assert 0 <= sorted && sorted <= size && size <= tweets.length;
+        for (int i = 1; i < sorted; i++)
+            assert compare(i - 1, seconds[i], nanos[i]) <= 0;
+    }
+
+    /**
+     * Add a tweet to this timeline.
+     * @param tweet tweet whose id is distinct from the tweets already in this timeline
+     */
+    public void add(Tweet tweet) {
+        if (size == tweets.length)
+            grow(size + 1);
+        Instant timestamp = tweet.getTimestamp();
+        seconds[size] = timestamp.getEpochSecond();
+        nanos[size] = timestamp.getNano();
+        tweets[size] = tweet;
+        // stays sorted if appended in order and nothing is pending
+        if (sorted == size && (size == 0 || compare(size - 1, seconds[size], nanos[size]) <= 0))
+            sorted++;
+        size++;
+    }
+
+    /**
+     * Add tweets to this timeline.
+     * @param tweets tweets with ids distinct from each other and from the tweets already
+     *        in this timeline, in any order, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        if (size + tweets.size() > this.tweets.length)
+            grow(size + tweets.size());
+        for (Tweet tweet: tweets)
+            add(tweet);
+    }
+
+    /**
+     * @return number of tweets in this timeline
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the time period spanned by the tweets in this timeline.
+     * @return what Extract.getTimespan() would return for a list of the tweets in this timeline.
+     *         Takes constant time unless tweets were added out of order since the last query.
+     */
+    public Timespan getTimespan() {
+        consolidate();
+        if (size == 0)
+            return new Timespan(Instant.MIN, Instant.MIN);
+        return new Timespan(tweets[0].getTimestamp(), tweets[size - 1].getTimestamp());
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan.
+     * @param timespan timespan
+     * @return all and only the tweets in this timeline that were sent during timespan, in order
+     *         of timestamp and then of insertion, in time logarithmic in the size of this
+     *         timeline plus linear in the number of tweets returned. For a timeline built from a
+     *         list in nondecreasing order of timestamp, this is Filter.inTimespan() of that list.
+     */
+    public List<Tweet> inTimespan(Timespan timespan) {
+        consolidate();
+        Instant start = timespan.getStart();
+        Instant end = timespan.getEnd();
+        // first index at or after start, first index after end
+        int from = search(start.getEpochSecond(), start.getNano(), false);
+        int to = search(end.getEpochSecond(), end.getNano(), true);
+        return new ArrayList<>(Arrays.asList(tweets).subList(from, to));
+    }
+
+    /**
+     * Binary search for a timestamp in the sorted tweets.
+     * @param second epoch second of the timestamp
+     * @param nano nano adjustment of the timestamp
+     * @param after whether to skip tweets sent exactly at the timestamp
+     * @return the least index in [0, size] whose tweet was sent after the timestamp,
+     *         or at it if after is false
+     */
+    private int search(long second, int nano, boolean after) {
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = compare(middle, second, nano);
+            if (order < 0 || (after && order == 0))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return negative, zero or positive as the timestamp at index is before, at or after
+     *         the timestamp (second, nano)
+     */
+    private int compare(int index, long second, int nano) {
+        int order = Long.compare(seconds[index], second);
+        return order != 0 ? order : Integer.compare(nanos[index], nano);
+    }
+
+    /**
+     * Sort the pending tweets and merge them into the sorted prefix, keeping the order of
+     * insertion among equal timestamps. Copies only the pending tail: the merge runs from the
+     * back, into the slots the tail occupied, so it never overwrites a prefix tweet it has yet
+     * to read, and stops as soon as the pending tweets run out.
+     */
+    private void consolidate() {
+        if (sorted == size)
+            return;
+
+        Tweet[] pending = Arrays.copyOfRange(tweets, sorted, size);
+        Arrays.sort(pending, BY_TIMESTAMP); // stable
+
+        int i = sorted - 1, j = pending.length - 1, k = size - 1;
+        while (j >= 0) {
+            Instant timestamp = pending[j].getTimestamp();
+            // on ties the later insertion, which is in pending, goes last
+            if (i >= 0 && compare(i, timestamp.getEpochSecond(), timestamp.getNano()) > 0) {
+                seconds[k] = seconds[i];
+                nanos[k] = nanos[i];
+                tweets[k--] = tweets[i--];
+            } else {
+                put(k--, pending[j--]);
+            }
+        }
+        // the rest of the prefix, tweets[0..i], is already in place
+        sorted = size;
+
+        checkRep();
+    }
+
+    private void put(int index, Tweet tweet) {
+        Instant timestamp = tweet.getTimestamp();
+        seconds[index] = timestamp.getEpochSecond();
+        nanos[index] = timestamp.getNano();
+        tweets[index] = tweet;
+    }
+
+    private void grow(int minimumCapacity) {
+        int capacity = Math.max(minimumCapacity, tweets.length * 2);
+        seconds = Arrays.copyOf(seconds, capacity);
+        nanos = Arrays.copyOf(nanos, capacity);
+        tweets = Arrays.copyOf(tweets, capacity);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,94 @@
+package twitter;
+
+/**
+ * Username is an immutable Twitter username that is equal to every other spelling of itself
+ * that differs only in case, for use as a key in hash tables.
+ *
+ * Case is folded one character at a time, as String.equalsIgnoreCase() does, so comparing and
+ * hashing never create a lowercase copy of the name. The hash is computed once, on construction.
+ */
+public final class Username {
+
+    private final String name;
+    private final int hash;
+
+    /* Rep invariant:
+     *    hash == the hash of name with every character folded
+     * Abstraction function:
+     *    represents the username name, ignoring case
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and strings are immutable.
+     */
+
+    /**
+     * Make a username.
+     * @param name Twitter username, in any case
+     */
+    public Username(String name) {
+        this.name = name;
+        this.hash = hash(name);
+    }
+
+    /**
+     * @return this username, spelled as it was given
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Compare this username with a spelling, without creating any objects.
+     * @param spelling Twitter username, in any case
+     * @return true iff spelling is this username, ignoring case
+     */
+    public boolean matches(String spelling) {
+        if (spelling == name)
+            return true;
+        if (spelling.length() != name.length())
+            return false;
+        for (int i = 0; i < name.length(); i++) {
+            char a = name.charAt(i);
+            char b = spelling.charAt(i);
+            if (a != b && fold(a) != fold(b))
+                return false;
+        }
+        return true;
+    }
+
+    @Override public boolean equals(Object thatObject) {
+        if (!(thatObject instanceof Username))
+            return false;
+        Username that = (Username) thatObject;
+        return this.hash == that.hash && this.matches(that.name);
+    }
+
+    @Override public int hashCode() {
+        return hash;
+    }
+
+    @Override public String toString() {
+        return name;
+    }
+
+    private static int hash(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++)
+            hash = 31 * hash + fold(name.charAt(i));
+        return hash;
+    }
+
+    /**
+     * @return c with its case folded; two characters are equal ignoring case, as defined by
+     *         String.equalsIgnoreCase(), iff they fold to the same character
+     */
+    private static char fold(char c) {
+        if (c < 0x80)
+            return 'A' <= c && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
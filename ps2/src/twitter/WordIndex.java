@@ -0,0 +1,204 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WordIndex is a mutable inverted index from words to the tweets containing them, for answering
+ * Filter.containing() many times over the same collection of tweets.
+ *
+ * Each tweet is lowercased and split into words once, when it is added. A query looks up the
+ * posting list of each of its words, a sorted array of tweet positions, and merges them, so it
+ * takes time proportional to the number of matching postings rather than to the size of the
+ * corpus.
+ */
+public class WordIndex {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final List<Tweet> tweets;
+    private final Map<String, Postings> postingsByWord;
+
+    /* Rep invariant:
+     *    every key of postingsByWord is a nonempty lowercase word
+     *    every Postings is strictly increasing and nonempty, with positions in [0, tweets.size())
+     *    position p is in postingsByWord.get(w) iff w is a word of
+     *      tweets.get(p).getText().toLowerCase()
+     * Abstraction function:
+     *    represents the sequence of tweets added so far, tweets, together with the set of
+     *    lowercase words of each one
+     * Safety from rep exposure argument:
+     *    All fields are private and final, and neither tweets nor any Postings is returned;
+     *    containing() returns a fresh list. Tweets and strings are immutable.
+     */
+
+    /** A growable, strictly increasing array of tweet positions. */
+    private static class Postings {
+        private int[] positions = new int[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private void append(int position) {
+            // a word repeated within one tweet is posted once
+            if (size > 0 && positions[size - 1] == position)
+                return;
+            if (size == positions.length)
+                positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+        }
+    }
+
+    /**
+     * Make an empty index.
+     */
+    public WordIndex() {
+        tweets = new ArrayList<>();
+        postingsByWord = new HashMap<>();
+    }
+
+    /**
+     * Make an index of a list of tweets.
+     * @param tweets tweets with distinct ids, not modified by this method
+     */
+    public WordIndex(List<Tweet> tweets) {
+        this();
+        for (Tweet tweet: tweets)
+            add(tweet);
+    }
+
+    /**
+     * Append a tweet to the index.
+     * @param tweet tweet whose id is distinct from the tweets already in this index
+     */
+    public void add(Tweet tweet) {
+        int position = tweets.size();
+        tweets.add(tweet);
+        for (String word: Filter.SPACES.split(tweet.getText().toLowerCase())) {
+            if (word.isEmpty())
+                continue; // before leading spaces
+            Postings postings = postingsByWord.get(word);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByWord.put(word, postings);
+            }
+            postings.append(position);
+        }
+    }
+
+    /**
+     * @return number of tweets in this index
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * Find tweets that contain certain words.
+     * @param words a list of words to search for, as required by Filter.containing();
+     *        not modified by this method
+     * @return all and only the tweets in this index that contain at least one of words, ignoring
+     *         case, in order of insertion. For an index built from a list, this is
+     *         Filter.containing() of that list.
+     */
+    public List<Tweet> containing(List<String> words) {
+        // distinct posting lists; repeated or differently-cased query words share one
+        Map<Postings, Boolean> distinct = new IdentityHashMap<>();
+        for (String word: words) {
+            Postings postings = postingsByWord.get(word.toLowerCase());
+            if (postings != null)
+                distinct.put(postings, true);
+        }
+        Postings[] lists = distinct.keySet().toArray(new Postings[distinct.size()]);
+        if (lists.length == 1)
+            return select(lists[0].positions, lists[0].size);
+        return select(merge(lists));
+    }
+
+    /**
+     * Merge posting lists with a binary min-heap of cursors.
+     * @param lists posting lists
+     * @return the strictly increasing union of lists
+     */
+    private static int[] merge(Postings[] lists) {
+        int total = 0;
+        for (Postings postings: lists)
+            total += postings.size;
+        int[] merged = new int[total];
+        int size = 0;
+
+        // heap[i] is an index into lists, ordered by the position at that list's cursor
+        int[] heap = new int[lists.length];
+        int[] cursors = new int[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            heap[i] = i;
+            siftUp(heap, i, lists, cursors);
+        }
+        int heapSize = lists.length;
+        while (heapSize > 0) {
+            int top = heap[0];
+            int position = lists[top].positions[cursors[top]];
+            if (size == 0 || merged[size - 1] != position)
+                merged[size++] = position;
+            if (++cursors[top] == lists[top].size)
+                heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, lists, cursors);
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static int head(int list, Postings[] lists, int[] cursors) {
+        return lists[list].positions[cursors[list]];
+    }
+
+    private static void siftUp(int[] heap, int i, Postings[] lists, int[] cursors) {
+        int item = heap[i];
+        int key = head(item, lists, cursors);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (head(heap[parent], lists, cursors) <= key)
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = item;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, Postings[] lists, int[] cursors) {
+        if (heapSize == 0)
+            return;
+        int item = heap[0];
+        int key = head(item, lists, cursors);
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && head(heap[child + 1], lists, cursors) < head(heap[child], lists, cursors))
+                child++;
+            if (key <= head(heap[child], lists, cursors))
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+
+    private List<Tweet> select(int[] positions) {
+        return select(positions, positions.length);
+    }
+
+    private List<Tweet> select(int[] positions, int size) {
+        List<Tweet> selected = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            selected.add(tweets.get(positions[i]));
+        return selected;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
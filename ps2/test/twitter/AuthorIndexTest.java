@@ -0,0 +1,94 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AuthorIndexTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on quantity of tweets:
+     *  1. No tweets
+     *  2. Many tweets, many authors
+     * Partitioning based on case:
+     *  1. Author and query in the same case
+     *  2. Author spelled in several cases, query in yet another
+     * Partitioning based on updates:
+     *  1. Built from a list
+     *  2. Tweets appended after queries
+     * Also: returned lists are fresh, and results equal Filter.writtenBy.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "first", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "second", d1);
+    private static final Tweet tweet3 = new Tweet(3, "ALYSSA", "third", d1);
+    private static final Tweet tweet4 = new Tweet(4, "AlYsSa", "fourth", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        AuthorIndex index = new AuthorIndex();
+        assertTrue(index.writtenBy("alyssa").isEmpty());
+        assertEquals(0, index.authorCount());
+    }
+
+    @Test
+    public void testDifferentCasesOneAuthor() {
+        AuthorIndex index = new AuthorIndex(Arrays.asList(tweet1, tweet2, tweet3));
+        assertEquals(Arrays.asList(tweet1, tweet3), index.writtenBy("Alyssa"));
+        assertEquals(Arrays.asList(tweet2), index.writtenBy("bbitdiddle"));
+        assertEquals(2, index.authorCount());
+    }
+
+    @Test
+    public void testAppendAfterQuery() {
+        AuthorIndex index = new AuthorIndex(Arrays.asList(tweet1, tweet2));
+        List<Tweet> before = index.writtenBy("alyssa");
+
+        index.add(tweet3);
+        index.add(tweet4);
+
+        assertEquals(Arrays.asList(tweet1), before);
+        assertEquals(Arrays.asList(tweet1, tweet3, tweet4), index.writtenBy("ALYSSA"));
+    }
+
+    @Test
+    public void testReturnedListIsFresh() {
+        AuthorIndex index = new AuthorIndex(Arrays.asList(tweet1));
+        index.writtenBy("alyssa").clear();
+        assertEquals(Arrays.asList(tweet1), index.writtenBy("alyssa"));
+    }
+
+    @Test
+    public void testManyTweetsAgainstFilter() {
+        List<Tweet> tweets = SyntheticTweets.make(20_000, 300, 6005);
+        AuthorIndex index = new AuthorIndex(tweets.subList(0, 10_000));
+        index.add(tweets.get(10_000));
+        for (Tweet tweet: tweets.subList(10_001, tweets.size()))
+            index.add(tweet);
+
+        for (int user = 0; user < 300; user += 7) {
+            String username = (user % 2 == 0 ? "USER_" : "user_") + user;
+            assertEquals(Filter.writtenBy(tweets, username), index.writtenBy(username));
+        }
+        assertEquals(new ArrayList<>(), index.writtenBy("nobody"));
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,172 @@
+package twitter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ColumnarTweetsTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on tweets:
+     *  1. No tweets
+     *  2. Hand-written tweets: an author in several cases, non-ASCII text, empty text,
+     *     timestamps with nanoseconds and before the epoch
+     *  3. Synthetic corpus
+     * Partitioning based on mapping:
+     *  1. One chunk per section
+     *  2. Many small chunks, so that texts span chunk boundaries
+     * Partitioning based on file:
+     *  1. Written by write(), over nothing, over an existing file that is open
+     *  2. A write() that fails part way, which must leave the existing file as it was
+     *  3. Not a columnar file, truncated
+     * Every tweet must round-trip, and every query must agree with Filter and Extract.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00.000000001Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d0 = Instant.parse("1969-12-31T23:59:59.5Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "caf\u00e9 \u2615 in 30 minutes #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "ALYSSA", "", d0);
+    private static final Tweet tweet4 = new Tweet(-4, "AlYsSa", "fourth", d1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testNoTweets() throws IOException {
+        ColumnarTweets tweets = writeAndOpen(new ArrayList<>(), 30);
+        assertEquals(0, tweets.size());
+        assertEquals(Extract.getTimespan(new ArrayList<>()), tweets.getTimespan());
+        assertArrayEquals(new int[0], tweets.writtenBy("alyssa"));
+        assertArrayEquals(new int[0], tweets.inTimespan(new Timespan(d0, d2)));
+    }
+
+    @Test
+    public void testHandWrittenTweets() throws IOException {
+        List<Tweet> list = Arrays.asList(tweet1, tweet2, tweet3, tweet4);
+        for (int chunkBits: new int[] { 3, 6, 30 }) {
+            ColumnarTweets tweets = writeAndOpen(list, chunkBits);
+            assertSameTweets(list, tweets);
+            assertArrayEquals(new int[] { 0, 2, 3 }, tweets.writtenBy("Alyssa"));
+            assertArrayEquals(new int[] { 1 }, tweets.writtenBy("BBITDIDDLE"));
+            assertArrayEquals(new int[0], tweets.writtenBy("nobody"));
+            assertArrayEquals(new int[] { 0, 1, 3 }, tweets.inTimespan(new Timespan(d1, d2)));
+            assertArrayEquals(new int[] { 2 }, tweets.inTimespan(new Timespan(d0, d0)));
+            assertEquals(new Timespan(d0, d2), tweets.getTimespan());
+        }
+    }
+
+    @Test
+    public void testSyntheticCorpus() throws IOException {
+        List<Tweet> list = SyntheticTweets.make(10_000, 300, 6005);
+        ColumnarTweets tweets = writeAndOpen(list, 12);
+        assertSameTweets(list, tweets);
+        assertEquals(Extract.getTimespan(list), tweets.getTimespan());
+
+        Random random = new Random(6005);
+        for (int i = 0; i < 20; i++) {
+            String username = (i % 2 == 0 ? "USER_" : "user_") + random.nextInt(300);
+            assertEquals(Filter.writtenBy(list, username), tweets.getTweets(tweets.writtenBy(username)));
+
+            Instant start = list.get(random.nextInt(list.size())).getTimestamp();
+            Timespan timespan = new Timespan(start, start.plusMillis(random.nextInt(500)));
+            assertEquals(Filter.inTimespan(list, timespan), tweets.getTweets(tweets.inTimespan(timespan)));
+        }
+    }
+
+    @Test
+    public void testFailedWriteAndRewriteLeaveExistingFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        ColumnarTweets.write(Arrays.asList(tweet1, tweet2), path);
+        byte[] before = Files.readAllBytes(path);
+
+        Iterator<Tweet> failing = new Iterator<Tweet>() {
+            private int read = 0;
+            @Override public boolean hasNext() { return true; }
+            @Override public Tweet next() {
+                if (read++ == 2)
+                    throw new UncheckedIOException(new IOException("source failed"));
+                return tweet3;
+            }
+        };
+        try {
+            ColumnarTweets.write(failing, path);
+            fail("expected the failure of the source");
+        } catch (UncheckedIOException e) {
+            // expected
+        }
+        assertArrayEquals(before, Files.readAllBytes(path));
+        assertEquals(1, folder.getRoot().list().length);
+
+        // replacing the file leaves one already open reading the tweets it was opened on
+        ColumnarTweets old = ColumnarTweets.open(path);
+        ColumnarTweets.write(Arrays.asList(tweet3), path);
+        assertSameTweets(Arrays.asList(tweet1, tweet2), old);
+        assertSameTweets(Arrays.asList(tweet3), ColumnarTweets.open(path));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test(expected=IOException.class)
+    public void testNotAColumnarFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, "not columnar tweets, but long enough for a header".getBytes("UTF-8"));
+        ColumnarTweets.open(path);
+    }
+
+    @Test(expected=IOException.class)
+    public void testTruncatedFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        ColumnarTweets.write(Arrays.asList(tweet1, tweet2), path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        ColumnarTweets.open(path);
+    }
+
+    private ColumnarTweets writeAndOpen(List<Tweet> tweets, int chunkBits) throws IOException {
+        Path path = folder.newFile().toPath();
+        ColumnarTweets.write(tweets, path);
+        // the temporary column files are gone
+        assertEquals(0, folder.getRoot().list((directory, name) -> name.startsWith("column")).length);
+        return ColumnarTweets.open(path, chunkBits);
+    }
+
+    private static void assertSameTweets(List<Tweet> expected, ColumnarTweets actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            Tweet tweet = expected.get(row);
+            assertEquals(tweet.getId(), actual.getId(row));
+            assertEquals(tweet.getAuthor(), actual.getAuthor(row));
+            assertEquals(tweet.getText(), actual.getText(row));
+            assertEquals(tweet.getTimestamp(), actual.getTimestamp(row));
+            assertEquals(tweet, actual.getTweet(row));
+        }
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
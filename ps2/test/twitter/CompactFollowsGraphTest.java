@@ -0,0 +1,125 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class CompactFollowsGraphTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on source:
+     *  1. fromTweets: no tweets, hand-written tweets, synthetic corpus
+     *  2. fromMap: empty map, map with mixed-case usernames
+     * Partitioning based on users:
+     *  1. Authors who follow no one, or only mention themselves
+     *  2. Users who are only followed
+     *  3. The same user in different cases, repeated mentions
+     * Edge arrays: grown by doubling, capped at MAX_EDGES, and full at MAX_EDGES.
+     * Queries: id and username lookups, followings by id and by name, follows,
+     * followerCounts, and toMap compared against SocialNetwork.guessFollowsGraph.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Tweet tweet1 = new Tweet(1, "kumar", "I don't mention anyone", d1);
+    private static final Tweet tweet2 = new Tweet(2, "Rob", "Thanks to @keVin @john @joseph", d1);
+    private static final Tweet tweet3 = new Tweet(3, "LisA", "Thanks to @kevin @JOHN @kumar @rob @joseph @Kevin", d1);
+    private static final Tweet tweet4 = new Tweet(4, "roB", "Hi @chad", d1);
+    private static final Tweet tweet5 = new Tweet(5, "kumar", "@kumar is great", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testNoTweets() {
+        CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(new ArrayList<>());
+        assertEquals(0, graph.userCount());
+        assertEquals(0, graph.edgeCount());
+        assertEquals(-1, graph.id("kumar"));
+        assertEquals(new HashMap<>(), graph.toMap());
+        assertEquals(new HashMap<>(), CompactFollowsGraph.fromMap(new HashMap<>()).toMap());
+    }
+
+    @Test
+    public void testHandWrittenTweets() {
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5);
+        CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(tweets);
+
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), graph.toMap());
+        // kumar, rob, kevin, john, joseph, lisa, chad
+        assertEquals(7, graph.userCount());
+        assertEquals(9, graph.edgeCount());
+
+        int rob = graph.id("ROB");
+        assertEquals("rob", graph.username(rob));
+        assertEquals(4, graph.followingCount(rob));
+        assertTrue(graph.follows(rob, graph.id("chad")));
+        assertFalse(graph.follows(graph.id("chad"), rob));
+        assertEquals(new HashSet<>(Arrays.asList("kevin", "john", "joseph", "chad")), graph.followings("Rob"));
+        assertEquals(new HashSet<>(), graph.followings("kumar"));
+        assertEquals(new HashSet<>(), graph.followings("nobody"));
+
+        for (int i = 1; i < graph.followingCount(rob); i++)
+            assertTrue(graph.following(rob, i - 1) < graph.following(rob, i));
+        assertEquals(2, graph.followerCounts()[graph.id("kevin")]);
+        assertEquals(0, graph.followerCounts()[graph.id("lisa")]);
+    }
+
+    @Test
+    public void testFromMapMixedCase() {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("Alyssa", new HashSet<>(Arrays.asList("BEN", "cy")));
+        followsGraph.put("ben", new HashSet<>());
+
+        Map<String, Set<String>> expected = new HashMap<>();
+        expected.put("alyssa", new HashSet<>(Arrays.asList("ben", "cy")));
+        expected.put("ben", new HashSet<>());
+
+        CompactFollowsGraph graph = CompactFollowsGraph.fromMap(followsGraph);
+        assertEquals(expected, graph.toMap());
+        assertEquals(3, graph.userCount());
+        assertEquals(Arrays.asList("ben", "cy", "alyssa"), new InfluencerRanking(graph).top(3));
+    }
+
+    @Test
+    public void testSyntheticCorpus() {
+        List<Tweet> tweets = SyntheticTweets.make(20_000, 2_000, 6005);
+        Map<String, Set<String>> expected = SocialNetwork.guessFollowsGraph(tweets);
+        CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(tweets);
+
+        assertEquals(expected, graph.toMap());
+        assertEquals(expected, CompactFollowsGraph.fromMap(expected).toMap());
+        assertEquals(SocialNetwork.influencers(expected), new InfluencerRanking(graph).top(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testGrowEdgeArrays() {
+        assertEquals(2048, CompactFollowsGraph.Builder.grow(1024));
+        // doubling these would overflow int
+        assertEquals(CompactFollowsGraph.MAX_EDGES, CompactFollowsGraph.Builder.grow(1 << 30));
+        assertEquals(CompactFollowsGraph.MAX_EDGES, CompactFollowsGraph.Builder.grow(CompactFollowsGraph.MAX_EDGES - 1));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGrowPastMaxEdges() {
+        CompactFollowsGraph.Builder.grow(CompactFollowsGraph.MAX_EDGES);
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
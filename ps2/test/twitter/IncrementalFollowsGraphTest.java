@@ -0,0 +1,138 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IncrementalFollowsGraphTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on tweets added:
+     *  1. None
+     *  2. Hand-written tweets: self-mentions, repeated mentions, authors in different cases
+     *  3. Synthetic corpus, added one at a time and in batches
+     * Partitioning based on readers:
+     *  1. Queries between additions
+     *  2. Snapshots taken while another thread adds tweets
+     * Results are compared against SocialNetwork.guessFollowsGraph and InfluencerRanking on the
+     * tweets added so far; ties in top() are compared by follower count only.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Tweet tweet1 = new Tweet(1, "kumar", "I don't mention anyone", d1);
+    private static final Tweet tweet2 = new Tweet(2, "Rob", "Thanks to @keVin @john @joseph", d1);
+    private static final Tweet tweet3 = new Tweet(3, "LisA", "Thanks to @kevin @JOHN @kumar @rob @joseph @Kevin", d1);
+    private static final Tweet tweet4 = new Tweet(4, "roB", "Hi @chad @kevin", d1);
+    private static final Tweet tweet5 = new Tweet(5, "kumar", "@kumar is great, says @KEVIN", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmpty() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        assertEquals(0, graph.userCount());
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.followerCount("kumar"));
+        assertTrue(graph.top(5).isEmpty());
+        assertEquals(new HashMap<>(), graph.snapshot().toMap());
+    }
+
+    @Test
+    public void testHandWrittenTweets() {
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.addTweet(tweet1);
+        graph.addTweet(tweet2);
+        assertEquals(3, graph.top(3).size());
+        assertEquals(1, graph.followerCount("KEVIN"));
+
+        graph.addTweets(Arrays.asList(tweet3, tweet4, tweet5));
+        List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3, tweet4, tweet5);
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), graph.snapshot().toMap());
+        assertEquals(Arrays.asList("kevin"), graph.top(1));
+        assertEquals(2, graph.followerCount("john"));
+        assertEquals(1, graph.followerCount("kumar"));
+        assertEquals(0, graph.followerCount("lisa"));
+        assertEquals(7, graph.userCount());
+        assertEquals(10, graph.edgeCount());
+    }
+
+    @Test
+    public void testSyntheticCorpusAgainstBatch() {
+        List<Tweet> tweets = SyntheticTweets.make(10_000, 500, 6005);
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        for (int start = 0; start < tweets.size(); start += 2_500) {
+            graph.addTweets(tweets.subList(start, start + 1_000));
+            for (int i = start + 1_000; i < start + 2_500; i++)
+                graph.addTweet(tweets.get(i));
+
+            List<Tweet> added = tweets.subList(0, start + 2_500);
+            CompactFollowsGraph snapshot = graph.snapshot();
+            assertEquals(SocialNetwork.guessFollowsGraph(added), snapshot.toMap());
+            assertEquals(snapshot.edgeCount(), graph.edgeCount());
+            assertEquals(followerCounts(snapshot, new InfluencerRanking(snapshot).top(100)),
+                    followerCounts(snapshot, graph.top(100)));
+        }
+    }
+
+    @Test
+    public void testSnapshotsWhileAdding() throws InterruptedException {
+        List<Tweet> tweets = SyntheticTweets.make(3_000, 200, 6005);
+        IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        Thread writer = new Thread(() -> {
+            for (Tweet tweet: tweets)
+                graph.addTweet(tweet);
+        });
+        writer.start();
+        List<CompactFollowsGraph> snapshots = new ArrayList<>();
+        while (writer.isAlive())
+            snapshots.add(graph.snapshot());
+        writer.join();
+        snapshots.add(graph.snapshot());
+
+        // each snapshot must be the graph of some prefix of the tweets
+        int step = Math.max(1, snapshots.size() / 20);
+        for (int i = 0; i < snapshots.size(); i += step)
+            assertTrue("snapshot is not the graph of any prefix", isGraphOfSomePrefix(snapshots.get(i), tweets));
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), snapshots.get(snapshots.size() - 1).toMap());
+    }
+
+    private static boolean isGraphOfSomePrefix(CompactFollowsGraph snapshot, List<Tweet> tweets) {
+        Map<String, Set<String>> map = snapshot.toMap();
+        IncrementalFollowsGraph replay = new IncrementalFollowsGraph();
+        for (int n = 0; replay.edgeCount() <= snapshot.edgeCount(); n++) {
+            if (replay.edgeCount() == snapshot.edgeCount() && replay.userCount() == snapshot.userCount()
+                    && replay.snapshot().toMap().equals(map))
+                return true;
+            if (n == tweets.size())
+                return false;
+            replay.addTweet(tweets.get(n));
+        }
+        return false;
+    }
+
+    private static List<Integer> followerCounts(CompactFollowsGraph graph, List<String> users) {
+        int[] counts = graph.followerCounts();
+        List<Integer> followers = new ArrayList<>();
+        for (String user: users)
+            followers.add(counts[graph.id(user)]);
+        return followers;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
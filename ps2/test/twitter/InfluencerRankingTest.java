@@ -0,0 +1,132 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class InfluencerRankingTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on graph:
+     *  1. Empty graph
+     *  2. Users only as keys, only as followees, or both; a user only as a key given an id
+     *     beyond the initial capacity of the follower counts
+     *  3. The same user spelled in different cases; a user following themself
+     *  4. Large random graph
+     * Partitioning based on k:
+     *  1. k = 0
+     *  2. 0 < k < number of users
+     *  3. k >= number of users
+     *  4. k < 0
+     * Partitioning based on follower counts:
+     *  1. All distinct
+     *  2. Ties, broken by username
+     * Large graphs are compared against sorting every user by follower count.
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        InfluencerRanking ranking = new InfluencerRanking(new HashMap<>());
+        assertEquals(0, ranking.size());
+        assertTrue(ranking.top(10).isEmpty());
+    }
+
+    @Test
+    public void testFollowersNotFollowings() {
+        Map<String, Set<String>> graph = new HashMap<>();
+        graph.put("alyssa", new HashSet<>(Arrays.asList("ben", "cy", "dan")));
+        graph.put("ben", new HashSet<>(Arrays.asList("cy")));
+        graph.put("eve", new HashSet<>(Arrays.asList("cy", "ben")));
+
+        InfluencerRanking ranking = new InfluencerRanking(graph);
+        assertEquals(5, ranking.size());
+        assertEquals(Arrays.asList("cy", "ben", "dan", "alyssa", "eve"), ranking.top(5));
+        assertEquals(Arrays.asList("cy", "ben"), ranking.top(2));
+        assertEquals(new ArrayList<>(), ranking.top(0));
+        assertEquals(ranking.top(5), ranking.top(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testCaseAndSelfFollows() {
+        Map<String, Set<String>> graph = new HashMap<>();
+        graph.put("alyssa", new HashSet<>(Arrays.asList("Ben", "ALYSSA")));
+        graph.put("cy", new HashSet<>(Arrays.asList("BEN", "alyssa")));
+
+        InfluencerRanking ranking = new InfluencerRanking(graph);
+        assertEquals(3, ranking.size());
+        List<String> top = ranking.top(3);
+        assertEquals("ben", top.get(0).toLowerCase());
+        assertEquals(Arrays.asList("alyssa", "cy"), top.subList(1, 3));
+    }
+
+    @Test
+    public void testFollowerOnlyUserPastInitialCapacity() {
+        Map<String, Set<String>> graph = new LinkedHashMap<>();
+        Set<String> followees = new HashSet<>();
+        for (int i = 1; i <= 15; i++)
+            followees.add("u" + i);
+        graph.put("a", followees);
+        graph.put("b", new HashSet<>());
+
+        InfluencerRanking ranking = new InfluencerRanking(graph);
+        assertEquals(17, ranking.size());
+        List<String> top = ranking.top(17);
+        assertEquals(17, top.size());
+        assertEquals(Arrays.asList("a", "b"), top.subList(15, 17));
+        assertEquals(top, SocialNetwork.influencers(graph));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNegativeK() {
+        new InfluencerRanking(new HashMap<>()).top(-1);
+    }
+
+    @Test
+    public void testRandomGraphAgainstSort() {
+        Random random = new Random(6005);
+        Map<String, Set<String>> graph = new HashMap<>();
+        Map<String, Integer> followers = new HashMap<>();
+        for (int user = 0; user < 5_000; user++) {
+            String name = "user_" + user;
+            followers.putIfAbsent(name, 0);
+            Set<String> followings = new HashSet<>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                String followee = "user_" + (int) (5_000 * Math.pow(random.nextDouble(), 2));
+                if (!followee.equals(name) && followings.add(followee))
+                    followers.merge(followee, 1, Integer::sum);
+            }
+            graph.put(name, followings);
+        }
+
+        List<String> sorted = new ArrayList<>(followers.keySet());
+        sorted.sort((a, b) -> followers.get(a).equals(followers.get(b))
+                ? a.compareTo(b) : followers.get(b) - followers.get(a));
+
+        InfluencerRanking ranking = new InfluencerRanking(graph);
+        for (int k: new int[] { 1, 10, 100, 4_999, 5_000, 10_000 })
+            assertEquals(sorted.subList(0, Math.min(k, sorted.size())), ranking.top(k));
+        assertEquals(sorted, SocialNetwork.influencers(graph));
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,129 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedFollowsGraphTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on graph:
+     *  1. Empty graph
+     *  2. Hand-written graph, with a non-ASCII username and users who are only followed
+     *  3. Synthetic corpus
+     * Partitioning based on mapping:
+     *  1. One chunk per section
+     *  2. Many small chunks, so that sections and usernames span chunk boundaries
+     * Partitioning based on file:
+     *  1. Written by write()
+     *  2. Not a follows graph, truncated
+     * Every query is compared against the CompactFollowsGraph that was written.
+     */
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyGraph() throws IOException {
+        Path path = folder.newFile().toPath();
+        MappedFollowsGraph.write(CompactFollowsGraph.fromTweets(new ArrayList<>()), path);
+        MappedFollowsGraph graph = MappedFollowsGraph.open(path);
+        assertEquals(0, graph.userCount());
+        assertEquals(0, graph.edgeCount());
+        assertEquals(-1, graph.id("alyssa"));
+        assertTrue(graph.influencers(10).isEmpty());
+    }
+
+    @Test
+    public void testHandWrittenGraph() throws IOException {
+        Map<String, Set<String>> followsGraph = new HashMap<>();
+        followsGraph.put("alyssa", new HashSet<>(Arrays.asList("ben", "cy", "d\u00e9bora")));
+        followsGraph.put("Ben", new HashSet<>(Arrays.asList("cy")));
+        followsGraph.put("eve", new HashSet<>());
+        CompactFollowsGraph compact = CompactFollowsGraph.fromMap(followsGraph);
+
+        for (int chunkBits: new int[] { 3, 6, 30 }) {
+            Path path = folder.newFile().toPath();
+            MappedFollowsGraph.write(compact, path);
+            assertSameGraph(compact, MappedFollowsGraph.open(path, chunkBits));
+        }
+        MappedFollowsGraph graph = MappedFollowsGraph.open(writeTo(compact));
+        assertEquals(new HashSet<>(Arrays.asList("cy", "ben", "d\u00e9bora")), graph.followings("ALYSSA"));
+        assertEquals(Arrays.asList("cy", "ben"), graph.influencers(2));
+        assertEquals(-1, graph.id("debora"));
+    }
+
+    @Test
+    public void testSyntheticCorpus() throws IOException {
+        List<Tweet> tweets = SyntheticTweets.make(10_000, 1_000, 6005);
+        CompactFollowsGraph compact = CompactFollowsGraph.fromTweets(tweets);
+        Path path = writeTo(compact);
+        assertSameGraph(compact, MappedFollowsGraph.open(path));
+        assertSameGraph(compact, MappedFollowsGraph.open(path, 10));
+    }
+
+    @Test(expected=IOException.class)
+    public void testNotAGraphFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, "not a follows graph, but long enough for a header".getBytes("UTF-8"));
+        MappedFollowsGraph.open(path);
+    }
+
+    @Test(expected=IOException.class)
+    public void testTruncatedFile() throws IOException {
+        Path path = writeTo(CompactFollowsGraph.fromTweets(SyntheticTweets.make(100, 10, 6005)));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+        MappedFollowsGraph.open(path);
+    }
+
+    private Path writeTo(CompactFollowsGraph graph) throws IOException {
+        Path path = folder.newFile().toPath();
+        MappedFollowsGraph.write(graph, path);
+        return path;
+    }
+
+    private static void assertSameGraph(CompactFollowsGraph expected, MappedFollowsGraph actual) {
+        assertEquals(expected.userCount(), actual.userCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        int[] followerCounts = expected.followerCounts();
+        for (int u = 0; u < expected.userCount(); u++) {
+            String username = expected.username(u);
+            assertEquals(username, actual.username(u));
+            assertEquals(u, actual.id(username.toUpperCase()));
+            assertEquals(expected.isAuthor(u), actual.isAuthor(u));
+            assertEquals(followerCounts[u], actual.followerCount(u));
+            assertEquals(expected.followingCount(u), actual.followingCount(u));
+            for (int i = 0; i < expected.followingCount(u); i++)
+                assertEquals(expected.following(u, i), actual.following(u, i));
+        }
+        InfluencerRanking ranking = new InfluencerRanking(expected);
+        for (int k: new int[] { 0, 1, 10, expected.userCount() })
+            assertEquals(ranking.top(k), actual.influencers(k));
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
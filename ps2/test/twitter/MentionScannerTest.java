@@ -0,0 +1,109 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class MentionScannerTest {
+
+    /*
+     * Testing strategy:
+     * Differential testing against the reference pattern applied to text.toLowerCase()
+     * 1. Hand-picked tweets: mentions at the beginning, middle and end; emails; repeated '@';
+     *    mixed case; hyphens and underscores
+     * 2. Every BMP character before the '@', inside the username and after it
+     * 3. Random strings over an alphabet of username characters, '@', separators and the
+     *    non-ASCII characters that lowercase to username characters
+     * 4. A locale whose lowercasing of I differs from the root locale
+     *
+     * addMentions():
+     * 1. Order of appearance, duplicates kept
+     */
+
+    private static final Pattern REFERENCE = Pattern.compile("(?<![a-z0-9_-])@([a-z0-9_-]+)(?![a-z0-9_-])");
+
+    private static final String ALPHABET = "aZ9_-@@ .!\u0130\u212A\u0307\u00E9\u0131I";
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testHandPickedTweets() {
+        List<String> tweets = Arrays.asList(
+                "",
+                "@",
+                "@@alyssa",
+                "@alyssa",
+                "thanks @Alyssa and @BBITDIDDLE!",
+                "mail bitdiddle@mit.edu or @mit_",
+                "@a-b_c-@d @e@f",
+                "trailing @",
+                "ends with @JohN");
+        for (String tweet: tweets)
+            assertEquals("tweet: " + tweet, reference(tweet), MentionScanner.mentions(tweet));
+    }
+
+    @Test
+    public void testEveryBmpCharacterAroundMention() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            for (String tweet: new String[] { ch + "@ab", "@a" + ch + "b", "@ab" + ch + "@c", "x @" + ch })
+                assertEquals("char " + Integer.toHexString(c), reference(tweet), MentionScanner.mentions(tweet));
+        }
+    }
+
+    @Test
+    public void testRandomTweets() {
+        Random random = new Random(6005);
+        for (int i = 0; i < 100_000; i++) {
+            char[] text = new char[random.nextInt(20)];
+            for (int j = 0; j < text.length; j++)
+                text[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            String tweet = new String(text);
+            assertEquals("tweet: " + tweet, reference(tweet), MentionScanner.mentions(tweet));
+        }
+    }
+
+    @Test
+    public void testTurkishLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr"));
+            String tweet = "hi @IRMAK and @\u0130pek";
+            assertEquals(reference(tweet), MentionScanner.mentions(tweet));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    public void testAddMentionsOrderOfAppearance() {
+        List<String> mentions = new ArrayList<>();
+        MentionScanner.addMentions("@bob and @Alice, then @BOB", mentions);
+        assertEquals(Arrays.asList("bob", "alice", "bob"), mentions);
+    }
+
+    private static HashSet<String> reference(String tweet) {
+        HashSet<String> mentions = new HashSet<>();
+        Matcher matcher = REFERENCE.matcher(tweet.toLowerCase());
+        while (matcher.find())
+            mentions.add(matcher.group(1));
+        return mentions;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
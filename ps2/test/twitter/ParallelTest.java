@@ -0,0 +1,88 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ParallelTest {
+
+    /*
+     * Testing strategy:
+     * Extract.getMentionedUsersParallel and SocialNetwork.guessFollowsGraphParallel
+     * must equal their sequential counterparts.
+     * Partitioning based on quantity of tweets:
+     *  1. No tweets
+     *  2. Fewer tweets than the split threshold
+     *  3. Many times the split threshold, so partial results are merged
+     * Partitioning based on pool:
+     *  1. Common pool
+     *  2. Single-threaded pool
+     *  3. Multi-threaded pool
+     * Partitioning based on authors:
+     *  1. The same author, in different cases, on both sides of a split
+     */
+
+    private static final List<Tweet> MANY_TWEETS = SyntheticTweets.make(10 * Extract.PARALLEL_THRESHOLD + 17, 5_000, 6005);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testNoTweets() {
+        List<Tweet> tweets = new ArrayList<>();
+        assertEquals(Extract.getMentionedUsers(tweets), Extract.getMentionedUsersParallel(tweets));
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraphParallel(tweets));
+    }
+
+    @Test
+    public void testFewTweets() {
+        List<Tweet> tweets = MANY_TWEETS.subList(0, 100);
+        assertEquals(Extract.getMentionedUsers(tweets), Extract.getMentionedUsersParallel(tweets));
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraphParallel(tweets));
+    }
+
+    @Test
+    public void testManyTweetsCommonPool() {
+        assertEquals(Extract.getMentionedUsers(MANY_TWEETS), Extract.getMentionedUsersParallel(MANY_TWEETS));
+        assertEquals(SocialNetwork.guessFollowsGraph(MANY_TWEETS), SocialNetwork.guessFollowsGraphParallel(MANY_TWEETS));
+    }
+
+    @Test
+    public void testManyTweetsSizedPools() {
+        for (int parallelism: new int[] { 1, 4 }) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                assertEquals(Extract.getMentionedUsers(MANY_TWEETS),
+                        Extract.getMentionedUsersParallel(MANY_TWEETS, pool));
+                assertEquals(SocialNetwork.guessFollowsGraph(MANY_TWEETS),
+                        SocialNetwork.guessFollowsGraphParallel(MANY_TWEETS, pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testSameAuthorOnBothSidesOfSplit() {
+        List<Tweet> tweets = new ArrayList<>(MANY_TWEETS.subList(0, 2 * Extract.PARALLEL_THRESHOLD));
+        tweets.set(0, new Tweet(-1, "Ernie", "hi @bert", tweets.get(0).getTimestamp()));
+        tweets.set(tweets.size() - 1, new Tweet(-2, "ERNIE", "hi @BigBird @ernie", tweets.get(0).getTimestamp()));
+
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraphParallel(tweets));
+        assertEquals(Arrays.asList("bert", "bigbird"),
+                new ArrayList<>(new TreeSet<>(SocialNetwork.guessFollowsGraphParallel(tweets).get("ernie"))));
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -31,7 +31,7 @@ public class SocialNetworkTest {
      *  3. ToggleCase
      *  
      *  influencers:
-     *  Partition based on quantity of followees
+     *  Partition based on quantity of followers
      *  1. Empty graph
      *  2. One member graph
      *  3. More than one member graph
@@ -114,8 +114,8 @@ public class SocialNetworkTest {
         graph.put("mark", new HashSet<>(Arrays.asList("ralph", "johnson")));
         List<String> influencers = SocialNetwork.influencers(graph);
         
-        assertEquals("expected a singleton list", 1, influencers.size());
-        assertEquals("expected mark to be the influencer","mark", influencers.get(0));
+        assertEquals("expected every user in the list", 3, influencers.size());
+        assertEquals("expected mark, who has no followers, to be last", "mark", influencers.get(2));
     }
     
     @Test
@@ -125,20 +125,20 @@ public class SocialNetworkTest {
         graph.put("roy", new HashSet<>(Arrays.asList("chad", "john")));
         
         List<String> influencers = SocialNetwork.influencers(graph);
-        assertEquals("expected two element list", 2, influencers.size());
+        assertEquals("expected six element list", 6, influencers.size());
     }
     
     @Test
     public void testInfluencersMoreThanOneNonEqualFollowers() {
         Map<String, Set<String>> graph = new HashMap<>();
-        graph.put("mark", new HashSet<>(Arrays.asList("ralph", "johnson")));
+        graph.put("mark", new HashSet<>(Arrays.asList("ralph", "rob")));
         graph.put("patrick", new HashSet<>(Arrays.asList("rob", "pamela", "jason")));
-        graph.put("roy", new HashSet<>(Arrays.asList("chad", "john")));
+        graph.put("roy", new HashSet<>(Arrays.asList("chad", "rob")));
         
         List<String> influencers = SocialNetwork.influencers(graph);
         
-        assertEquals("expected three element list", 3, influencers.size());
-        assertEquals("expected patrick to be the influencer", "patrick", influencers.get(0));
+        assertEquals("expected eight element list", 8, influencers.size());
+        assertEquals("expected rob to be the influencer", "rob", influencers.get(0));
     }
 
     /*
@@ -0,0 +1,77 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic-looking tweets for benchmarks: mixed-case authors
+ * drawn from a skewed population, 0-3 mentions per tweet, emails, hashtags and filler words,
+ * and timestamps spread over a day in roughly increasing order.
+ */
+public class SyntheticTweets {
+
+    private static final String[] WORDS = {
+        "the", "talk", "rivest", "hype", "great", "thanks", "today", "java", "code", "review",
+        "lecture", "MIT", "is", "so", "much", "fun", "and", "about", "#6005", "tomorrow"
+    };
+    private static final Instant START = Instant.parse("2016-02-17T00:00:00Z");
+
+    private SyntheticTweets() {
+        // static methods only
+    }
+
+    /**
+     * Make a list of tweets.
+     * @param count number of tweets
+     * @param users number of distinct usernames, at least 1
+     * @param seed random seed; equal seeds give equal lists
+     * @return count tweets with ids 0..count-1
+     */
+    public static List<Tweet> make(int count, int users, long seed) {
+        List<Tweet> tweets = new ArrayList<>(count);
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++)
+            tweets.add(make(i, users, random));
+        return tweets;
+    }
+
+    /**
+     * Make one tweet.
+     * @param id id of the tweet
+     * @param users number of distinct usernames, at least 1
+     * @param random source of randomness
+     * @return a tweet by one of users, sent around START + id milliseconds
+     */
+    public static Tweet make(long id, int users, Random random) {
+        StringBuilder text = new StringBuilder();
+        int mentions = random.nextInt(4);
+        while (text.length() < 100) {
+            if (mentions > 0 && random.nextInt(4) == 0) {
+                text.append('@').append(username(random, users)).append(' ');
+                mentions--;
+            } else if (random.nextInt(40) == 0) {
+                text.append(username(random, users)).append("@mit.edu ");
+            } else {
+                text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+        }
+        Instant timestamp = START.plusMillis(id + random.nextInt(1000));
+        return new Tweet(id, username(random, users), text.toString().trim(), timestamp);
+    }
+
+    /**
+     * @return a username, in random case, drawn with a skew towards low-numbered users
+     */
+    private static String username(Random random, int users) {
+        int user = (int) (users * Math.pow(random.nextDouble(), 3));
+        String name = "user_" + user;
+        return random.nextInt(3) == 0 ? name.toUpperCase() : name;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
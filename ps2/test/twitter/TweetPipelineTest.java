@@ -0,0 +1,124 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TweetPipelineTest {
+
+    /*
+     * Testing strategy:
+     * Each result must equal the corresponding List-based method applied to the
+     * list of tweets that pass the pipeline.
+     * Partitioning based on source:
+     *  1. Empty
+     *  2. Synthetic corpus
+     *  3. Iterator, Iterable, Stream
+     * Partitioning based on stages:
+     *  1. None
+     *  2. One of writtenBy, inTimespan, containing
+     *  3. All three chained
+     * Partitioning based on sinks:
+     *  1. One sink
+     *  2. Several sinks fed by the same pass
+     * Also: the source is traversed exactly once, and the words list is not modified.
+     */
+
+    private static final List<Tweet> TWEETS = SyntheticTweets.make(20_000, 500, 6005);
+    private static final Timespan MORNING = new Timespan(
+            Instant.parse("2016-02-17T00:00:03Z"), Instant.parse("2016-02-17T00:00:12Z"));
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptySource() {
+        List<Tweet> none = new ArrayList<>();
+        assertEquals(Extract.getTimespan(none), TweetPipeline.from(none).getTimespan());
+        assertEquals(new HashSet<>(), TweetPipeline.from(none).getMentionedUsers());
+        assertEquals(new HashMap<>(), TweetPipeline.from(none).guessFollowsGraph());
+        assertEquals(0, TweetPipeline.from(none).count());
+    }
+
+    @Test
+    public void testNoStages() {
+        assertEquals(Extract.getTimespan(TWEETS), TweetPipeline.from(TWEETS).getTimespan());
+        assertEquals(Extract.getMentionedUsers(TWEETS), TweetPipeline.from(TWEETS.stream()).getMentionedUsers());
+        assertEquals(SocialNetwork.guessFollowsGraph(TWEETS), TweetPipeline.from(TWEETS.iterator()).guessFollowsGraph());
+    }
+
+    @Test
+    public void testSingleStages() {
+        assertEquals(Filter.writtenBy(TWEETS, "USER_3"), collect(TweetPipeline.from(TWEETS).writtenBy("USER_3")));
+        assertEquals(Filter.inTimespan(TWEETS, MORNING), collect(TweetPipeline.from(TWEETS).inTimespan(MORNING)));
+        assertEquals(Filter.containing(TWEETS, new ArrayList<>(Arrays.asList("Rivest", "hype"))),
+                collect(TweetPipeline.from(TWEETS).containing(Arrays.asList("Rivest", "hype"))));
+    }
+
+    @Test
+    public void testChainedStagesSeveralSinks() {
+        List<Tweet> expected = Filter.containing(
+                Filter.inTimespan(Filter.writtenBy(TWEETS, "user_1"), MORNING),
+                new ArrayList<>(Arrays.asList("talk")));
+
+        List<Tweet> passed = new ArrayList<>();
+        TimespanAccumulator timespan = new TimespanAccumulator();
+        Set<String> mentions = new HashSet<>();
+        Map<String, Set<String>> graph = new HashMap<>();
+        TweetPipeline.from(TWEETS)
+                     .writtenBy("user_1")
+                     .inTimespan(MORNING)
+                     .containing(Arrays.asList("talk"))
+                     .forEach(passed::add, timespan, new MentionAccumulator(mentions), new FollowsGraphAccumulator(graph));
+
+        assertFalse("expected some tweets to pass", expected.isEmpty());
+        assertEquals(expected, passed);
+        assertEquals(Extract.getTimespan(expected), timespan.getTimespan());
+        assertEquals(Extract.getMentionedUsers(expected), mentions);
+        assertEquals(SocialNetwork.guessFollowsGraph(expected), graph);
+    }
+
+    @Test
+    public void testSourceTraversedOnce() {
+        int[] nexts = { 0 };
+        Iterator<Tweet> tweets = TWEETS.iterator();
+        Iterator<Tweet> counting = new Iterator<Tweet>() {
+            @Override public boolean hasNext() { return tweets.hasNext(); }
+            @Override public Tweet next() { nexts[0]++; return tweets.next(); }
+        };
+
+        TweetPipeline.from(counting).writtenBy("user_1").inTimespan(MORNING).count();
+        assertEquals(TWEETS.size(), nexts[0]);
+    }
+
+    @Test
+    public void testContainingDoesNotModifyWords() {
+        List<String> words = Arrays.asList("Rivest", "HYPE");
+        TweetPipeline.from(TWEETS).containing(words).count();
+        assertEquals(Arrays.asList("Rivest", "HYPE"), words);
+    }
+
+    private static List<Tweet> collect(TweetPipeline pipeline) {
+        List<Tweet> tweets = new ArrayList<>();
+        pipeline.forEach(tweets::add);
+        return tweets;
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
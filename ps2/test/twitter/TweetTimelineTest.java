@@ -0,0 +1,130 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetTimelineTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on quantity of tweets:
+     *  1. No tweets
+     *  2. One tweet
+     *  3. Many tweets
+     * Partitioning based on order of insertion:
+     *  1. In timestamp order
+     *  2. Out of order, before and after queries; pending tweets all before, all after or
+     *     between the sorted ones
+     *  3. Equal timestamps
+     * Partitioning based on timespan:
+     *  1. Before, after or between all tweets
+     *  2. Endpoints exactly at tweet timestamps
+     *  3. Covering everything
+     * Results compared against Filter.inTimespan and Extract.getTimespan on a sorted list.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "first", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "second", d2);
+    private static final Tweet tweet3 = new Tweet(3, "alyssa", "third", d3);
+    private static final Tweet tweet4 = new Tweet(4, "bbitdiddle", "also second", d2);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyTimeline() {
+        TweetTimeline timeline = new TweetTimeline();
+        assertEquals(0, timeline.size());
+        assertEquals(Extract.getTimespan(new ArrayList<>()), timeline.getTimespan());
+        assertTrue(timeline.inTimespan(new Timespan(d1, d3)).isEmpty());
+    }
+
+    @Test
+    public void testOneTweet() {
+        TweetTimeline timeline = new TweetTimeline(Arrays.asList(tweet2));
+        assertEquals(new Timespan(d2, d2), timeline.getTimespan());
+        assertEquals(Arrays.asList(tweet2), timeline.inTimespan(new Timespan(d2, d2)));
+        assertEquals(Arrays.asList(), timeline.inTimespan(new Timespan(d1, d1)));
+        assertEquals(Arrays.asList(), timeline.inTimespan(new Timespan(d3, d3)));
+    }
+
+    @Test
+    public void testOutOfOrderEqualTimestampsKeepInsertionOrder() {
+        TweetTimeline timeline = new TweetTimeline();
+        timeline.add(tweet3);
+        timeline.add(tweet2);
+        timeline.add(tweet1);
+        assertEquals(new Timespan(d1, d3), timeline.getTimespan());
+
+        timeline.add(tweet4);
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet4, tweet3), timeline.inTimespan(new Timespan(d1, d3)));
+        assertEquals(Arrays.asList(tweet2, tweet4), timeline.inTimespan(new Timespan(d2, d2)));
+        assertEquals(4, timeline.size());
+    }
+
+    @Test
+    public void testPendingTweetsBeforeAndBetweenSortedOnes() {
+        TweetTimeline timeline = new TweetTimeline(Arrays.asList(tweet2, tweet3));
+        assertEquals(new Timespan(d2, d3), timeline.getTimespan());
+
+        // all pending tweets before every sorted one
+        timeline.add(tweet1);
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet3), timeline.inTimespan(new Timespan(d1, d3)));
+
+        // a pending tweet tied with a sorted one, in the middle
+        timeline.add(tweet4);
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet4, tweet3), timeline.inTimespan(new Timespan(d1, d3)));
+        assertEquals(new Timespan(d1, d3), timeline.getTimespan());
+    }
+
+    @Test
+    public void testManyTweetsAgainstFilter() {
+        Random random = new Random(6005);
+        List<Tweet> tweets = SyntheticTweets.make(5_000, 100, 6005);
+        List<Tweet> shuffled = new ArrayList<>(tweets);
+        Collections.shuffle(shuffled, random);
+
+        TweetTimeline timeline = new TweetTimeline();
+        List<Tweet> added = new ArrayList<>();
+        for (int i = 0; i < shuffled.size(); i++) {
+            timeline.add(shuffled.get(i));
+            added.add(shuffled.get(i));
+            if (i % 1000 != 999)
+                continue;
+
+            // a stable sort of the insertion order is what the timeline promises
+            List<Tweet> sorted = new ArrayList<>(added);
+            sorted.sort(Comparator.comparing(Tweet::getTimestamp));
+            assertEquals(Extract.getTimespan(sorted), timeline.getTimespan());
+            for (int q = 0; q < 50; q++) {
+                Instant a = sorted.get(random.nextInt(sorted.size())).getTimestamp().plusMillis(random.nextInt(3) - 1);
+                Instant b = a.plusMillis(random.nextInt(2000));
+                Timespan timespan = new Timespan(a, b);
+                assertEquals(Filter.inTimespan(sorted, timespan), timeline.inTimespan(timespan));
+            }
+        }
+        assertEquals(Filter.inTimespan(tweets, new Timespan(Instant.MIN, Instant.MAX)).size(),
+                timeline.inTimespan(new Timespan(Instant.MIN, Instant.MAX)).size());
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,104 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class UsernameTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on case of the two spellings:
+     *  1. Identical
+     *  2. Same letters, different case
+     *  3. Different letters
+     * Partitioning based on length:
+     *  1. Equal lengths
+     *  2. Different lengths, one a prefix of the other
+     *  3. Empty
+     * Partitioning based on characters:
+     *  1. ASCII letters, digits, underscore and hyphen
+     *  2. Non-ASCII letters whose case folds outside ASCII or into it
+     * Also: equal usernames have equal hash codes and find each other as hash keys, and
+     * getName() and toString() keep the original spelling.
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testIdenticalSpelling() {
+        Username user = new Username("alyssa");
+        assertTrue(user.matches("alyssa"));
+        assertEquals(user, new Username("alyssa"));
+        assertEquals(user.hashCode(), new Username("alyssa").hashCode());
+    }
+
+    @Test
+    public void testDifferentCase() {
+        Username user = new Username("Ben_Bitdiddle-2");
+        assertTrue(user.matches("ben_bitdiddle-2"));
+        assertTrue(user.matches("BEN_BITDIDDLE-2"));
+        assertEquals(new Username("ben_bitdiddle-2"), user);
+        assertEquals(new Username("BEN_BITDIDDLE-2").hashCode(), user.hashCode());
+    }
+
+    @Test
+    public void testDifferentLetters() {
+        Username user = new Username("alyssa");
+        assertFalse(user.matches("alyssb"));
+        assertFalse(user.matches("alyss_"));
+        assertNotEquals(user, new Username("ALYSSB"));
+    }
+
+    @Test
+    public void testDifferentLengths() {
+        Username user = new Username("alyssa");
+        assertFalse(user.matches("alyss"));
+        assertFalse(user.matches("ALYSSAP"));
+        assertNotEquals(user, new Username("alyssap"));
+        assertFalse(new Username("").matches("a"));
+        assertTrue(new Username("").matches(""));
+    }
+
+    @Test
+    public void testNonAscii() {
+        // e with acute accent, upper and lower case
+        assertEquals(new Username("d\u00c9bora"), new Username("d\u00e9bora"));
+        // Kelvin sign folds to ASCII k, as equalsIgnoreCase() says
+        assertTrue(new Username("\u212aate").matches("kate"));
+        assertEquals(new Username("kATE").hashCode(), new Username("\u212aate").hashCode());
+        assertEquals("\u212aate".equalsIgnoreCase("KATE"), new Username("\u212aate").matches("KATE"));
+        assertFalse(new Username("d\u00e9bora").matches("debora"));
+    }
+
+    @Test
+    public void testHashKey() {
+        Map<Username, Integer> ids = new HashMap<>();
+        ids.put(new Username("Alyssa"), 1);
+        ids.put(new Username("ALYSSA"), 2);
+        ids.put(new Username("bbitdiddle"), 3);
+        assertEquals(2, ids.size());
+        assertEquals(Integer.valueOf(2), ids.get(new Username("alyssa")));
+    }
+
+    @Test
+    public void testSpellingKept() {
+        Username user = new Username("AlYsSa");
+        assertEquals("AlYsSa", user.getName());
+        assertEquals("AlYsSa", user.toString());
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,101 @@
+package twitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WordIndexTest {
+
+    /*
+     * Testing strategy:
+     * Partitioning based on quantity of tweets:
+     *  1. No tweets
+     *  2. A few hand-written tweets
+     *  3. Many tweets
+     * Partitioning based on query words:
+     *  1. No words, or words in no tweet
+     *  2. One word
+     *  3. Several words, some in the same tweet, some repeated or in other cases
+     * Partitioning based on tweet text:
+     *  1. Word repeated within a tweet
+     *  2. Leading, trailing and runs of whitespace
+     *  3. Word as part of a longer word
+     * Also: the words list is not modified, tweets appended after queries are found,
+     * and results equal Filter.containing.
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", " rivest talk  in\t30 minutes #hype ", d1);
+    private static final Tweet tweet3 = new Tweet(3, "alyssa", "Talk talk TALK", d1);
+    private static final Tweet tweet4 = new Tweet(4, "bbitdiddle", "talking about nothing", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        WordIndex index = new WordIndex();
+        assertEquals(0, index.size());
+        assertTrue(index.containing(Arrays.asList("talk")).isEmpty());
+    }
+
+    @Test
+    public void testNoMatches() {
+        WordIndex index = new WordIndex(Arrays.asList(tweet1, tweet2));
+        assertTrue(index.containing(new ArrayList<>()).isEmpty());
+        assertTrue(index.containing(Arrays.asList("rives", "mit")).isEmpty());
+    }
+
+    @Test
+    public void testOneWordRepeatedInTweet() {
+        WordIndex index = new WordIndex(Arrays.asList(tweet1, tweet2, tweet3, tweet4));
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet3), index.containing(Arrays.asList("TALK")));
+    }
+
+    @Test
+    public void testSeveralWordsInputOrder() {
+        WordIndex index = new WordIndex(Arrays.asList(tweet3, tweet2, tweet1, tweet4));
+        List<String> words = Arrays.asList("#hype", "nothing", "Rivest", "rivest", "30");
+        assertEquals(Arrays.asList(tweet2, tweet1, tweet4), index.containing(words));
+        assertEquals(Arrays.asList("#hype", "nothing", "Rivest", "rivest", "30"), words);
+    }
+
+    @Test
+    public void testAppendAfterQuery() {
+        WordIndex index = new WordIndex(Arrays.asList(tweet1));
+        assertEquals(Arrays.asList(tweet1), index.containing(Arrays.asList("talk", "minutes")));
+        index.add(tweet2);
+        assertEquals(Arrays.asList(tweet1, tweet2), index.containing(Arrays.asList("talk", "minutes")));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testManyTweetsAgainstFilter() {
+        List<Tweet> tweets = SyntheticTweets.make(20_000, 300, 6005);
+        WordIndex index = new WordIndex(tweets);
+        Random random = new Random(6005);
+        String[] vocabulary = { "rivest", "HYPE", "#6005", "user_1@mit.edu", "@user_0", "nope", "Talk", "is" };
+        for (int query = 0; query < 50; query++) {
+            List<String> words = new ArrayList<>();
+            for (int i = random.nextInt(4); i > 0; i--)
+                words.add(vocabulary[random.nextInt(vocabulary.length)]);
+            assertEquals(Filter.containing(tweets, new ArrayList<>(words)), index.containing(words));
+        }
+    }
+
+    /* Copyright (c) 2007-2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,22 @@
+package library;
+
+/**
+ * An Auditable object can check its whole rep invariant on demand, however long that takes.
+ * Its ordinary operations only check the parts of the invariant they can affect, in constant
+ * time; an audit is the full check, for running now and then, e.g. by a LibraryAuditor.
+ */
+public interface Auditable {
+
+    /**
+     * Check the whole rep invariant. Requires holding this object's lock, unless the object is
+     * threadsafe.
+     * @throws AssertionError if the rep invariant does not hold, whether or not assertions
+     *         are enabled
+     */
+    public void audit();
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -1,6 +1,9 @@
 package library;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,86 +15,224 @@ import java.util.Set;
  * In particular, every operation needs to run faster than linear time (as a function of the number of books
  * in the library).
  */
-public class BigLibrary implements Library {
+public class BigLibrary implements Library, Auditable {
 
     // rep
-    private final Set<BookCopy> inLibrary;
-    private final Set<BookCopy> checkedOut;
+    private final Map<BookCopy, CopyState> states;
     private final Map<Book, Set<BookCopy>> bookCopies;
-    private final Map<String, List<Book>> titleBooksMap;
-    private final Map<String, List<Book>> authorBooksMap;
+    private final BookIndex index;
+    private final SearchIndex search;
     
     // Rep invariant
-    // the intersection of inLibrary and checkedOut is the empty set
+    //   bookCopies maps each book to the nonempty set of its copies that are keys of states
+    //   index holds exactly the copies in bookCopies
+    //   search holds exactly the editions in index
 
     // Abstraction function
-    // represents the collection of books in the library. If a copy is in
-    // inLibrary, it is available. And, if it is in checkedOut, it is not available
+    // represents the collection of books that are keys of states. If a copy maps to
+    // AVAILABLE, it is available. And, if it maps to CHECKED_OUT, it is not available.
+    // A copy has one state, so no copy is both.
 
-    // TODO: safety from rep exposure argument
+    // Safety from rep exposure argument:
+    //   All the fields are private and final. allCopies() and availableCopies() return
+    //   fresh sets and find() returns a fresh list, so no mutable part of the rep escapes.
+    //   Books and strings are immutable.
     
     public BigLibrary() {
-        throw new RuntimeException("not implemented yet");
+        states = new HashMap<>();
+        bookCopies = new HashMap<>();
+        index = new BookIndex();
+        search = new SearchIndex();
+        checkRep();
     }
     
-    // assert the rep invariant
+    // assert the rep invariant, in constant time, as far as it can be checked without
+    // looking at every copy
     private void checkRep() {
-        assert Collections.disjoint(inLibrary, checkedOut) == true;
+        assert index.size() == states.size();
+        assert index.editions() == bookCopies.size();
+        assert search.size() == bookCopies.size();
+    }
+
+    // assert the rep invariant for the book of a copy just changed, in constant time
+    private void checkRep(BookCopy copy) {
+        checkRep();
+        Set<BookCopy> copies = bookCopies.get(copy.getBook());
+        assert (copies == null ? 0 : copies.size()) == index.copyCount(copy.getBook());
+        assert states.containsKey(copy) == (copies != null && copies.contains(copy));
+    }
+
+    /**
+     * Check the whole rep invariant, in time linear in the size of the collection.
+     */
+    @Override
+    public void audit() {
+        int total = 0;
+        for (Map.Entry<Book, Set<BookCopy>> entry: bookCopies.entrySet()) {
+            Book book = entry.getKey();
+            Set<BookCopy> copies = entry.getValue();
+            LibraryAuditor.check(!copies.isEmpty(), "no copies of " + book);
+            LibraryAuditor.check(index.copyCount(book) == copies.size(), "index miscounts copies of " + book);
+            LibraryAuditor.check(search.contains(book), book + " not searchable");
+            for (BookCopy copy: copies) {
+                LibraryAuditor.check(copy.getBook().equals(book), copy + " filed under " + book);
+                LibraryAuditor.check(states.containsKey(copy), copy + " has no state");
+            }
+            total += copies.size();
+        }
+        LibraryAuditor.check(total == states.size(), "copies missing from bookCopies");
+        LibraryAuditor.check(index.editions() == bookCopies.size(), "index has editions without copies");
+        LibraryAuditor.check(search.size() == bookCopies.size(), "search has editions without copies");
     }
 
     @Override
     public BookCopy buy(Book book) {
-        throw new RuntimeException("not implemented yet");
+        BookCopy copy = new BookCopy(book);
+        states.put(copy, CopyState.AVAILABLE);
+        
+        Set<BookCopy> copies = bookCopies.get(book);
+        if (copies == null) {
+            copies = new HashSet<>();
+            bookCopies.put(book, copies);
+        }
+        copies.add(copy);
+        if (index.addCopy(book))
+            search.add(book);
+        
+        checkRep(copy);
+        return copy;
     }
     
     @Override
     public void checkout(BookCopy copy) {
-        throw new RuntimeException("not implemented yet");
+        states.replace(copy, CopyState.AVAILABLE, CopyState.CHECKED_OUT);
+        
+        checkRep(copy);
     }
     
     @Override
     public void checkin(BookCopy copy) {
-        throw new RuntimeException("not implemented yet");
+        states.replace(copy, CopyState.CHECKED_OUT, CopyState.AVAILABLE);
+        
+        checkRep(copy);
     }
     
     @Override
     public Set<BookCopy> allCopies(Book book) {
-        throw new RuntimeException("not implemented yet");
+        Set<BookCopy> copies = bookCopies.get(book);
+        if (copies == null)
+            return new HashSet<>();
+        return new HashSet<>(copies);
     }
 
     @Override
     public Set<BookCopy> availableCopies(Book book) {
-        throw new RuntimeException("not implemented yet");
+        Set<BookCopy> available = new HashSet<>();
+        Set<BookCopy> copies = bookCopies.get(book);
+        if (copies == null)
+            return available;
+        
+        for (BookCopy copy: copies) {
+            if (states.get(copy) == CopyState.AVAILABLE)
+                available.add(copy);
+        }
+        return available;
     }
     
     @Override
     public boolean isAvailable(BookCopy copy) {
-        throw new RuntimeException("not implemented yet");
+        return states.get(copy) == CopyState.AVAILABLE;
     }
     
     @Override
     public List<Book> find(String query) {
-        throw new RuntimeException("not implemented yet");
+        return index.find(query);
+    }
+    
+    @Override
+    public List<Book> search(String query, int limit) {
+        return search.search(query, limit);
+    }
+
+    @Override
+    public List<Book> fuzzySearch(String query, int limit) {
+        return search.fuzzySearch(query, limit);
     }
     
     @Override
     public void lose(BookCopy copy) {
-        throw new RuntimeException("not implemented yet");
+        if (states.remove(copy) == null)
+            return;
+        
+        Book book = copy.getBook();
+        Set<BookCopy> copies = bookCopies.get(book);
+        copies.remove(copy);
+        if (copies.isEmpty())
+            bookCopies.remove(book);
+        if (index.removeCopy(book))
+            search.remove(book);
+        checkRep(copy);
     }
 
-    // uncomment the following methods if you need to implement equals and hashCode,
-    // or delete them if you don't
-    // @Override
-    // public boolean equals(Object that) {
-    //     throw new RuntimeException("not implemented yet");
-    // }
-    // 
-    // @Override
-    // public int hashCode() {
-    //     throw new RuntimeException("not implemented yet");
-    // }
+    @Override
+    public List<BookCopy> buyCopies(Book book, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("cannot buy a negative number of copies: " + n);
+        List<BookCopy> bought = new ArrayList<>(n);
+        if (n == 0)
+            return bought;
 
+        Set<BookCopy> copies = bookCopies.get(book);
+        if (copies == null) {
+            copies = new HashSet<>();
+            bookCopies.put(book, copies);
+        }
+        for (int i = 0; i < n; i++) {
+            BookCopy copy = new BookCopy(book);
+            states.put(copy, CopyState.AVAILABLE);
+            copies.add(copy);
+            bought.add(copy);
+        }
+        if (index.addCopies(book, n))
+            search.add(book);
 
+        checkRep();
+        return bought;
+    }
+
+    @Override
+    public void checkoutAll(Collection<BookCopy> copies) {
+        for (BookCopy copy: copies)
+            states.replace(copy, CopyState.AVAILABLE, CopyState.CHECKED_OUT);
+
+        checkRep();
+    }
+
+    @Override
+    public void checkinAll(Collection<BookCopy> copies) {
+        for (BookCopy copy: copies)
+            states.replace(copy, CopyState.CHECKED_OUT, CopyState.AVAILABLE);
+
+        checkRep();
+    }
+
+    @Override
+    public void loseAll(Collection<BookCopy> copies) {
+        for (BookCopy copy: copies) {
+            if (states.remove(copy) == null)
+                continue;
+
+            Book book = copy.getBook();
+            Set<BookCopy> bookSet = bookCopies.get(book);
+            bookSet.remove(copy);
+            if (bookSet.isEmpty())
+                bookCopies.remove(book);
+            if (index.removeCopy(book))
+                search.remove(book);
+        }
+        checkRep();
+    }
+    
     /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
      * Redistribution of original or derived work requires explicit permission.
      * Don't post any of this code on the web or to a public Github repository.
@@ -14,16 +14,19 @@ public class Book implements Comparable<Book> {
     private final String title;
     private final List<String> authors;
     private final int year;
+    private final int hashCode;
     
     // Rep invariant:
     //  title.trim.length > 0
     //  authors.size > 0, for author in authors, author.trim.length > 0
     //  year > 0 
+    //  hashCode is the hash of title, authors and year, as computed by computeHashCode()
     // Abstraction function:
     //  represents an edition of a book with `title`, written by `authors` and published in `year`
     // Safety from rep exposure argument:
     //  All fields are private. authors is mutable, so defensive copies are made for authors list
-    //  while creating  and returning the list
+    //  while creating  and returning the list; authorCount() and author() return only its size
+    //  and its immutable strings
     
     /**
      * Make a Book.
@@ -36,6 +39,7 @@ public class Book implements Comparable<Book> {
         this.title = title;
         this.authors = new ArrayList<>(authors);
         this.year = year;
+        this.hashCode = computeHashCode();
         checkRep();
     }
     
@@ -61,6 +65,15 @@ public class Book implements Comparable<Book> {
         assert year >= 0;
     }
     
+    // Books are immutable and are hashed on every lookup of every library set and map,
+    // so the hash is computed once, here
+    private int computeHashCode() {
+        int hashCode = title.hashCode();
+        hashCode = 31 * hashCode + authors.hashCode();
+        hashCode = 31 * hashCode + year;
+        return hashCode;
+    }
+    
     /**
      * @return the title of this book
      */
@@ -75,6 +88,21 @@ public class Book implements Comparable<Book> {
         return new ArrayList<>(authors);
     }
 
+    /**
+     * @return the number of authors of this book, without copying them as getAuthors() does
+     */
+    int authorCount() {
+        return authors.size();
+    }
+
+    /**
+     * @param i index of an author, 0 <= i < authorCount()
+     * @return the i-th author of this book, without copying the authors as getAuthors() does
+     */
+    String author(int i) {
+        return authors.get(i);
+    }
+
     /**
      * @return the year that this book was published
      */
@@ -100,35 +128,33 @@ public class Book implements Comparable<Book> {
     
     @Override
     public boolean equals(Object that) {
+        if (this == that) return true;
         if (!(that instanceof Book)) return false;
         Book thatBook = (Book) that;
-        return this.getTitle() == thatBook.getTitle() &&
-               this.getAuthors().equals(thatBook.getAuthors()) &&
-               this.getYear() == thatBook.getYear();
+        return this.hashCode == thatBook.hashCode &&
+               this.year == thatBook.year &&
+               this.title.equals(thatBook.title) &&
+               this.authors.equals(thatBook.authors);
     }
     
     @Override
     public int hashCode() {
-         int hashCode = this.getTitle().hashCode();
-         for(String author: this.getAuthors())
-             hashCode += author.hashCode();
-         hashCode += getYear();
-         return hashCode;
+        return hashCode;
     }
     
     @Override
     public int compareTo(Book that) {
-        if (this.getTitle().equals(that.getTitle()) &&
-            this.getAuthors().equals(that.getAuthors())) {
-            if (this.getYear() < that.getYear())
+        if (this.title.equals(that.title) &&
+            this.authors.equals(that.authors)) {
+            if (this.year < that.year)
                 return 1;
-            else if (this.getYear() > that.getYear())
+            else if (this.year > that.year)
                 return -1;
             else return 0;
         }
         
         else
-            return this.getTitle().compareTo(that.getTitle());
+            return this.title.compareTo(that.title);
             
     }
 
@@ -0,0 +1,217 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * BookIndex is a mutable inverted index from exact titles and exact author names to the
+ * editions held by a library. It counts copies per edition, so a library reports every
+ * copy it buys and every copy it loses, and an edition stays searchable while at least
+ * one copy of it remains.
+ */
+class BookIndex {
+
+    /**
+     * Order in which find() returns books: a total order that agrees with Book.compareTo
+     * wherever Book.compareTo is nonzero, and breaks its ties by authors.
+     */
+    static final Comparator<Book> FIND_ORDER = new Comparator<Book>() {
+        @Override
+        public int compare(Book b1, Book b2) {
+            int byTitle = b1.getTitle().compareTo(b2.getTitle());
+            if (byTitle != 0) return byTitle;
+            int byAuthors = compareAuthors(b1, b2);
+            if (byAuthors != 0) return byAuthors;
+            // newer editions first
+            return Integer.compare(b2.getYear(), b1.getYear());
+        }
+    };
+
+    private final Map<Book, Integer> copyCounts;
+    private final Map<String, NavigableSet<Book>> titleBooksMap;
+    private final Map<String, NavigableSet<Book>> authorBooksMap;
+    private int size;
+
+    // Rep invariant:
+    //   every count in copyCounts is positive, and size is their sum
+    //   a book is in titleBooksMap.get(t) iff it is a key of copyCounts with title t
+    //   a book is in authorBooksMap.get(a) iff it is a key of copyCounts with a among its authors
+    //   no set in titleBooksMap or authorBooksMap is empty
+    // Abstraction function:
+    //   represents the multiset of editions copyCounts, searchable by title and by author
+    // Safety from rep exposure argument:
+    //   All fields are private and final, and find() returns a fresh list. Books and strings
+    //   are immutable.
+
+    /**
+     * Make an empty index.
+     */
+    BookIndex() {
+        copyCounts = new HashMap<>();
+        titleBooksMap = new HashMap<>();
+        authorBooksMap = new HashMap<>();
+    }
+
+    /**
+     * Record one more copy of book, making it searchable if it was not already.
+     * @param book the edition of the copy
+     * @return true if book was not in the index before this call
+     */
+    boolean addCopy(Book book) {
+        return addCopies(book, 1);
+    }
+
+    /**
+     * Record n more copies of book, making it searchable if it was not already.
+     * @param book the edition of the copies
+     * @param n number of copies, at least 1
+     * @return true if book was not in the index before this call
+     */
+    boolean addCopies(Book book, int n) {
+        assert n >= 1;
+        size += n;
+        Integer count = copyCounts.get(book);
+        if (count != null) {
+            copyCounts.put(book, count + n);
+            return false;
+        }
+        copyCounts.put(book, n);
+        post(titleBooksMap, book.getTitle(), book);
+        for (String author: new HashSet<>(book.getAuthors()))
+            post(authorBooksMap, author, book);
+        return true;
+    }
+
+    /**
+     * Record that one copy of book is gone, removing book from the index with its last copy.
+     * @param book the edition of the copy. Requires that a copy of book is in the index.
+     * @return true if that was the last copy of book
+     */
+    boolean removeCopy(Book book) {
+        int count = copyCounts.get(book);
+        size--;
+        if (count > 1) {
+            copyCounts.put(book, count - 1);
+            return false;
+        }
+        copyCounts.remove(book);
+        unpost(titleBooksMap, book.getTitle(), book);
+        for (String author: new HashSet<>(book.getAuthors()))
+            unpost(authorBooksMap, author, book);
+        return true;
+    }
+
+    /**
+     * @param book an edition
+     * @return number of copies of book in the index
+     */
+    int copyCount(Book book) {
+        Integer count = copyCounts.get(book);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return number of editions in the index
+     */
+    int editions() {
+        return copyCounts.size();
+    }
+
+    /**
+     * @return number of copies in the index, of all editions
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Find the editions whose title or one of whose authors is exactly query.
+     * @param query search string
+     * @return books matching query, each at most once, in FIND_ORDER. Takes time proportional
+     *         to the number of books returned, plus a logarithmic lookup.
+     */
+    List<Book> find(String query) {
+        NavigableSet<Book> byTitle = titleBooksMap.get(query);
+        NavigableSet<Book> byAuthor = authorBooksMap.get(query);
+        if (byTitle == null && byAuthor == null)
+            return new ArrayList<>();
+        if (byAuthor == null)
+            return new ArrayList<>(byTitle);
+        if (byTitle == null)
+            return new ArrayList<>(byAuthor);
+        return merge(byTitle, byAuthor);
+    }
+
+    /**
+     * Merge two sets sorted by FIND_ORDER, keeping books found in both only once.
+     */
+    static List<Book> merge(Set<Book> first, Set<Book> second) {
+        List<Book> merged = new ArrayList<>(first.size() + second.size());
+        Iterator<Book> i = first.iterator();
+        Iterator<Book> j = second.iterator();
+        Book a = i.hasNext() ? i.next() : null;
+        Book b = j.hasNext() ? j.next() : null;
+        while (a != null && b != null) {
+            int order = FIND_ORDER.compare(a, b);
+            if (order <= 0) {
+                merged.add(a);
+                a = i.hasNext() ? i.next() : null;
+                if (order == 0)
+                    b = j.hasNext() ? j.next() : null;
+            } else {
+                merged.add(b);
+                b = j.hasNext() ? j.next() : null;
+            }
+        }
+        for (; a != null; a = i.hasNext() ? i.next() : null)
+            merged.add(a);
+        for (; b != null; b = j.hasNext() ? j.next() : null)
+            merged.add(b);
+        return merged;
+    }
+
+    private static void post(Map<String, NavigableSet<Book>> index, String key, Book book) {
+        NavigableSet<Book> books = index.get(key);
+        if (books == null) {
+            books = new TreeSet<>(FIND_ORDER);
+            index.put(key, books);
+        }
+        books.add(book);
+    }
+
+    private static void unpost(Map<String, NavigableSet<Book>> index, String key, Book book) {
+        NavigableSet<Book> books = index.get(key);
+        books.remove(book);
+        if (books.isEmpty())
+            index.remove(key);
+    }
+
+    /**
+     * Compare author lists lexicographically, element by element and then by length.
+     */
+    private static int compareAuthors(Book b1, Book b2) {
+        // through the non-copying accessors, since this runs on every title tie of every
+        // insertion into and removal from a sorted set
+        int common = Math.min(b1.authorCount(), b2.authorCount());
+        for (int i = 0; i < common; i++) {
+            int order = b1.author(i).compareTo(b2.author(i));
+            if (order != 0) return order;
+        }
+        return Integer.compare(b1.authorCount(), b2.authorCount());
+    }
+
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+}
@@ -0,0 +1,89 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * BookPool is a thread-safe, mutable factory that canonicalizes Books: it hands out one shared
+ * instance per edition, and one shared instance per distinct title or author string.
+ * A catalog that makes all its books through one pool stores each title and author once,
+ * and its Book.equals() checks succeed on identity without comparing any strings.
+ */
+public class BookPool {
+
+    private final ConcurrentMap<Book, Book> books;
+    private final ConcurrentMap<String, String> names;
+
+    // Rep invariant:
+    //   for every entry (k, v) of books, k == v
+    //   for every entry (k, v) of names, k == v
+    //   the title and every author of every book in books is a value of names
+    // Abstraction function:
+    //   represents the set of canonical editions books.keySet() and the set of canonical
+    //   title and author strings names.keySet()
+    // Safety from rep exposure argument:
+    //   All fields are private and final and never returned. Books and strings are immutable.
+    // Thread safety argument:
+    //   Both maps are ConcurrentHashMaps, and canonical instances are only installed with
+    //   putIfAbsent, so racing threads agree on the instance that won.
+
+    /**
+     * Make an empty pool.
+     */
+    public BookPool() {
+        books = new ConcurrentHashMap<>();
+        names = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the canonical instance of an edition, making it if this pool has not seen it yet.
+     * @param title Title of the book, as required by Book's constructor
+     * @param authors Names of the authors of the book, as required by Book's constructor
+     * @param year Year when this edition was published, as required by Book's constructor
+     * @return the book with this title, authors and year. Every call with equal arguments
+     *         returns the same instance.
+     */
+    public Book get(String title, List<String> authors, int year) {
+        return intern(new Book(title, authors, year));
+    }
+
+    /**
+     * Get the canonical instance of an edition.
+     * @param book any book
+     * @return a book equal to book. Every call with equal books returns the same instance.
+     */
+    public Book intern(Book book) {
+        Book canonical = books.get(book);
+        if (canonical != null)
+            return canonical;
+
+        List<String> authors = new ArrayList<>();
+        for (String author: book.getAuthors())
+            authors.add(internName(author));
+        canonical = new Book(internName(book.getTitle()), authors, book.getYear());
+
+        Book winner = books.putIfAbsent(canonical, canonical);
+        return winner == null ? canonical : winner;
+    }
+
+    /**
+     * @return the number of distinct editions in this pool
+     */
+    public int size() {
+        return books.size();
+    }
+
+    private String internName(String name) {
+        String canonical = names.putIfAbsent(name, name);
+        return canonical == null ? name : canonical;
+    }
+
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+}
@@ -0,0 +1,106 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * ConcurrentBookIndex is a thread-safe inverted index from exact titles and exact author
+ * names to editions. Unlike BookIndex it does not count copies: the caller decides when an
+ * edition enters or leaves the index, and must not add and remove the same edition
+ * concurrently.
+ *
+ * Updates to different titles and authors never contend, and find() takes no lock.
+ */
+class ConcurrentBookIndex {
+
+    private final ConcurrentMap<String, NavigableSet<Book>> titleBooksMap;
+    private final ConcurrentMap<String, NavigableSet<Book>> authorBooksMap;
+
+    // Rep invariant:
+    //   no set in titleBooksMap or authorBooksMap is empty, once the update
+    //     that emptied it has returned
+    //   every set is ordered by BookIndex.FIND_ORDER
+    // Abstraction function:
+    //   represents the set of editions found in its postings, searchable by title and by author
+    // Safety from rep exposure argument:
+    //   All fields are private and final, and find() returns a fresh list. Books and strings
+    //   are immutable.
+    // Thread safety argument:
+    //   Postings are added and removed inside ConcurrentHashMap.compute, which is atomic per
+    //   key, so a posting set is never dropped while another thread adds to it. The sets are
+    //   ConcurrentSkipListSets, so find() may iterate them while they change.
+
+    /**
+     * Make an empty index.
+     */
+    ConcurrentBookIndex() {
+        titleBooksMap = new ConcurrentHashMap<>();
+        authorBooksMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Make book searchable by its title and authors.
+     * @param book edition to add
+     */
+    void add(Book book) {
+        post(titleBooksMap, book.getTitle(), book);
+        for (String author: new HashSet<>(book.getAuthors()))
+            post(authorBooksMap, author, book);
+    }
+
+    /**
+     * Stop returning book from find().
+     * @param book edition to remove
+     */
+    void remove(Book book) {
+        unpost(titleBooksMap, book.getTitle(), book);
+        for (String author: new HashSet<>(book.getAuthors()))
+            unpost(authorBooksMap, author, book);
+    }
+
+    /**
+     * Find the editions whose title or one of whose authors is exactly query.
+     * @param query search string
+     * @return books matching query, each at most once, in BookIndex.FIND_ORDER.
+     *         Editions added or removed during the call may or may not be included.
+     */
+    List<Book> find(String query) {
+        NavigableSet<Book> byTitle = titleBooksMap.get(query);
+        NavigableSet<Book> byAuthor = authorBooksMap.get(query);
+        if (byTitle == null && byAuthor == null)
+            return new ArrayList<>();
+        if (byAuthor == null)
+            return new ArrayList<>(byTitle);
+        if (byTitle == null)
+            return new ArrayList<>(byAuthor);
+        return BookIndex.merge(byTitle, byAuthor);
+    }
+
+    private static void post(ConcurrentMap<String, NavigableSet<Book>> index, String key, Book book) {
+        index.compute(key, (k, books) -> {
+            if (books == null)
+                books = new ConcurrentSkipListSet<>(BookIndex.FIND_ORDER);
+            books.add(book);
+            return books;
+        });
+    }
+
+    private static void unpost(ConcurrentMap<String, NavigableSet<Book>> index, String key, Book book) {
+        index.computeIfPresent(key, (k, books) -> {
+            books.remove(book);
+            return books.isEmpty() ? null : books;
+        });
+    }
+
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+}
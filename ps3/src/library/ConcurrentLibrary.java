@@ -0,0 +1,398 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ConcurrentLibrary is a thread-safe Library for collections shared by many circulation
+ * desks at once. The copies of each book sit on their own shelf with its own lock, so
+ * operations on different books never wait for each other.
+ *
+ * Every operation is atomic. In particular, checkout() and checkin() move a copy between
+ * available and checked out in one step with respect to isAvailable() and availableCopies().
+ * Checking out a copy that is not available, or checking in a copy that is not checked out,
+ * has no effect, so that two desks racing for the same copy cannot corrupt the library.
+ * The batch operations take each shelf's lock once, and are atomic for the copies of each
+ * book, but not across books.
+ */
+public class ConcurrentLibrary implements Library, Auditable {
+
+    // rep
+    private final ConcurrentMap<Book, Shelf> shelves;
+    private final ConcurrentBookIndex index;
+    private final SearchIndex search;
+    private final ReadWriteLock searchLock;
+    private final Queue<EditionChange> pending;
+
+    // Rep invariant:
+    //   every copy on a shelf is a copy of that shelf's book
+    //   a shelf in shelves is not retired and holds at least one copy, once the operation
+    //     that emptied it has returned
+    //   index holds exactly the keys of shelves, and so does search once the changes in
+    //     pending are applied to it in order
+    //
+    // Abstraction function:
+    //   represents the collection of books on all shelves, where if shelf.states maps a copy
+    //   to AVAILABLE then it is available, and if it maps the copy to CHECKED_OUT it is
+    //   checked out
+    //
+    // Safety from rep exposure argument:
+    //   All the fields are private and final, Shelf is a private class, and allCopies(),
+    //   availableCopies() and find() return fresh collections.
+    //
+    // Thread safety argument:
+    //   A shelf's states are only accessed while holding the shelf's lock. A shelf is retired,
+    //   while holding its lock, in the same step that removes its last copy; buy() retries
+    //   on a fresh shelf if it finds a retired one, so no copy is ever added to a shelf that
+    //   has left shelves. An edition enters and leaves index only while holding its shelf's
+    //   lock, so index updates for the same book are never concurrent. search is not
+    //   threadsafe, so it is only read while holding searchLock's read lock, and only updated
+    //   while holding its write lock. No shelf lock is held while taking searchLock: an
+    //   edition's changes are queued on pending, a lock-free queue, while holding its shelf's
+    //   lock, so they are queued in the order they happened; and they are applied in queue
+    //   order by whichever thread holds the write lock, which a writer only tries to take
+    //   after releasing its shelf, and search() takes before reading, so that it sees every
+    //   change queued by an operation that has returned.
+
+    /**
+     * The copies of one book, guarded by the shelf's own lock.
+     */
+    private static class Shelf {
+        private final Map<BookCopy, CopyState> states = new HashMap<>();
+        private boolean retired = false;
+
+        // assert the rep invariant in constant time, requires holding this shelf's lock
+        private void checkRep() {
+            assert !retired || states.isEmpty();
+        }
+    }
+
+    /**
+     * An edition entering or leaving the collection, to be applied to search.
+     */
+    private static class EditionChange {
+        private final Book book;
+        private final boolean added;
+
+        private EditionChange(Book book, boolean added) {
+            this.book = book;
+            this.added = added;
+        }
+    }
+
+    public ConcurrentLibrary() {
+        shelves = new ConcurrentHashMap<>();
+        index = new ConcurrentBookIndex();
+        search = new SearchIndex();
+        searchLock = new ReentrantReadWriteLock();
+        pending = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Check the whole rep invariant, in time linear in the size of the collection, locking
+     * one shelf at a time. A shelf that a buy() has just created may be empty.
+     */
+    @Override
+    public void audit() {
+        for (Map.Entry<Book, Shelf> entry: shelves.entrySet()) {
+            Book book = entry.getKey();
+            Shelf shelf = entry.getValue();
+            synchronized (shelf) {
+                if (shelf.retired) {
+                    LibraryAuditor.check(shelf.states.isEmpty(), "retired shelf of " + book + " has copies");
+                    continue;
+                }
+                for (BookCopy copy: shelf.states.keySet())
+                    LibraryAuditor.check(copy.getBook().equals(book), copy + " shelved under " + book);
+                if (!shelf.states.isEmpty())
+                    LibraryAuditor.check(index.find(book.getTitle()).contains(book), book + " not in index");
+            }
+        }
+    }
+
+    @Override
+    public BookCopy buy(Book book) {
+        BookCopy copy = new BookCopy(book);
+        while (true) {
+            Shelf shelf = shelves.computeIfAbsent(book, b -> new Shelf());
+            synchronized (shelf) {
+                if (shelf.retired)
+                    continue;
+                if (shelf.states.isEmpty())
+                    addEdition(book);
+                shelf.states.put(copy, CopyState.AVAILABLE);
+
+                shelf.checkRep();
+            }
+            tryPublish();
+            return copy;
+        }
+    }
+
+    @Override
+    public void checkout(BookCopy copy) {
+        Shelf shelf = shelves.get(copy.getBook());
+        if (shelf == null)
+            return;
+        synchronized (shelf) {
+            shelf.states.replace(copy, CopyState.AVAILABLE, CopyState.CHECKED_OUT);
+
+            shelf.checkRep();
+        }
+    }
+
+    @Override
+    public void checkin(BookCopy copy) {
+        Shelf shelf = shelves.get(copy.getBook());
+        if (shelf == null)
+            return;
+        synchronized (shelf) {
+            shelf.states.replace(copy, CopyState.CHECKED_OUT, CopyState.AVAILABLE);
+
+            shelf.checkRep();
+        }
+    }
+
+    @Override
+    public boolean isAvailable(BookCopy copy) {
+        if (copy == null)
+            return false;
+        Shelf shelf = shelves.get(copy.getBook());
+        if (shelf == null)
+            return false;
+        synchronized (shelf) {
+            return shelf.states.get(copy) == CopyState.AVAILABLE;
+        }
+    }
+
+    @Override
+    public Set<BookCopy> allCopies(Book book) {
+        Set<BookCopy> copies = new HashSet<>();
+        Shelf shelf = shelves.get(book);
+        if (shelf == null)
+            return copies;
+        synchronized (shelf) {
+            copies.addAll(shelf.states.keySet());
+        }
+        return copies;
+    }
+
+    @Override
+    public Set<BookCopy> availableCopies(Book book) {
+        Set<BookCopy> available = new HashSet<>();
+        Shelf shelf = shelves.get(book);
+        if (shelf == null)
+            return available;
+        synchronized (shelf) {
+            for (Map.Entry<BookCopy, CopyState> entry: shelf.states.entrySet())
+                if (entry.getValue() == CopyState.AVAILABLE)
+                    available.add(entry.getKey());
+        }
+        return available;
+    }
+
+    @Override
+    public List<Book> find(String query) {
+        return index.find(query);
+    }
+
+    @Override
+    public void lose(BookCopy copy) {
+        Book book = copy.getBook();
+        Shelf shelf = shelves.get(book);
+        if (shelf == null)
+            return;
+        synchronized (shelf) {
+            remove(shelf, book, copy);
+
+            shelf.checkRep();
+        }
+        tryPublish();
+    }
+
+    @Override
+    public List<Book> search(String query, int limit) {
+        publish();
+        searchLock.readLock().lock();
+        try {
+            return search.search(query, limit);
+        } finally {
+            searchLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Book> fuzzySearch(String query, int limit) {
+        publish();
+        searchLock.readLock().lock();
+        try {
+            return search.fuzzySearch(query, limit);
+        } finally {
+            searchLock.readLock().unlock();
+        }
+    }
+
+    // make a book findable, and queue it for search, requires holding its shelf's lock
+    private void addEdition(Book book) {
+        index.add(book);
+        pending.add(new EditionChange(book, true));
+    }
+
+    // stop a book from being found, and queue its removal from search, requires holding its
+    // shelf's lock
+    private void removeEdition(Book book) {
+        index.remove(book);
+        pending.add(new EditionChange(book, false));
+    }
+
+    // apply the pending changes to search, waiting for the write lock; requires holding no
+    // shelf's lock
+    private void publish() {
+        if (pending.isEmpty())
+            return;
+        searchLock.writeLock().lock();
+        try {
+            applyPending();
+        } finally {
+            searchLock.writeLock().unlock();
+        }
+    }
+
+    // apply the pending changes to search if no other thread holds searchLock, leaving them
+    // otherwise to the thread that does or to the next search(); requires holding no shelf's lock
+    private void tryPublish() {
+        if (pending.isEmpty() || !searchLock.writeLock().tryLock())
+            return;
+        try {
+            applyPending();
+        } finally {
+            searchLock.writeLock().unlock();
+        }
+    }
+
+    // requires holding searchLock's write lock
+    private void applyPending() {
+        for (EditionChange change = pending.poll(); change != null; change = pending.poll()) {
+            if (change.added)
+                search.add(change.book);
+            else
+                search.remove(change.book);
+        }
+    }
+
+    /**
+     * Remove a copy from its shelf, retiring the shelf with its last copy. Requires holding
+     * the shelf's lock.
+     */
+    private void remove(Shelf shelf, Book book, BookCopy copy) {
+        if (shelf.states.remove(copy) == null)
+            return;
+        if (shelf.states.isEmpty()) {
+            // leave the index before leaving shelves, so that a buy() waiting
+            // to start a fresh shelf re-adds the book only after this removal
+            shelf.retired = true;
+            removeEdition(book);
+            shelves.remove(book, shelf);
+        }
+    }
+
+    @Override
+    public List<BookCopy> buyCopies(Book book, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("cannot buy a negative number of copies: " + n);
+        List<BookCopy> bought = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            bought.add(new BookCopy(book));
+        if (n == 0)
+            return bought;
+        while (true) {
+            Shelf shelf = shelves.computeIfAbsent(book, b -> new Shelf());
+            synchronized (shelf) {
+                if (shelf.retired)
+                    continue;
+                if (shelf.states.isEmpty())
+                    addEdition(book);
+                for (BookCopy copy: bought)
+                    shelf.states.put(copy, CopyState.AVAILABLE);
+
+                shelf.checkRep();
+            }
+            tryPublish();
+            return bought;
+        }
+    }
+
+    @Override
+    public void checkoutAll(Collection<BookCopy> copies) {
+        for (Map.Entry<Book, List<BookCopy>> entry: byBook(copies).entrySet()) {
+            Shelf shelf = shelves.get(entry.getKey());
+            if (shelf == null)
+                continue;
+            synchronized (shelf) {
+                for (BookCopy copy: entry.getValue())
+                    shelf.states.replace(copy, CopyState.AVAILABLE, CopyState.CHECKED_OUT);
+
+                shelf.checkRep();
+            }
+        }
+    }
+
+    @Override
+    public void checkinAll(Collection<BookCopy> copies) {
+        for (Map.Entry<Book, List<BookCopy>> entry: byBook(copies).entrySet()) {
+            Shelf shelf = shelves.get(entry.getKey());
+            if (shelf == null)
+                continue;
+            synchronized (shelf) {
+                for (BookCopy copy: entry.getValue())
+                    shelf.states.replace(copy, CopyState.CHECKED_OUT, CopyState.AVAILABLE);
+
+                shelf.checkRep();
+            }
+        }
+    }
+
+    @Override
+    public void loseAll(Collection<BookCopy> copies) {
+        for (Map.Entry<Book, List<BookCopy>> entry: byBook(copies).entrySet()) {
+            Book book = entry.getKey();
+            Shelf shelf = shelves.get(book);
+            if (shelf == null)
+                continue;
+            synchronized (shelf) {
+                for (BookCopy copy: entry.getValue())
+                    remove(shelf, book, copy);
+
+                shelf.checkRep();
+            }
+        }
+        tryPublish();
+    }
+
+    /**
+     * Group copies by book, so that a batch takes each shelf's lock once.
+     * @return map from each book of copies to its copies, in iteration order
+     */
+    private static Map<Book, List<BookCopy>> byBook(Collection<BookCopy> copies) {
+        Map<Book, List<BookCopy>> groups = new HashMap<>();
+        for (BookCopy copy: copies)
+            groups.computeIfAbsent(copy.getBook(), b -> new ArrayList<>()).add(copy);
+        return groups;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
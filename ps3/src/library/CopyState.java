@@ -0,0 +1,14 @@
+package library;
+
+/**
+ * CopyState is where a copy in a library's collection is: on the shelves, or with a borrower.
+ * A library keeps one state per copy, so no copy can be both.
+ */
+enum CopyState {
+    AVAILABLE, CHECKED_OUT;
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
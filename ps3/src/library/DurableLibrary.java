@@ -0,0 +1,712 @@
+package library;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import library.BookCopy.Condition;
+
+/**
+ * DurableLibrary is a Library that survives restarts. It wraps an in-memory Library and records
+ * every change to the collection -- buy(), checkout(), checkin(), lose() and setCondition() --
+ * in a write-ahead log in a directory before the change returns. Opening the directory again
+ * replays the log into a fresh Library, recreating every copy with its availability and
+ * condition. The copies are new BookCopy objects, found through allCopies() and
+ * availableCopies().
+ *
+ * Changes from many threads are committed in groups, one FileChannel.force() per group, so
+ * the cost of forcing the log is shared between concurrent callers; a batch operation such
+ * as checkinAll() waits for the log only once. To keep recovery short, every
+ * snapshotInterval changes the whole collection is written to a snapshot file and the log
+ * starts over.
+ *
+ * This class is threadsafe, whether or not the wrapped Library is: every operation on it is
+ * made while holding this object's lock, and a change waits for the log outside the lock.
+ *
+ * If the files cannot be written, the operation that finds out throws UncheckedIOException
+ * and the library fails: the change it was making may or may not survive a restart, and
+ * every later operation except close() throws IllegalStateException. Opening the directory
+ * again recovers the collection as the files record it.
+ *
+ * Files in the directory:
+ *     snapshot         the collection as of the start of log generation g, with g
+ *     log-<g>          the changes made since that snapshot, as records of the WriteAheadLog
+ * Older generations of the log are deleted once a newer snapshot is in place.
+ */
+public class DurableLibrary implements Library, Auditable, Closeable {
+
+    /** Default number of changes between snapshots. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final String SNAPSHOT = "snapshot";
+    private static final String LOG_PREFIX = "log-";
+    private static final int SNAPSHOT_MAGIC = 0x4c494253; // "LIBS"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // record types
+    private static final byte BOOK = 1;
+    private static final byte BUY = 2;
+    private static final byte CHECKOUT = 3;
+    private static final byte CHECKIN = 4;
+    private static final byte LOSE = 5;
+    private static final byte CONDITION = 6;
+
+    private final Path directory;
+    private final Library library;
+    private final int snapshotInterval;
+    private final Map<Book, Integer> bookIds = new HashMap<>();
+    private final List<Book> books = new ArrayList<>();
+    private final Map<BookCopy, Integer> copyIds = new IdentityHashMap<>();
+    private final Map<Integer, BookCopy> copies = new HashMap<>();
+    private int nextCopyId = 0;
+    private long generation;
+    private WriteAheadLog log;
+    private long changesSinceSnapshot = 0;
+    private IOException failure = null;
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+
+    // Rep invariant:
+    //   copyIds and copies are inverse maps, and hold exactly the copies in library
+    //   every copy id is less than nextCopyId
+    //   bookIds and books are inverse: books.get(bookIds.get(b)) == b
+    //   if failure is null, the snapshot of generation generation, followed by the records
+    //     of log, recreates the state of library, copy ids and book ids; otherwise library
+    //     may hold a change that no file records, and log may be closed
+    //
+    // Abstraction function:
+    //   represents the collection of library, which is also recorded durably in directory,
+    //   or, if failure is not null, a library that can no longer be used
+    //
+    // Safety from rep exposure argument:
+    //   All fields are private. The wrapped library is only reachable through this object,
+    //   which returns what it returns: fresh collections, and copies that clients own.
+    //   Books are immutable.
+    //
+    // Thread safety argument:
+    //   All fields are accessed only while holding this object's lock, except that a change
+    //   waits for log.sync() after releasing it, and takes the lock again to set failure if
+    //   that fails; WriteAheadLog is threadsafe, and a log that a snapshot has replaced is
+    //   only synced, never appended to.
+
+    /**
+     * Open a durable library in a directory, recovering the collection recorded there, with
+     * a snapshot every DEFAULT_SNAPSHOT_INTERVAL changes.
+     * @param directory directory of the library's files; created if it does not exist
+     * @param library empty library to hold the collection, owned by the result from now on
+     * @return the library
+     * @throws IOException if the files cannot be read or written, or are corrupt
+     */
+    public static DurableLibrary open(Path directory, Library library) throws IOException {
+        return open(directory, library, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Open a durable library in a directory, recovering the collection recorded there.
+     * @param directory directory of the library's files; created if it does not exist
+     * @param library empty library to hold the collection, owned by the result from now on
+     * @param snapshotInterval number of changes between snapshots, at least 1
+     * @return the library
+     * @throws IOException if the files cannot be read or written, or are corrupt
+     */
+    public static DurableLibrary open(Path directory, Library library, int snapshotInterval) throws IOException {
+        if (snapshotInterval < 1)
+            throw new IllegalArgumentException("snapshot interval must be positive: " + snapshotInterval);
+        Files.createDirectories(directory);
+        DurableLibrary durable = new DurableLibrary(directory, library, snapshotInterval);
+        durable.recover();
+        return durable;
+    }
+
+    private DurableLibrary(Path directory, Library library, int snapshotInterval) {
+        this.directory = directory;
+        this.library = library;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // assert the rep invariant, in time linear in the number of copies
+    private void checkRep() {
+        assert copyIds.size() == copies.size();
+        for (Map.Entry<Integer, BookCopy> entry: copies.entrySet())
+            assert copyIds.get(entry.getValue()).equals(entry.getKey()) && entry.getKey() < nextCopyId;
+        assert bookIds.size() == books.size();
+    }
+
+    /**
+     * Check the whole rep invariant, and audit the wrapped library if it is Auditable, in time
+     * linear in the size of the collection.
+     */
+    @Override
+    public synchronized void audit() {
+        checkUsable();
+        LibraryAuditor.check(copyIds.size() == copies.size(), "copy ids are not one-to-one");
+        Map<Book, Set<BookCopy>> held = new HashMap<>();
+        for (Map.Entry<Integer, BookCopy> entry: copies.entrySet()) {
+            BookCopy copy = entry.getValue();
+            LibraryAuditor.check(entry.getKey().equals(copyIds.get(copy)), "copy ids are not inverse");
+            LibraryAuditor.check(entry.getKey() < nextCopyId, "copy id " + entry.getKey() + " not yet issued");
+            Set<BookCopy> copiesOfBook = held.computeIfAbsent(copy.getBook(), library::allCopies);
+            LibraryAuditor.check(copiesOfBook.contains(copy), "copy " + entry.getKey() + " not in the wrapped library");
+        }
+        LibraryAuditor.check(bookIds.size() == books.size(), "book ids are not one-to-one");
+        if (library instanceof Auditable)
+            ((Auditable) library).audit();
+    }
+
+    /**
+     * Load the snapshot, replay the log after it, and open the log for appending.
+     */
+    private void recover() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT);
+        generation = 0;
+        // recovered books share one instance per edition, title and author
+        BookPool pool = new BookPool();
+        if (Files.exists(snapshot))
+            readSnapshot(snapshot, pool);
+        for (byte[] bytes: WriteAheadLog.read(logPath(generation))) {
+            replay(new DataInputStream(new ByteArrayInputStream(bytes)), pool);
+            changesSinceSnapshot++;
+        }
+        deleteLogsBefore(generation);
+        log = new WriteAheadLog(logPath(generation));
+        checkRep();
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve(LOG_PREFIX + generation);
+    }
+
+    private void readSnapshot(Path snapshot, BookPool pool) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+                throw new IOException("not a library snapshot: " + snapshot);
+            generation = in.readLong();
+            int bookCount = in.readInt();
+            for (int i = 0; i < bookCount; i++)
+                defineBook(readBook(in, pool));
+            nextCopyId = in.readInt();
+            int copyCount = in.readInt();
+            for (int i = 0; i < copyCount; i++) {
+                int id = in.readInt();
+                Book book = books.get(in.readInt());
+                Condition condition = Condition.values()[in.readByte()];
+                boolean checkedOut = in.readBoolean();
+                BookCopy copy = library.buy(book);
+                copy.setCondition(condition);
+                if (checkedOut)
+                    library.checkout(copy);
+                copyIds.put(copy, id);
+                copies.put(id, copy);
+            }
+        }
+    }
+
+    /**
+     * Apply one record of the log.
+     */
+    private void replay(DataInputStream in, BookPool pool) throws IOException {
+        byte type = in.readByte();
+        if (type == BOOK) {
+            defineBook(readBook(in, pool));
+            return;
+        }
+        if (type == BUY) {
+            BookCopy copy = library.buy(books.get(in.readInt()));
+            int id = nextCopyId++;
+            copyIds.put(copy, id);
+            copies.put(id, copy);
+            return;
+        }
+        BookCopy copy = copies.get(in.readInt());
+        if (copy == null)
+            throw new IOException("log refers to an unknown copy");
+        switch (type) {
+        case CHECKOUT:
+            library.checkout(copy);
+            break;
+        case CHECKIN:
+            library.checkin(copy);
+            break;
+        case LOSE:
+            library.lose(copy);
+            copies.remove(copyIds.remove(copy));
+            break;
+        case CONDITION:
+            copy.setCondition(Condition.values()[in.readByte()]);
+            break;
+        default:
+            throw new IOException("unknown log record type " + type);
+        }
+    }
+
+    private int defineBook(Book book) {
+        int id = books.size();
+        books.add(book);
+        bookIds.put(book, id);
+        return id;
+    }
+
+    private static Book readBook(DataInputStream in, BookPool pool) throws IOException {
+        String title = in.readUTF();
+        int authorCount = in.readInt();
+        List<String> authors = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++)
+            authors.add(in.readUTF());
+        return pool.get(title, authors, in.readInt());
+    }
+
+    private static void writeBook(DataOutputStream out, Book book) throws IOException {
+        out.writeUTF(book.getTitle());
+        out.writeInt(book.getAuthors().size());
+        for (String author: book.getAuthors())
+            out.writeUTF(author);
+        out.writeInt(book.getYear());
+    }
+
+    /**
+     * Start a record of a change; requires holding this object's lock.
+     */
+    private DataOutputStream startRecord(byte type) throws IOException {
+        recordBytes.reset();
+        record.writeByte(type);
+        return record;
+    }
+
+    /**
+     * Append the record started by startRecord(); requires holding this object's lock.
+     * @return the log and sequence number to sync
+     */
+    private Commit endRecord() {
+        byte[] bytes = recordBytes.toByteArray();
+        long sequence = log.append(bytes, bytes.length);
+        changesSinceSnapshot++;
+        return new Commit(log, sequence);
+    }
+
+    /**
+     * A record to be made durable, in the log it was appended to.
+     */
+    private static class Commit {
+        private final WriteAheadLog log;
+        private final long sequence;
+
+        private Commit(WriteAheadLog log, long sequence) {
+            this.log = log;
+            this.sequence = sequence;
+        }
+
+        private void sync() throws IOException {
+            log.sync(sequence);
+        }
+    }
+
+    /**
+     * Wait for a change to become durable; must be called without holding this object's lock.
+     * @throws UncheckedIOException if the log cannot be written, failing this library
+     */
+    private void await(Commit commit) {
+        try {
+            commit.sync();
+        } catch (IOException e) {
+            synchronized (this) {
+                throw fail(e);
+            }
+        }
+    }
+
+    /**
+     * Reject an operation on a library that has failed; requires holding this object's lock.
+     * @throws IllegalStateException if an earlier operation failed to write the files
+     */
+    private void checkUsable() {
+        if (failure != null)
+            throw new IllegalStateException(this + " failed to write its files; reopen the directory", failure);
+    }
+
+    /**
+     * Fail this library, so that every later operation but close() is rejected; requires
+     * holding this object's lock.
+     * @param e the error writing the files
+     * @return e, unchecked, for the failing operation to throw
+     */
+    private UncheckedIOException fail(IOException e) {
+        if (failure == null)
+            failure = e;
+        return new UncheckedIOException(e);
+    }
+
+    /**
+     * Take a snapshot if enough changes have been logged since the last one; requires holding
+     * this object's lock.
+     */
+    private void maybeSnapshot() throws IOException {
+        if (changesSinceSnapshot >= snapshotInterval)
+            snapshotLocked();
+    }
+
+    /**
+     * Write the whole collection to a new snapshot and start a new, empty log generation.
+     * Changes made so far become durable, if they were not already.
+     * @throws UncheckedIOException if the files cannot be written; this library then fails
+     * @throws IllegalStateException if this library has failed
+     */
+    public synchronized void snapshot() {
+        checkUsable();
+        try {
+            snapshotLocked();
+        } catch (IOException e) {
+            throw fail(e);
+        }
+    }
+
+    private void snapshotLocked() throws IOException {
+        long next = generation + 1;
+        // only the books of copies still in the library, numbered densely
+        List<Book> liveBooks = new ArrayList<>();
+        Map<Book, Integer> liveBookIds = new HashMap<>();
+        for (BookCopy copy: copies.values()) {
+            if (!liveBookIds.containsKey(copy.getBook())) {
+                liveBookIds.put(copy.getBook(), liveBooks.size());
+                liveBooks.add(copy.getBook());
+            }
+        }
+
+        Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(next);
+            out.writeInt(liveBooks.size());
+            for (Book book: liveBooks)
+                writeBook(out, book);
+            out.writeInt(nextCopyId);
+            out.writeInt(copies.size());
+            for (Map.Entry<Integer, BookCopy> entry: copies.entrySet()) {
+                BookCopy copy = entry.getValue();
+                out.writeInt(entry.getKey());
+                out.writeInt(liveBookIds.get(copy.getBook()));
+                out.writeByte(copy.getCondition().ordinal());
+                out.writeBoolean(!library.isAvailable(copy));
+            }
+        }
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+
+        // the old log must be durable before the snapshot replaces it, so that the files
+        // never describe less than what has been acknowledged
+        log.close();
+        Files.move(temporary, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+
+        books.clear();
+        bookIds.clear();
+        for (Book book: liveBooks)
+            defineBook(book);
+        generation = next;
+        log = new WriteAheadLog(logPath(generation));
+        changesSinceSnapshot = 0;
+        deleteLogsBefore(generation);
+        checkRep();
+    }
+
+    private void deleteLogsBefore(long generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG_PREFIX + "*")) {
+            for (Path file: files) {
+                String suffix = file.getFileName().toString().substring(LOG_PREFIX.length());
+                try {
+                    if (Long.parseLong(suffix) < generation)
+                        Files.delete(file);
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+    }
+
+    private void forceDirectory() {
+        // makes the rename durable on file systems that support it
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // not supported on this platform; the rename is durable when the OS flushes it
+        }
+    }
+
+    @Override
+    public BookCopy buy(Book book) {
+        BookCopy copy;
+        Commit commit;
+        synchronized (this) {
+            checkUsable();
+            try {
+                copy = library.buy(book);
+                commit = logBuy(bookId(book), copy);
+                maybeSnapshot();
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        }
+        await(commit);
+        return copy;
+    }
+
+    @Override
+    public List<BookCopy> buyCopies(Book book, int n) {
+        List<BookCopy> bought;
+        Commit commit = null;
+        synchronized (this) {
+            checkUsable();
+            try {
+                bought = library.buyCopies(book, n);
+                if (!bought.isEmpty()) {
+                    int bookId = bookId(book);
+                    for (BookCopy copy: bought)
+                        commit = logBuy(bookId, copy);
+                    maybeSnapshot();
+                }
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        }
+        if (commit != null)
+            await(commit);
+        return bought;
+    }
+
+    /**
+     * @return the id of a book, defining it in the log if it has none; requires holding this
+     *         object's lock
+     */
+    private int bookId(Book book) throws IOException {
+        Integer bookId = bookIds.get(book);
+        if (bookId == null) {
+            bookId = defineBook(book);
+            writeBook(startRecord(BOOK), book);
+            endRecord();
+        }
+        return bookId;
+    }
+
+    /**
+     * Give a copy just bought the next copy id and log its purchase; requires holding this
+     * object's lock.
+     */
+    private Commit logBuy(int bookId, BookCopy copy) throws IOException {
+        startRecord(BUY).writeInt(bookId);
+        Commit commit = endRecord();
+        int id = nextCopyId++;
+        copyIds.put(copy, id);
+        copies.put(id, copy);
+        return commit;
+    }
+
+    @Override
+    public void checkout(BookCopy copy) {
+        change(CHECKOUT, copy, -1);
+    }
+
+    @Override
+    public void checkin(BookCopy copy) {
+        change(CHECKIN, copy, -1);
+    }
+
+    @Override
+    public void lose(BookCopy copy) {
+        change(LOSE, copy, -1);
+    }
+
+    @Override
+    public void checkoutAll(Collection<BookCopy> copies) {
+        changeAll(CHECKOUT, copies);
+    }
+
+    @Override
+    public void checkinAll(Collection<BookCopy> copies) {
+        changeAll(CHECKIN, copies);
+    }
+
+    @Override
+    public void loseAll(Collection<BookCopy> copies) {
+        changeAll(LOSE, copies);
+    }
+
+    /**
+     * Set the condition of a copy in this library, recording the change durably.
+     * @param copy copy to update.  Requires that the copy be in this library.
+     * @param condition the latest condition of the copy
+     */
+    public void setCondition(BookCopy copy, Condition condition) {
+        change(CONDITION, copy, condition.ordinal());
+    }
+
+    /**
+     * Make a change to a copy, logging it if the copy is in this library.
+     * @param argument condition ordinal for CONDITION, ignored otherwise
+     */
+    private void change(byte type, BookCopy copy, int argument) {
+        Commit commit;
+        synchronized (this) {
+            checkUsable();
+            try {
+                // apply the change first, so that a change the wrapped library rejects is
+                // never logged
+                switch (type) {
+                case CHECKOUT:
+                    library.checkout(copy);
+                    break;
+                case CHECKIN:
+                    library.checkin(copy);
+                    break;
+                case LOSE:
+                    library.lose(copy);
+                    break;
+                default:
+                    copy.setCondition(Condition.values()[argument]);
+                }
+                commit = logChange(type, copy, argument);
+                if (commit != null)
+                    maybeSnapshot();
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        }
+        if (commit != null)
+            await(commit);
+    }
+
+    /**
+     * Make a change to several copies with one batch operation of the wrapped library, logging
+     * it for the copies in this library, and waiting for the log once.
+     */
+    private void changeAll(byte type, Collection<BookCopy> batch) {
+        Commit commit = null;
+        synchronized (this) {
+            checkUsable();
+            try {
+                switch (type) {
+                case CHECKOUT:
+                    library.checkoutAll(batch);
+                    break;
+                case CHECKIN:
+                    library.checkinAll(batch);
+                    break;
+                default:
+                    library.loseAll(batch);
+                }
+                for (BookCopy copy: batch) {
+                    Commit logged = logChange(type, copy, -1);
+                    if (logged != null)
+                        commit = logged;
+                }
+                if (commit != null)
+                    maybeSnapshot();
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        }
+        if (commit != null)
+            await(commit);
+    }
+
+    /**
+     * Log a change already made to a copy; requires holding this object's lock.
+     * @param argument condition ordinal for CONDITION, ignored otherwise
+     * @return the record to sync, or null if the copy is not in this library
+     */
+    private Commit logChange(byte type, BookCopy copy, int argument) throws IOException {
+        Integer id = type == LOSE ? copyIds.remove(copy) : copyIds.get(copy);
+        if (id == null)
+            return null;
+        if (type == LOSE)
+            copies.remove(id);
+        DataOutputStream out = startRecord(type);
+        out.writeInt(id);
+        if (type == CONDITION)
+            out.writeByte(argument);
+        return endRecord();
+    }
+
+    @Override
+    public synchronized boolean isAvailable(BookCopy copy) {
+        checkUsable();
+        return library.isAvailable(copy);
+    }
+
+    @Override
+    public synchronized Set<BookCopy> allCopies(Book book) {
+        checkUsable();
+        return library.allCopies(book);
+    }
+
+    @Override
+    public synchronized Set<BookCopy> availableCopies(Book book) {
+        checkUsable();
+        return library.availableCopies(book);
+    }
+
+    @Override
+    public synchronized List<Book> find(String query) {
+        checkUsable();
+        return library.find(query);
+    }
+
+    @Override
+    public synchronized List<Book> search(String query, int limit) {
+        checkUsable();
+        return library.search(query, limit);
+    }
+
+    @Override
+    public synchronized List<Book> fuzzySearch(String query, int limit) {
+        checkUsable();
+        return library.fuzzySearch(query, limit);
+    }
+
+    /**
+     * @return number of times the log has been forced to disk since it last started over,
+     *         for measuring group commit
+     */
+    synchronized long forces() {
+        return log.forces();
+    }
+
+    /**
+     * Make every change durable and close the log, even if this library has failed. This
+     * library must not be used afterwards.
+     * @throws IOException if the log cannot be written or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        log.close();
+    }
+
+    @Override
+    public String toString() {
+        return "DurableLibrary[" + directory + "]";
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
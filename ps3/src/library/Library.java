@@ -1,5 +1,6 @@
 package library;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -65,6 +66,40 @@ public interface Library {
      */
     public List<Book> find(String query);
     
+    /**
+     * Search for books in this library's collection the way a user types, unlike find(): by the
+     * words of their titles and authors, ignoring case, accents and punctuation, where each word
+     * of the query may be just the beginning of a word of a book.
+     * @param query search string
+     * @param limit maximum number of books to return, at least 0
+     * @return list of at most limit books in this library's collection (both available and checked
+     * out), each of whose title and authors together have, for every word of query, a word that
+     * begins with it. A book appears at most once. Books are ranked by quality of match: first those
+     * whose whole title or one author's whole name is the query, then those having every word of
+     * the query as a whole word, then the rest; books that match equally well are ordered so that
+     * if book1.compareTo(book2) < 0 then book1 comes first. A query without words matches nothing.
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public List<Book> search(String query, int limit);
+
+    /**
+     * Search for books in this library's collection despite misspellings in the query. Like
+     * search(), titles and authors are matched word by word, ignoring case, accents and
+     * punctuation; but each word of the query need only be within a few edits -- insertions,
+     * deletions or substitutions of a character -- of a word of a book: none for a query word of
+     * at most 2 characters or without letters, 1 for a word of 3 to 5 characters, 2 for longer.
+     * @param query search string
+     * @param limit maximum number of books to return, at least 0
+     * @return list of at most limit books in this library's collection (both available and checked
+     * out), each of whose title and authors together have, for every word of query, a word close
+     * enough to it. A book appears at most once. Books are ranked by the total number of edits
+     * needed, summed over the distinct words of the query; books that match equally well are
+     * ordered so that if book1.compareTo(book2) < 0 then book1 comes first. A query without
+     * words matches nothing.
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public List<Book> fuzzySearch(String query, int limit);
+
     /**
      * Declare a copy of a book as lost from the library.  A copy can be declared lost if it is stolen
      * without being checked out, or if a borrower checks it out but never returns it. 
@@ -72,6 +107,35 @@ public interface Library {
      */
     public void lose(BookCopy copy);
 
+    /**
+     * Buy several new copies of a book and add them to the library's collection.
+     * @param book Book to buy
+     * @param n number of copies to buy, at least 0
+     * @return a list of n new, good-condition copies of the book, which are now available in this library
+     * @throws IllegalArgumentException if n is negative
+     */
+    public List<BookCopy> buyCopies(Book book, int n);
+
+    /**
+     * Check out several copies, as if by checkout() on each of them in turn.
+     * @param copies Copies to check out. Requires that each copy be available in this library,
+     *               and appear only once.
+     */
+    public void checkoutAll(Collection<BookCopy> copies);
+
+    /**
+     * Check in several copies, as if by checkin() on each of them in turn.
+     * @param copies Copies to check in. Requires that each copy be checked out of this library,
+     *               and appear only once.
+     */
+    public void checkinAll(Collection<BookCopy> copies);
+
+    /**
+     * Declare several copies lost, as if by lose() on each of them in turn.
+     * @param copies Copies to declare lost. Each must have been previously returned from buy()
+     *               or buyCopies() on this library.
+     */
+    public void loseAll(Collection<BookCopy> copies);
 
     /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
      * Redistribution of original or derived work requires explicit permission.
@@ -0,0 +1,119 @@
+package library;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LibraryAuditor audits a library's whole rep invariant on a background thread at a fixed
+ * interval, so that a long-running library can be checked thoroughly while its operations
+ * only make constant-time checks.
+ *
+ * Each audit holds the library's lock. Libraries that are not threadsafe, like SmallLibrary
+ * and BigLibrary, must therefore only be used while holding their lock once an auditor is
+ * watching them.
+ *
+ * The first audit that fails stops the auditor, and its error is kept for failure().
+ */
+public class LibraryAuditor implements Closeable {
+
+    private final Auditable library;
+    private final ScheduledExecutorService executor;
+    private long audits = 0;
+    private Throwable failure = null;
+
+    // Rep invariant:
+    //   audits >= 0
+    //   if failure != null, no audit is scheduled
+    // Abstraction function:
+    //   represents a periodic audit of library, which has passed audits times, and failed
+    //   with failure if failure is not null
+    // Safety from rep exposure argument:
+    //   All fields are private, and the executor's thread is never exposed.
+    // Thread safety argument:
+    //   audits and failure are only accessed while holding this object's lock. library's
+    //   rep is only accessed by audit(), while holding library's lock.
+
+    /**
+     * Start auditing a library.
+     * @param library library to audit
+     * @param interval time between the end of one audit and the start of the next, positive
+     * @param unit unit of interval
+     */
+    public LibraryAuditor(Auditable library, long interval, TimeUnit unit) {
+        if (interval <= 0)
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        this.library = library;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-auditor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::auditOnce, interval, interval, unit);
+    }
+
+    /**
+     * Check an invariant in a full audit, whether or not assertions are enabled.
+     * @param condition part of a rep invariant
+     * @param message description of the violation
+     * @throws AssertionError if condition is false
+     */
+    static void check(boolean condition, String message) {
+        if (!condition)
+            throw new AssertionError(message);
+    }
+
+    private void auditOnce() {
+        try {
+            synchronized (library) {
+                library.audit();
+            }
+            synchronized (this) {
+                audits++;
+            }
+        } catch (RuntimeException | AssertionError e) {
+            synchronized (this) {
+                failure = e;
+            }
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return number of audits the library has passed so far
+     */
+    public synchronized long audits() {
+        return audits;
+    }
+
+    /**
+     * @return the error of the audit that failed, or null if none has
+     */
+    public synchronized Throwable failure() {
+        return failure;
+    }
+
+    /**
+     * Stop auditing, waiting for an audit in progress to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryAuditor[audits=" + audits() + ", failure=" + failure() + "]";
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,801 @@
+package library;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * SearchIndex is a mutable search engine over editions, for finding books the way a user types:
+ * by the words of their titles and authors, ignoring case, accents and punctuation, where each
+ * word of a query may be just the beginning of a word of the book.
+ *
+ * Matches are ranked by quality, and equally good matches by BookIndex.FIND_ORDER, which agrees
+ * with Book.compareTo:
+ *     PHRASE    the whole title or an author's whole name is the query
+ *     WORDS     every word of the query is a word of the book
+ *     PREFIXES  every word of the query begins a word of the book
+ *
+ * Words are kept in a sorted dictionary, each with its editions in FIND_ORDER, so the editions
+ * with a word beginning with a prefix are a merge of the postings of one range of the dictionary.
+ * search() reads each quality's matches in order and stops at the limit, so it never ranks every
+ * match. A one- or two-character prefix may begin a great many words, so for those the index
+ * also keeps the first editions in order, and merges the range only if a query needs more. A
+ * query of several words reads the range that is cheapest to merge, counting its words as well
+ * as its postings, and only checks the other query words against what it reads.
+ *
+ * fuzzySearch() forgives misspellings instead: each word of a query may be a few edits away
+ * from a word of the book. Words are indexed by their character n-grams, and a word within a
+ * few edits of a query word shares most of its n-grams, so only the words sharing the query
+ * word's rarest n-grams have their edit distance computed, never the whole dictionary.
+ */
+class SearchIndex {
+
+    /** Longest prefix whose first editions are kept. */
+    static final int SHORT_PREFIX = 2;
+    /** Number of first editions kept for each short prefix. */
+    static final int HEAD_SIZE = 256;
+    /**
+     * Cost of merging the postings of one more word, in postings read. Each word of a prefix's
+     * range adds a cursor to set up and deepens the heap that every read goes through, while a
+     * query usually reads only the part of its range's postings it needs to fill its limit.
+     */
+    static final int MERGE_COST = 64;
+    /** Length of the character n-grams by which words are indexed for fuzzySearch(). */
+    static final int GRAM = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Entry> ORDER = (a, b) -> BookIndex.FIND_ORDER.compare(a.book, b.book);
+
+    /**
+     * How well a book matches a query, best first.
+     */
+    private enum Match { PHRASE, WORDS, PREFIXES, NONE }
+
+    /**
+     * An edition in the index, with its normalized words and phrases.
+     */
+    private static final class Entry {
+        private final Book book;
+        // distinct words of the title and authors, sorted
+        private final String[] words;
+        // the title and each author, as words separated by single spaces, distinct
+        private final String[] phrases;
+        // the union of prefixBit() of the short prefixes of words
+        private final long prefixBits;
+
+        private Entry(Book book, String[] words, String[] phrases) {
+            this.book = book;
+            this.words = words;
+            this.phrases = phrases;
+            long bits = 0;
+            for (String prefix: shortPrefixes(words))
+                bits |= prefixBit(prefix);
+            this.prefixBits = bits;
+        }
+    }
+
+    /**
+     * The first editions, in ORDER, of those with a word beginning with a short prefix.
+     */
+    private static final class Heads {
+        private final NavigableSet<Entry> first = new TreeSet<>(ORDER);
+        private int total = 0;
+        private int words = 0;
+    }
+
+    private final Map<Book, Entry> entries = new HashMap<>();
+    private final NavigableMap<String, NavigableSet<Entry>> terms = new TreeMap<>();
+    private final Map<String, NavigableSet<Entry>> phrases = new HashMap<>();
+    private final Map<String, Heads> heads = new HashMap<>();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    // Rep invariant:
+    //   entries maps each edition in the index to its entry, whose words and phrases are
+    //     those of words() and phrases() of the book
+    //   an entry is in terms.get(w) iff w is one of its words, and in phrases.get(p) iff p is
+    //     one of its phrases; no set in terms or phrases is empty
+    //   for each prefix p of length 1 to SHORT_PREFIX, heads.get(p).total is the number of
+    //     entries with a word beginning with p, and heads.get(p).first is the first
+    //     first.size() of them in ORDER, at most HEAD_SIZE; heads.get(p).words is the number
+    //     of keys of terms beginning with p; heads has no Heads of total 0
+    //   grams maps each n-gram to the keys of terms that contain a letter and have that
+    //     n-gram among grams(), and has no empty sets
+    //   every set of entries is ordered by ORDER
+    // Abstraction function:
+    //   represents the set of editions that are keys of entries, searchable by the words of
+    //   their titles and authors
+    // Safety from rep exposure argument:
+    //   All fields are private and final, Entry, Heads and Candidate are private classes, and
+    //   search() and fuzzySearch() return fresh lists. Books and strings are immutable.
+
+    /**
+     * Make an empty index.
+     */
+    SearchIndex() {
+    }
+
+    // assert the rep invariant, in constant time, as far as it can be checked that way
+    private void checkRep() {
+        assert !entries.isEmpty() || (terms.isEmpty() && phrases.isEmpty() && heads.isEmpty() && grams.isEmpty());
+    }
+
+    /**
+     * Make an edition searchable; has no effect if it already is.
+     * @param book edition to add
+     */
+    void add(Book book) {
+        if (entries.containsKey(book))
+            return;
+        Entry entry = new Entry(book, canonical(words(book)), phrases(book));
+        entries.put(book, entry);
+        List<String> newWords = new ArrayList<>();
+        for (String word: entry.words) {
+            NavigableSet<Entry> postings = terms.get(word);
+            if (postings == null) {
+                postings = new TreeSet<>(ORDER);
+                terms.put(word, postings);
+                newWords.add(word);
+                if (fuzzy(word))
+                    for (String gram: grams(word))
+                        grams.computeIfAbsent(gram, g -> new HashSet<>()).add(word);
+            }
+            postings.add(entry);
+        }
+        for (String phrase: entry.phrases)
+            phrases.computeIfAbsent(phrase, p -> new TreeSet<>(ORDER)).add(entry);
+        for (String prefix: shortPrefixes(entry.words)) {
+            Heads head = heads.computeIfAbsent(prefix, p -> new Heads());
+            // the new entry belongs among the first, unless first is missing some entries and
+            // the new entry does not come before the last of first
+            boolean complete = head.first.size() == head.total;
+            if (complete || (!head.first.isEmpty() && ORDER.compare(entry, head.first.last()) < 0)) {
+                head.first.add(entry);
+                if (head.first.size() > HEAD_SIZE)
+                    head.first.pollLast();
+            }
+            head.total++;
+        }
+        for (String word: newWords)
+            for (String prefix: shortPrefixes(new String[] { word }))
+                heads.get(prefix).words++;
+        checkRep();
+    }
+
+    /**
+     * Stop returning an edition from search(); has no effect if it is not in the index.
+     * @param book edition to remove
+     */
+    void remove(Book book) {
+        Entry entry = entries.remove(book);
+        if (entry == null)
+            return;
+        for (String word: entry.words) {
+            if (!unpost(terms, word, entry))
+                continue;
+            for (String prefix: shortPrefixes(new String[] { word }))
+                heads.get(prefix).words--;
+            if (fuzzy(word))
+                for (String gram: grams(word))
+                    unpost(grams, gram, word);
+        }
+        for (String phrase: entry.phrases)
+            unpost(phrases, phrase, entry);
+        for (String prefix: shortPrefixes(entry.words)) {
+            Heads head = heads.get(prefix);
+            // removing from the first entries leaves them the first entries
+            head.first.remove(entry);
+            if (--head.total == 0)
+                heads.remove(prefix);
+            else if (head.first.size() < HEAD_SIZE / 2 && head.first.size() < head.total)
+                refill(prefix, head);
+        }
+        checkRep();
+    }
+
+    /**
+     * Extend the first entries of a short prefix to HEAD_SIZE, or to all of them.
+     */
+    private void refill(String prefix, Heads head) {
+        Iterator<Entry> more = new Merge(terms, prefix, head.first.isEmpty() ? null : head.first.last());
+        while (head.first.size() < HEAD_SIZE && more.hasNext())
+            head.first.add(more.next());
+    }
+
+    /**
+     * Remove a value from the set of a key, and the key if that leaves its set empty.
+     * @return true if the key was removed
+     */
+    private static <T> boolean unpost(Map<String, ? extends Set<T>> index, String key, T value) {
+        Set<T> set = index.get(key);
+        set.remove(value);
+        if (!set.isEmpty())
+            return false;
+        index.remove(key);
+        return true;
+    }
+
+    /**
+     * @return number of editions in the index
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param book edition to look for
+     * @return true iff book is in the index
+     */
+    boolean contains(Book book) {
+        return entries.containsKey(book);
+    }
+
+    /**
+     * Find the editions that best match a query.
+     * @param query search string; its words, normalized as by words(), must each begin a word
+     *              of a matching book's title or authors
+     * @param limit maximum number of books to return, at least 0
+     * @return up to limit matching books, best first: ranked by quality (PHRASE, then WORDS,
+     *         then PREFIXES), and equally good matches in BookIndex.FIND_ORDER. A query without
+     *         words matches nothing. Takes time proportional to limit plus the matches of
+     *         lower quality than the last one returned, for all but short, common prefixes.
+     * @throws IllegalArgumentException if limit is negative
+     */
+    List<Book> search(String query, int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("limit must be nonnegative: " + limit);
+        List<Book> results = new ArrayList<>();
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty() || limit == 0)
+            return results;
+        String phrase = String.join(" ", queryWords);
+        String[] tokens = new LinkedHashSet<>(queryWords).toArray(new String[0]);
+
+        NavigableSet<Entry> byPhrase = phrases.get(phrase);
+        if (byPhrase != null) {
+            for (Entry entry: byPhrase) {
+                results.add(entry.book);
+                if (results.size() == limit)
+                    return results;
+            }
+        }
+
+        // whole words, read from the postings of the rarest word
+        NavigableSet<Entry> rarest = null;
+        for (String token: tokens) {
+            NavigableSet<Entry> postings = terms.get(token);
+            if (postings == null) {
+                rarest = null;
+                break;
+            }
+            if (rarest == null || postings.size() < rarest.size())
+                rarest = postings;
+        }
+        if (rarest != null) {
+            for (Entry entry: rarest) {
+                if (match(entry, tokens, phrase) == Match.WORDS) {
+                    results.add(entry.book);
+                    if (results.size() == limit)
+                        return results;
+                }
+            }
+        }
+
+        // prefixes, read from the range of the word that is cheapest to merge, and checked
+        // against the other words, which a range of many words makes only a filter
+        String driver = null;
+        long cheapest = Long.MAX_VALUE;
+        for (String token: tokens) {
+            long cost = prefixCost(token, cheapest);
+            if (cost == 0)
+                return results;
+            if (cost < cheapest) {
+                cheapest = cost;
+                driver = token;
+            }
+        }
+        for (Iterator<Entry> candidates = withPrefix(driver); candidates.hasNext(); ) {
+            Entry entry = candidates.next();
+            if (match(entry, tokens, phrase) == Match.PREFIXES) {
+                results.add(entry.book);
+                if (results.size() == limit)
+                    return results;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return how well an entry matches the distinct words of a query, whose words joined by
+     *         spaces are phrase
+     */
+    private static Match match(Entry entry, String[] tokens, String phrase) {
+        // reject most entries without reading their words
+        for (String token: tokens)
+            if ((entry.prefixBits & prefixBit(token)) == 0)
+                return Match.NONE;
+        boolean exact = true;
+        for (String token: tokens) {
+            int found = Arrays.binarySearch(entry.words, token);
+            if (found >= 0)
+                continue;
+            int next = -found - 1;
+            if (next == entry.words.length || !entry.words[next].startsWith(token))
+                return Match.NONE;
+            exact = false;
+        }
+        if (!exact)
+            return Match.PREFIXES;
+        for (String entryPhrase: entry.phrases)
+            if (entryPhrase.equals(phrase))
+                return Match.PHRASE;
+        return Match.WORDS;
+    }
+
+    /**
+     * @return the cost of reading the entries with a word beginning with prefix: the number of
+     *         their postings, plus MERGE_COST for each word in the range, or some number at
+     *         least bound if that is at least bound; 0 iff no word begins with prefix
+     */
+    private long prefixCost(String prefix, long bound) {
+        if (prefix.length() <= SHORT_PREFIX) {
+            Heads head = heads.get(prefix);
+            return head == null ? 0 : head.total + (long) MERGE_COST * head.words;
+        }
+        long cost = 0;
+        for (Map.Entry<String, NavigableSet<Entry>> term: terms.tailMap(prefix, true).entrySet()) {
+            if (!term.getKey().startsWith(prefix) || cost >= bound)
+                break;
+            cost += term.getValue().size() + MERGE_COST;
+        }
+        return cost;
+    }
+
+    /**
+     * @return the entries with a word beginning with prefix, in ORDER
+     */
+    private Iterator<Entry> withPrefix(String prefix) {
+        if (prefix.length() > SHORT_PREFIX)
+            return new Merge(terms, prefix, null);
+        Heads head = heads.get(prefix);
+        if (head.first.size() == head.total)
+            return head.first.iterator();
+        Iterator<Entry> first = head.first.iterator();
+        Entry last = head.first.isEmpty() ? null : head.first.last();
+        return new Iterator<Entry>() {
+            private Iterator<Entry> rest = null;
+
+            @Override public boolean hasNext() {
+                if (first.hasNext())
+                    return true;
+                if (rest == null)
+                    rest = new Merge(terms, prefix, last);
+                return rest.hasNext();
+            }
+
+            @Override public Entry next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return first.hasNext() ? first.next() : rest.next();
+            }
+        };
+    }
+
+    /**
+     * Find the editions that best match a query that may be misspelled.
+     * @param query search string; each of its words, normalized as by words(), must be within
+     *              maxEdits() edits of a word of a matching book's title or authors
+     * @param limit maximum number of books to return, at least 0
+     * @return up to limit matching books, best first: ranked by the total edits needed, over the
+     *         distinct words of the query, and equal matches in BookIndex.FIND_ORDER. A query
+     *         without words matches nothing. Reads the books with a word close to the query word
+     *         whose close words have the fewest books, closest first, only until none left could
+     *         rank among the first limit; and computes edit distances only to the dictionary
+     *         words that share the rarest n-grams of each query word.
+     * @throws IllegalArgumentException if limit is negative
+     */
+    List<Book> fuzzySearch(String query, int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("limit must be nonnegative: " + limit);
+        List<Book> results = new ArrayList<>();
+        Set<String> tokens = new LinkedHashSet<>(words(query));
+        if (tokens.isEmpty() || limit == 0)
+            return results;
+
+        // for each distinct query word, the dictionary words close to it and their distances
+        List<Map<String, Integer>> matches = new ArrayList<>();
+        Map<String, Integer> driver = null;
+        long fewest = Long.MAX_VALUE;
+        for (String token: tokens) {
+            Map<String, Integer> close = closeWords(token);
+            if (close.isEmpty())
+                return results;
+            long count = 0;
+            for (String word: close.keySet())
+                count += terms.get(word).size();
+            if (count < fewest) {
+                fewest = count;
+                driver = close;
+            }
+            matches.add(close);
+        }
+
+        // every match has a word close to the driver, so read those books by that word's
+        // distance from the driver, and each distance's books in ORDER; keep the best limit,
+        // worst first, until no book left to read could beat the worst
+        List<List<NavigableSet<Entry>>> byDistance = new ArrayList<>();
+        for (Map.Entry<String, Integer> close: driver.entrySet()) {
+            while (byDistance.size() <= close.getValue())
+                byDistance.add(new ArrayList<>());
+            byDistance.get(close.getValue()).add(terms.get(close.getKey()));
+        }
+        int others = 0;
+        for (Map<String, Integer> close: matches)
+            if (close != driver)
+                others += Collections.min(close.values());
+        Comparator<Candidate> ranking = (a, b) -> a.edits != b.edits
+                ? Integer.compare(a.edits, b.edits)
+                : ORDER.compare(a.entry, b.entry);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(ranking.reversed());
+        for (int distance = 0; distance < byDistance.size(); distance++) {
+            int fewestEdits = distance + others;
+            for (Iterator<Entry> books = new Merge(byDistance.get(distance)); books.hasNext(); ) {
+                Entry entry = books.next();
+                if (best.size() == limit) {
+                    Candidate worst = best.peek();
+                    if (worst.edits < fewestEdits || (worst.edits == fewestEdits && ORDER.compare(worst.entry, entry) < 0))
+                        break;
+                }
+                if (fewestEdits(entry, driver) < distance)
+                    continue; // read already, at a smaller distance
+                int edits = edits(entry, matches);
+                if (edits < 0)
+                    continue;
+                best.add(new Candidate(entry, edits));
+                if (best.size() > limit)
+                    best.poll();
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        for (Candidate candidate: ranked)
+            results.add(candidate.entry.book);
+        return results;
+    }
+
+    /**
+     * A matching edition and the edits by which it matches.
+     */
+    private static final class Candidate {
+        private final Entry entry;
+        private final int edits;
+
+        private Candidate(Entry entry, int edits) {
+            this.entry = entry;
+            this.edits = edits;
+        }
+    }
+
+    /**
+     * @return the total, over matches, of the fewest edits to a word of entry in each; or -1 if
+     *         some match has no word of entry
+     */
+    private static int edits(Entry entry, List<Map<String, Integer>> matches) {
+        int total = 0;
+        for (Map<String, Integer> close: matches) {
+            int fewest = fewestEdits(entry, close);
+            if (fewest == Integer.MAX_VALUE)
+                return -1;
+            total += fewest;
+        }
+        return total;
+    }
+
+    /**
+     * @return the least distance in close of a word of entry, or Integer.MAX_VALUE if close has
+     *         no word of entry
+     */
+    private static int fewestEdits(Entry entry, Map<String, Integer> close) {
+        int fewest = Integer.MAX_VALUE;
+        for (String word: entry.words) {
+            Integer edits = close.get(word);
+            if (edits != null && edits < fewest)
+                fewest = edits;
+        }
+        return fewest;
+    }
+
+    /**
+     * @return the words of the dictionary within maxEdits(token) edits of token, each mapped to
+     *         its distance from token
+     */
+    private Map<String, Integer> closeWords(String token) {
+        Map<String, Integer> close = new HashMap<>();
+        int bound = maxEdits(token);
+        if (bound == 0) {
+            if (terms.containsKey(token))
+                close.put(token, 0);
+            return close;
+        }
+        List<String> tokenGrams = new ArrayList<>(grams(token));
+        Collection<String> candidates;
+        if (tokenGrams.size() > bound * GRAM) {
+            // an edit changes at most GRAM n-grams, so a close word shares all but bound * GRAM of
+            // the token's n-grams, and so at least one of any bound * GRAM + 1: probe the rarest
+            tokenGrams.sort(Comparator.comparingInt(gram -> grams.getOrDefault(gram, Collections.emptySet()).size()));
+            candidates = new HashSet<>();
+            for (String gram: tokenGrams.subList(0, bound * GRAM + 1))
+                candidates.addAll(grams.getOrDefault(gram, Collections.emptySet()));
+        } else {
+            // a token of repeated characters has too few n-grams to rule any word out
+            candidates = terms.keySet();
+        }
+        for (String word: candidates) {
+            if (!fuzzy(word))
+                continue;
+            int edits = distance(token, word, bound);
+            if (edits <= bound)
+                close.put(word, edits);
+        }
+        return close;
+    }
+
+    /**
+     * @return the most edits by which a word of a book may differ from a query word in
+     *         fuzzySearch(): none if the query word has no letters or at most 2 characters,
+     *         1 if it has at most 5, and 2 otherwise
+     */
+    static int maxEdits(String token) {
+        if (!fuzzy(token) || token.length() <= 2)
+            return 0;
+        return token.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * @return true if word has a letter, and so may be misspelled; numbers must match exactly
+     */
+    private static boolean fuzzy(String word) {
+        for (int i = 0; i < word.length(); i++)
+            if (Character.isLetter(word.charAt(i)))
+                return true;
+        return false;
+    }
+
+    /**
+     * @return the distinct n-grams of length GRAM of word, padded at both ends with GRAM - 1
+     *         characters that are not in any word
+     */
+    private static Set<String> grams(String word) {
+        StringBuilder padded = new StringBuilder();
+        for (int i = 1; i < GRAM; i++)
+            padded.append('$');
+        padded.append(word);
+        for (int i = 1; i < GRAM; i++)
+            padded.append('$');
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++)
+            grams.add(padded.substring(i, i + GRAM));
+        return grams;
+    }
+
+    /**
+     * Compute the edit distance between two strings, giving up once it exceeds a bound.
+     * @param a string
+     * @param b string
+     * @param bound largest distance of interest, at least 0
+     * @return the fewest insertions, deletions and substitutions of a character that turn a into
+     *         b, if that is at most bound; otherwise bound + 1
+     */
+    static int distance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound)
+            return bound + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++)
+            previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // distances never decrease down the table
+            if (rowMin > bound)
+                return bound + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+
+    /**
+     * An iterator over the entries with a word beginning with a prefix, or with one of some
+     * words, in ORDER, each once: a merge of the postings of those words.
+     */
+    private static final class Merge implements Iterator<Entry> {
+
+        /**
+         * The postings of one word, with the next entry it has to offer.
+         */
+        private static final class Cursor {
+            private final Iterator<Entry> postings;
+            private Entry head;
+
+            private Cursor(Iterator<Entry> postings) {
+                this.postings = postings;
+                this.head = postings.next();
+            }
+        }
+
+        private final PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> ORDER.compare(a.head, b.head));
+        private Entry previous = null;
+
+        /**
+         * @param after if not null, start after this entry
+         */
+        private Merge(NavigableMap<String, NavigableSet<Entry>> terms, String prefix, Entry after) {
+            for (Map.Entry<String, NavigableSet<Entry>> term: terms.tailMap(prefix, true).entrySet()) {
+                if (!term.getKey().startsWith(prefix))
+                    break;
+                NavigableSet<Entry> postings = after == null ? term.getValue() : term.getValue().tailSet(after, false);
+                if (!postings.isEmpty())
+                    queue.add(new Cursor(postings.iterator()));
+            }
+            skipRepeats();
+        }
+
+        /**
+         * @param postings sets of entries, each in ORDER
+         */
+        private Merge(Collection<NavigableSet<Entry>> postings) {
+            for (NavigableSet<Entry> set: postings)
+                queue.add(new Cursor(set.iterator()));
+            skipRepeats();
+        }
+
+        // drop heads equal to the entry returned last, which came from another word of it
+        private void skipRepeats() {
+            while (!queue.isEmpty() && queue.peek().head == previous)
+                advance(queue.poll());
+        }
+
+        private void advance(Cursor cursor) {
+            if (cursor.postings.hasNext()) {
+                cursor.head = cursor.postings.next();
+                queue.add(cursor);
+            }
+        }
+
+        @Override public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override public Entry next() {
+            if (queue.isEmpty())
+                throw new NoSuchElementException();
+            Cursor cursor = queue.poll();
+            previous = cursor.head;
+            advance(cursor);
+            skipRepeats();
+            return previous;
+        }
+    }
+
+    /**
+     * Normalize text for searching and split it into words: accents and other combining marks
+     * are removed, letters are lower-cased, and words are the maximal runs of letters and digits.
+     * @param text text to split
+     * @return the words of text, in order
+     */
+    static List<String> words(String text) {
+        String folded = fold(text);
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean inWord = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the distinct words of a book's title and authors, sorted
+     */
+    private static String[] words(Book book) {
+        Set<String> words = new TreeSet<>(words(book.getTitle()));
+        for (String author: book.getAuthors())
+            words.addAll(words(author));
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * @return the book's title and authors, each as its words separated by single spaces, distinct
+     */
+    private static String[] phrases(Book book) {
+        Set<String> phrases = new LinkedHashSet<>();
+        phrases.add(String.join(" ", words(book.getTitle())));
+        for (String author: book.getAuthors())
+            phrases.add(String.join(" ", words(author)));
+        phrases.remove("");
+        return phrases.toArray(new String[0]);
+    }
+
+    /**
+     * Replace words by the equal strings already in the dictionary, so that common words are
+     * stored once.
+     * @return words, mutated
+     */
+    private String[] canonical(String[] words) {
+        for (int i = 0; i < words.length; i++) {
+            String known = terms.ceilingKey(words[i]);
+            if (words[i].equals(known))
+                words[i] = known;
+        }
+        return words;
+    }
+
+    /**
+     * @return a bit of a long standing for the first SHORT_PREFIX characters of word, or all of
+     *         word if it is shorter, so that entries whose words begin with those characters
+     *         have it among their prefixBits
+     */
+    private static long prefixBit(String word) {
+        int length = Math.min(SHORT_PREFIX, word.length());
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+            hash = 31 * hash + word.charAt(i);
+        return 1L << ((hash * 0x9E3779B9) >>> 26);
+    }
+
+    /**
+     * @return the distinct prefixes of length 1 to SHORT_PREFIX of words
+     */
+    private static Set<String> shortPrefixes(String[] words) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String word: words)
+            for (int length = 1; length <= Math.min(SHORT_PREFIX, word.length()); length++)
+                prefixes.add(word.substring(0, length));
+        return prefixes;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -1,172 +1,200 @@
 package library;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.hamcrest.core.Is;
 
-/** 
+/**
  * SmallLibrary represents a small collection of books, like a single person's home collection.
  */
-public class SmallLibrary implements Library {
+public class SmallLibrary implements Library, Auditable {
 
     // rep
-    private final Set<BookCopy> inLibrary;
-    private final Set<BookCopy> checkedOut;
-    
+    private final Map<BookCopy, CopyState> states;
+    private final BookIndex index;
+    private final SearchIndex search;
+
     // rep invariant:
-    //    the intersection of inLibrary and checkedOut is the empty set
+    //    index holds exactly the copies that are keys of states
+    //    search holds exactly the editions in index
     //
     // abstraction function:
-    //    represents the collection of books inLibrary union checkedOut,
-    //      where if a book copy is in inLibrary then it is available,
-    //      and if a copy is in checkedOut then it is checked out
+    //    represents the collection of books that are keys of states,
+    //      where if a book copy maps to AVAILABLE then it is available,
+    //      and if it maps to CHECKED_OUT then it is checked out
+    //    (a copy has one state, so no copy is both available and checked out)
 
     // safety from rep exposure argument:
-    // Both the fields are final. And no method in the class returns a copy of the rep, so rep
-    // is not exposed
-    
+    // All three fields, states, index and search, are private and final. And no method in the
+    // class returns any of them, or a mutable part of them, so rep is not exposed
+
     public SmallLibrary() {
-        inLibrary = new HashSet<>();
-        checkedOut = new HashSet<>();
+        states = new HashMap<>();
+        index = new BookIndex();
+        search = new SearchIndex();
         checkRep();
     }
-    
-    // assert the rep invariant
+
+    // assert the rep invariant, in constant time, as far as it can be checked without
+    // looking at every copy
     private void checkRep() {
-        assert Collections.disjoint(inLibrary, checkedOut) == true;
+        assert index.size() == states.size();
+        assert search.size() == index.editions();
+    }
+
+    // assert the rep invariant for a copy just changed, in constant time
+    private void checkRep(BookCopy copy) {
+        checkRep();
+        assert !states.containsKey(copy) || index.copyCount(copy.getBook()) > 0;
+    }
+
+    /**
+     * Check the whole rep invariant, in time linear in the size of the collection.
+     */
+    @Override
+    public void audit() {
+        Map<Book, Integer> counts = new HashMap<>();
+        for (BookCopy copy: states.keySet())
+            counts.merge(copy.getBook(), 1, Integer::sum);
+        LibraryAuditor.check(counts.size() == index.editions(), "index has editions without copies");
+        for (Map.Entry<Book, Integer> entry: counts.entrySet()) {
+            LibraryAuditor.check(index.copyCount(entry.getKey()) == entry.getValue(),
+                    "index miscounts copies of " + entry.getKey());
+            LibraryAuditor.check(search.contains(entry.getKey()), entry.getKey() + " not searchable");
+        }
+        LibraryAuditor.check(index.size() == states.size(), "index miscounts copies");
+        LibraryAuditor.check(search.size() == counts.size(), "search has editions without copies");
     }
 
     @Override
     public BookCopy buy(Book book) {
         BookCopy copy = new BookCopy(book);
-        inLibrary.add(copy);
-            
-        checkRep();
+        states.put(copy, CopyState.AVAILABLE);
+        if (index.addCopy(book))
+            search.add(book);
+
+        checkRep(copy);
         return copy;
     }
-    
+
     @Override
     public void checkout(BookCopy copy) {
-        inLibrary.remove(copy);
-        checkedOut.add(copy);
-        
-        checkRep();
+        states.replace(copy, CopyState.AVAILABLE, CopyState.CHECKED_OUT);
+
+        checkRep(copy);
     }
-    
+
     @Override
     public void checkin(BookCopy copy) {
-        checkedOut.remove(copy);
-        inLibrary.add(copy);
-        
-        checkRep();
+        states.replace(copy, CopyState.CHECKED_OUT, CopyState.AVAILABLE);
+
+        checkRep(copy);
     }
-    
+
     @Override
     public boolean isAvailable(BookCopy copy) {
-        return inLibrary.contains(copy);
+        return states.get(copy) == CopyState.AVAILABLE;
     }
-    
+
     @Override
     public Set<BookCopy> allCopies(Book book) {
-        Set<BookCopy> copies = new HashSet<>();
-        addBookCopies(inLibrary, book, copies);
-        addBookCopies(checkedOut, book, copies);
-        return copies;
+        return bookCopies(book, null);
     }
-    
+
     /**
-     * Mutates copies by adding book copies present in a bookSet
-     * which are copies of book
-     * @param bookSet the set which contains the book copies
-     * @param book the book for which the copies are to be added
-     * @param copies the set of book copies to be mutated
+     * Find the copies of a book in a state.
+     * @param book the book for which the copies are to be found
+     * @param state the state of the copies to find, or null for copies in any state
+     * @return a fresh set of the copies of book in the collection that are in state
      */
-    private void addBookCopies(Set<BookCopy> bookSet, Book book, Set<BookCopy> copies) {
-        for (BookCopy copy: bookSet) {
-            if (copy.getBook().equals(book))
-                copies.add(copy);
+    private Set<BookCopy> bookCopies(Book book, CopyState state) {
+        Set<BookCopy> copies = new HashSet<>();
+        for (Map.Entry<BookCopy, CopyState> entry: states.entrySet()) {
+            if (entry.getKey().getBook().equals(book) && (state == null || entry.getValue() == state))
+                copies.add(entry.getKey());
         }
+        return copies;
     }
-    
-    
+
+
     @Override
     public Set<BookCopy> availableCopies(Book book) {
-        Set<BookCopy> copies = new HashSet<>();
-        addBookCopies(inLibrary, book, copies);
-        return copies;
+        return bookCopies(book, CopyState.AVAILABLE);
     }
 
     @Override
     public List<Book> find(String query) {
-        List<Book> matchingBooks = new ArrayList<>();
-        
-        findMatchingBooks(inLibrary, matchingBooks, query);
-        findMatchingBooks(checkedOut, matchingBooks, query);
-        
-        Collections.sort(matchingBooks);
-        
+        List<Book> matchingBooks = index.find(query);
+
+        checkRep();
         return matchingBooks;
     }
-    
-    /**
-     * Mutates matchingBooks with matches founded in the books present in
-     * the set of bookCopies
-     * @param bookSet the set of book copies
-     * @param matchingBooks the list of matching books
-     * @param query the search term
-     */
-    private void findMatchingBooks(Set<BookCopy> bookSet, List<Book> matchingBooks, String query) {
-        for(BookCopy copy: bookSet) {
-            Book book = copy.getBook();
-            // A book should appear at most once in a list
-            if(!matchingBooks.contains(book) &&
-               (isTitleMatching(book, query) ||
-                isAuthorMatching(book, query)) )
-                matchingBooks.add(book);
+
+    @Override
+    public List<Book> search(String query, int limit) {
+        return search.search(query, limit);
+    }
+
+    @Override
+    public List<Book> fuzzySearch(String query, int limit) {
+        return search.fuzzySearch(query, limit);
+    }
+
+    @Override
+    public void lose(BookCopy copy) {
+        if (states.remove(copy) != null && index.removeCopy(copy.getBook()))
+            search.remove(copy.getBook());
+        checkRep(copy);
+    }
+
+    @Override
+    public List<BookCopy> buyCopies(Book book, int n) {
+        if (n < 0)
+            throw new IllegalArgumentException("cannot buy a negative number of copies: " + n);
+        List<BookCopy> copies = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BookCopy copy = new BookCopy(book);
+            states.put(copy, CopyState.AVAILABLE);
+            copies.add(copy);
         }
-        
+        if (n > 0 && index.addCopies(book, n))
+            search.add(book);
+
         checkRep();
+        return copies;
     }
-    
-    
-    /**
-     * Returns whether the book's title is the same as the query(case-sensitive)
-     * @param book the book to query on
-     * @param query the search term
-     * @return true if the book's title matches query, false otherwise
-     */
-    private boolean isTitleMatching(Book book, String query) {
-        return book.getTitle().equals(query);
+
+    @Override
+    public void checkoutAll(Collection<BookCopy> copies) {
+        for (BookCopy copy: copies)
+            states.replace(copy, CopyState.AVAILABLE, CopyState.CHECKED_OUT);
+
+        checkRep();
     }
-    
-    /**
-     * Returns whether one of the book's authors' names is 
-     * the same as the query(case-sensitive)
-     * @param book the book to query on
-     * @param query the search term
-     * @return true if the one of the book's author's names matches query, 
-     * false otherwise
-     */
-    private boolean isAuthorMatching(Book book, String query) {
-        for (String author: book.getAuthors()) {
-            if (author.equals(query)) return true;
-        }
-        return false;
+
+    @Override
+    public void checkinAll(Collection<BookCopy> copies) {
+        for (BookCopy copy: copies)
+            states.replace(copy, CopyState.CHECKED_OUT, CopyState.AVAILABLE);
+
+        checkRep();
     }
-    
+
     @Override
-    public void lose(BookCopy copy) {
-        if (inLibrary.contains(copy))
-            inLibrary.remove(copy);
-        else 
-            checkedOut.contains(copy);
+    public void loseAll(Collection<BookCopy> copies) {
+        for (BookCopy copy: copies) {
+            if (states.remove(copy) != null && index.removeCopy(copy.getBook()))
+                search.remove(copy.getBook());
+        }
         checkRep();
     }
-    
+
 
     /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
      * Redistribution of original or derived work requires explicit permission.
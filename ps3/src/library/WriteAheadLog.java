@@ -0,0 +1,221 @@
+package library;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog is an append-only file of records with group commit: appending a record only
+ * buffers it, and sync() makes it durable. When many threads sync at once, one of them writes
+ * and forces everything buffered so far while the others wait for it, so a single
+ * FileChannel.force() commits a whole group of records.
+ *
+ * Each record is framed as its length, its CRC-32, and its bytes, so that a record torn by a
+ * crash is detected when the log is read back, and the log is cut off before it.
+ */
+class WriteAheadLog {
+
+    private static final int FRAME_BYTES = 8;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private final CRC32 crc = new CRC32();
+    private long appended = 0;
+    private long durable = 0;
+    private boolean flushing = false;
+    private long forces = 0;
+    private IOException failure = null;
+
+    // Rep invariant:
+    //   durable <= appended
+    //   pending holds, in flip-ready form, the frames of the records after the first
+    //     appended - (records in pending) records, in order
+    //   if !flushing, every record up to durable is in the file and forced
+    //
+    // Abstraction function:
+    //   represents the sequence of appended records, of which the first durable are on disk
+    //
+    // Safety from rep exposure argument:
+    //   All fields are private, appended records are copied into pending, and read()
+    //   returns fresh arrays.
+    //
+    // Thread safety argument:
+    //   All fields except writing and channel are guarded by this object's lock. writing
+    //   and the channel's position are only used by the one thread that set flushing, which
+    //   no other thread does until it is cleared.
+
+    /**
+     * Open a log for appending, creating it if it does not exist.
+     * @param path file of the log; it must end with a whole record, as after read()
+     * @throws IOException if the file cannot be opened
+     */
+    WriteAheadLog(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Read the records of a log, cutting off a torn or corrupt tail so that the log can be
+     * appended to.
+     * @param path file of the log; if it does not exist, it has no records
+     * @return the records in order
+     * @throws IOException if the file cannot be read or truncated
+     */
+    static List<byte[]> read(Path path) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        if (!path.toFile().exists())
+            return records;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+            long position = 0;
+            CRC32 crc = new CRC32();
+            while (position + FRAME_BYTES <= size) {
+                frame.clear();
+                readFully(in, frame, position);
+                frame.flip();
+                int length = frame.getInt();
+                int checksum = frame.getInt();
+                if (length < 0 || position + FRAME_BYTES + length > size)
+                    break;
+                ByteBuffer record = ByteBuffer.allocate(length);
+                readFully(in, record, position + FRAME_BYTES);
+                crc.reset();
+                crc.update(record.array(), 0, length);
+                if ((int) crc.getValue() != checksum)
+                    break;
+                records.add(record.array());
+                position += FRAME_BYTES + length;
+            }
+            if (position < size) {
+                in.truncate(position);
+                in.force(true);
+            }
+        }
+        return records;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position + buffer.position());
+            if (read < 0)
+                throw new IOException("unexpected end of log");
+        }
+    }
+
+    /**
+     * Buffer a record; it is not durable until sync() returns a number at least the one
+     * this returns.
+     * @param record bytes of the record, not modified by this method
+     * @param length number of bytes of record to append
+     * @return the number of records appended so far, including this one
+     */
+    synchronized long append(byte[] record, int length) {
+        if (pending.remaining() < FRAME_BYTES + length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * pending.capacity(), pending.position() + FRAME_BYTES + length));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        crc.reset();
+        crc.update(record, 0, length);
+        pending.putInt(length);
+        pending.putInt((int) crc.getValue());
+        pending.put(record, 0, length);
+        return ++appended;
+    }
+
+    /**
+     * Wait until the first sequence records are durable, writing and forcing them if no
+     * other thread is already doing so.
+     * @param sequence number returned by append()
+     * @throws IOException if the log cannot be written; the log is then unusable
+     */
+    void sync(long sequence) throws IOException {
+        long target;
+        synchronized (this) {
+            while (true) {
+                if (failure != null)
+                    throw new IOException("write-ahead log failed", failure);
+                if (durable >= sequence)
+                    return;
+                if (!flushing)
+                    break;
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted waiting for the write-ahead log", e);
+                }
+            }
+            // lead the next group: take everything appended so far
+            flushing = true;
+            target = appended;
+            ByteBuffer group = pending;
+            pending = writing;
+            pending.clear();
+            writing = group;
+        }
+
+        IOException error = null;
+        try {
+            writing.flip();
+            while (writing.hasRemaining())
+                channel.write(writing);
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        synchronized (this) {
+            flushing = false;
+            if (error == null) {
+                durable = target;
+                forces++;
+            } else {
+                failure = error;
+            }
+            notifyAll();
+        }
+        if (error != null)
+            throw error;
+    }
+
+    /**
+     * @return number of records appended so far
+     */
+    synchronized long appended() {
+        return appended;
+    }
+
+    /**
+     * @return number of times the log has been forced to disk, one per group commit
+     */
+    synchronized long forces() {
+        return forces;
+    }
+
+    /**
+     * Make every appended record durable and close the file.
+     * @throws IOException if the log cannot be written or closed
+     */
+    void close() throws IOException {
+        try {
+            sync(appended());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}
@@ -0,0 +1,138 @@
+package library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Test suite for BookIndex.
+ */
+public class BookIndexTest {
+
+    /*
+     * Testing strategy
+     * ==================
+     * addCopy():
+     *  first copy of an edition, further copies
+     * addCopies():
+     *  first copies of an edition, further copies; removed one at a time
+     * removeCopy():
+     *  one of several copies, last copy
+     * copyCount(), editions(), size():
+     *  empty index, after adds, after removing some and all copies of an edition
+     * find():
+     *  matches - none, title only, author only, both title and author
+     *  a book matching by both title and author appears once
+     *  same title and authors, different years - newer first
+     *  same title, different authors
+     */
+
+    private final Book old = new Book("Dune", Arrays.asList("Herbert"), 1965);
+    private final Book newer = new Book("Dune", Arrays.asList("Herbert"), 2005);
+    private final Book other = new Book("Dune", Arrays.asList("Anderson"), 1999);
+    private final Book byDune = new Book("Arrakis", Arrays.asList("Dune"), 2010);
+
+    @Test
+    public void testFindEmptyIndex() {
+        assertEquals(Collections.emptyList(), new BookIndex().find("Dune"));
+    }
+
+    @Test
+    public void testAddCopyFirstAndFurtherCopies() {
+        BookIndex index = new BookIndex();
+        assertTrue(index.addCopy(old));
+        assertFalse(index.addCopy(old));
+        assertEquals(Arrays.asList(old), index.find("Herbert"));
+    }
+
+    @Test
+    public void testAddCopiesCountsEachCopy() {
+        BookIndex index = new BookIndex();
+        assertTrue(index.addCopies(old, 2));
+        assertFalse(index.addCopies(old, 3));
+        assertFalse(index.addCopy(old));
+        for (int i = 0; i < 5; i++)
+            assertFalse(index.removeCopy(old));
+        assertTrue(index.removeCopy(old));
+        assertEquals(Collections.emptyList(), index.find("Dune"));
+    }
+
+    @Test
+    public void testCounts() {
+        BookIndex index = new BookIndex();
+        assertEquals(0, index.size());
+        assertEquals(0, index.editions());
+        assertEquals(0, index.copyCount(old));
+
+        index.addCopies(old, 3);
+        index.addCopy(newer);
+        assertEquals(4, index.size());
+        assertEquals(2, index.editions());
+        assertEquals(3, index.copyCount(old));
+
+        index.removeCopy(old);
+        index.removeCopy(newer);
+        assertEquals(2, index.size());
+        assertEquals(1, index.editions());
+        assertEquals(2, index.copyCount(old));
+        assertEquals(0, index.copyCount(newer));
+    }
+
+    @Test
+    public void testRemoveCopyKeepsBookUntilLastCopy() {
+        BookIndex index = new BookIndex();
+        index.addCopy(old);
+        index.addCopy(old);
+
+        assertFalse(index.removeCopy(old));
+        assertEquals(Arrays.asList(old), index.find("Dune"));
+        assertTrue(index.removeCopy(old));
+        assertEquals(Collections.emptyList(), index.find("Dune"));
+        assertEquals(Collections.emptyList(), index.find("Herbert"));
+    }
+
+    @Test
+    public void testFindNewerEditionFirst() {
+        BookIndex index = new BookIndex();
+        index.addCopy(old);
+        index.addCopy(newer);
+        assertEquals(Arrays.asList(newer, old), index.find("Dune"));
+        assertEquals(Arrays.asList(newer, old), index.find("Herbert"));
+    }
+
+    @Test
+    public void testFindTitleAndAuthorMatchesMerged() {
+        BookIndex index = new BookIndex();
+        index.addCopy(old);
+        index.addCopy(other);
+        index.addCopy(byDune);
+        index.addCopy(newer);
+
+        assertEquals(Arrays.asList(byDune, other, newer, old), index.find("Dune"));
+    }
+
+    @Test
+    public void testFindBookMatchingTitleAndAuthorOnce() {
+        Book selfTitled = new Book("Prince", Arrays.asList("Prince"), 1979);
+        BookIndex index = new BookIndex();
+        index.addCopy(selfTitled);
+        assertEquals(Arrays.asList(selfTitled), index.find("Prince"));
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+}
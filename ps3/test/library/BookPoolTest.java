@@ -0,0 +1,81 @@
+package library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test suite for BookPool.
+ */
+public class BookPoolTest {
+
+    /*
+     * Testing strategy
+     * ==================
+     * get():
+     *  edition new to the pool, edition already in the pool
+     *  equal titles and authors given as distinct String instances
+     * intern():
+     *  book made by get(), equal book made elsewhere, different editions
+     * size():
+     *  empty pool, after repeated and distinct editions
+     */
+
+    @Test
+    public void testEmptyPool() {
+        assertEquals(0, new BookPool().size());
+    }
+
+    @Test
+    public void testGetSameEditionSameInstance() {
+        BookPool pool = new BookPool();
+        Book book = pool.get("Dune", Arrays.asList("Herbert"), 1965);
+        Book again = pool.get(new String("Dune"), new ArrayList<>(Arrays.asList(new String("Herbert"))), 1965);
+
+        assertSame(book, again);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testInternEqualBookSameInstance() {
+        BookPool pool = new BookPool();
+        Book book = new Book("Dune", Arrays.asList("Herbert"), 1965);
+        Book canonical = pool.intern(book);
+
+        assertEquals(book, canonical);
+        assertSame(canonical, pool.intern(new Book(new String("Dune"), Arrays.asList("Herbert"), 1965)));
+        assertSame(canonical, pool.get("Dune", Arrays.asList("Herbert"), 1965));
+    }
+
+    @Test
+    public void testDifferentEditionsShareNames() {
+        BookPool pool = new BookPool();
+        Book first = pool.get(new String("Dune"), Arrays.asList(new String("Herbert")), 1965);
+        Book second = pool.get(new String("Dune"), Arrays.asList(new String("Herbert")), 2005);
+        List<String> firstAuthors = first.getAuthors();
+        List<String> secondAuthors = second.getAuthors();
+
+        assertNotSame(first, second);
+        assertEquals(2, pool.size());
+        assertSame(first.getTitle(), second.getTitle());
+        assertSame(firstAuthors.get(0), secondAuthors.get(0));
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+}
@@ -21,12 +21,14 @@ public class BookTest {
      *  create an object and observe
      * getAuthors():
      *  number of authors - 1, n
+     * authorCount(), author():
+     *  agree with getAuthors(); authors list mutated after construction
      * getYear():
      *  create an object and observe
      * toString():
      *  create an object and inspect the string representation 
      * equals():
-     *  title - case sensitive
+     *  title - case sensitive, equal but distinct String instances
      *  author - case sensitive
      *  reflexivity, symmetry and transitivity
      *  
@@ -107,6 +109,21 @@ public class BookTest {
         
     }
 
+    @Test
+    public void testAuthorCountAndAuthorMatchGetAuthors() {
+        List<String> authors = new ArrayList<>();
+        authors.add("joseph");
+        authors.add("JOSEPH");
+
+        Book book = new Book("My life", authors, 1900);
+        authors.add("Joseph");
+
+        assertEquals(2, book.authorCount());
+        assertEquals(book.getAuthors().size(), book.authorCount());
+        for (int i = 0; i < book.authorCount(); i++)
+            assertEquals(book.getAuthors().get(i), book.author(i));
+    }
+
     @Test
     public void testGetYear() {
         String bookTitle = "My life";
@@ -162,6 +179,18 @@ public class BookTest {
         assertTrue(book.hashCode() == yetAnotherBook.hashCode());
     }
     
+    @Test
+    public void testEqualsTitleNotSameInstance() {
+        List<String> authors = Arrays.asList("Jon", "Kevin", "Cody");
+        
+        Book book = new Book("Nothing fancy", authors, 2009);
+        Book anotherBook = new Book(new String("Nothing fancy"), new ArrayList<>(authors), 2009);
+        
+        assertTrue(book.equals(anotherBook));
+        assertTrue(anotherBook.equals(book));
+        assertTrue(book.hashCode() == anotherBook.hashCode());
+    }
+    
     @Test
     public void testEqualsDifferentBooks() {
         String bookTitle = "Nothing fancy";
@@ -0,0 +1,193 @@
+package library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Multi-threaded stress tests for ConcurrentLibrary.
+ * Tests of the single-threaded Library spec are in LibraryTest.java.
+ */
+public class ConcurrentLibraryTest {
+
+    /*
+     * Testing strategy
+     * ==================
+     *
+     * threads: 1, n
+     * copies contended by: one thread, many threads
+     * operations: checkout/checkin, buy/lose, search, concurrent readers
+     * observed: final state of every copy, and snapshots taken while writers run
+     */
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 10_000;
+
+    private final List<Book> books = Arrays.asList(
+            new Book("Dune", Arrays.asList("Herbert"), 1965),
+            new Book("Emma", Arrays.asList("Austen"), 1815),
+            new Book("Ulysses", Arrays.asList("Joyce"), 1922));
+
+    @Test
+    public void testCheckoutCheckinOwnCopiesSharedBooks() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<List<BookCopy>> owned = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<BookCopy> copies = new ArrayList<>();
+            for (Book book: books)
+                copies.add(library.buy(book));
+            owned.add(copies);
+        }
+
+        runConcurrently(t -> {
+            Random random = new Random(t);
+            List<BookCopy> copies = owned.get(t);
+            for (int i = 0; i < ROUNDS; i++) {
+                BookCopy copy = copies.get(random.nextInt(copies.size()));
+                library.checkout(copy);
+                assertTrue(!library.isAvailable(copy));
+                library.checkin(copy);
+                assertTrue(library.isAvailable(copy));
+            }
+        });
+
+        for (Book book: books) {
+            assertEquals(THREADS, library.allCopies(book).size());
+            assertEquals(THREADS, library.availableCopies(book).size());
+        }
+    }
+
+    @Test
+    public void testRacingCheckoutsOfSameCopies() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<BookCopy> copies = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            copies.add(library.buy(books.get(0)));
+
+        runConcurrently(t -> {
+            Random random = new Random(t);
+            for (int i = 0; i < ROUNDS; i++) {
+                BookCopy copy = copies.get(random.nextInt(copies.size()));
+                if (random.nextBoolean())
+                    library.checkout(copy);
+                else
+                    library.checkin(copy);
+
+                // a snapshot never shows a copy as both available and gone
+                Set<BookCopy> all = library.allCopies(books.get(0));
+                Set<BookCopy> available = library.availableCopies(books.get(0));
+                assertEquals(new HashSet<>(copies), all);
+                assertTrue(all.containsAll(available));
+            }
+        });
+
+        Set<BookCopy> available = library.availableCopies(books.get(0));
+        for (BookCopy copy: copies)
+            assertEquals(available.contains(copy), library.isAvailable(copy));
+    }
+
+    @Test
+    public void testBuyAndLoseSameBookKeepsIndexConsistent() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        Book book = books.get(1);
+
+        runConcurrently(t -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                BookCopy copy = library.buy(book);
+                assertTrue(library.find(book.getTitle()).contains(book));
+                assertEquals(Arrays.asList(book), library.search(book.getTitle(), 10));
+                library.lose(copy);
+            }
+        });
+
+        assertEquals(new HashSet<>(), library.allCopies(book));
+        assertEquals(new ArrayList<>(), library.find(book.getTitle()));
+        assertEquals(new ArrayList<>(), library.find(book.getAuthors().get(0)));
+        assertEquals(new ArrayList<>(), library.search(book.getTitle(), 10));
+    }
+
+    @Test
+    public void testSearchWhileBuyingAndLosingDifferentBooks() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        List<Book> editions = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++)
+            editions.add(new Book("Edition " + i, Arrays.asList("Author " + i), 2000));
+
+        runConcurrently(t -> {
+            Book own = editions.get(t);
+            Random random = new Random(t);
+            for (int i = 0; i < ROUNDS / 10; i++) {
+                List<BookCopy> copies = library.buyCopies(own, 1 + random.nextInt(3));
+                assertEquals(Arrays.asList(own), library.search("edition " + t, 10));
+                library.search("edition", THREADS);
+                library.loseAll(copies);
+                assertEquals(new ArrayList<>(), library.search("edition " + t, 10));
+            }
+            library.buy(own);
+        });
+
+        List<Book> expected = new ArrayList<>(editions);
+        expected.sort(BookIndex.FIND_ORDER);
+        assertEquals(expected, library.search("edition", THREADS));
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    /**
+     * A task run by one of the threads started by runConcurrently.
+     */
+    private interface Worker {
+        void run(int thread);
+    }
+
+    /**
+     * Run worker on THREADS threads started at the same moment, and rethrow the
+     * first failure of any of them.
+     */
+    private static void runConcurrently(Worker worker) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (Thread thread: threads)
+            thread.start();
+        start.countDown();
+        for (Thread thread: threads)
+            thread.join();
+
+        if (failure.get() instanceof AssertionError)
+            throw (AssertionError) failure.get();
+        if (failure.get() != null)
+            throw new RuntimeException(failure.get());
+    }
+
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+}
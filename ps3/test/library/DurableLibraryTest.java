@@ -0,0 +1,394 @@
+package library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import library.BookCopy.Condition;
+
+public class DurableLibraryTest {
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+    /*
+     * Testing strategy:
+     *
+     * Partitions:
+     *    changes: buy, checkout, checkin, lose, setCondition; of copies in the library and not
+     *    batches: buyCopies, checkoutAll, checkinAll, loseAll; one force per batch
+     *    recovery: empty directory, log only, snapshot only, snapshot and log, automatic
+     *      snapshots; a log with a torn last record; editions sharing a title and authors
+     *    wrapped library: SmallLibrary, BigLibrary, ConcurrentLibrary
+     *    threads: one, many committing at once
+     *    failures: a snapshot that cannot be written, before and after closing the old log,
+     *      called directly and from a change; operations after the failure, and reopening
+     *
+     * Each test reopens the directory into a fresh library and compares the recovered
+     * collection -- copies per book, availability and condition -- with the one before.
+     */
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Book BOOK_1 = new Book("Structure and Interpretation", Arrays.asList("Abelson", "Sussman"), 1985);
+    private static final Book BOOK_2 = new Book("Structure and Interpretation", Arrays.asList("Abelson", "Sussman"), 1996);
+    private static final Book BOOK_3 = new Book("Effective Java", Arrays.asList("Bloch"), 2008);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testEmptyDirectory() throws IOException {
+        Path directory = folder.getRoot().toPath().resolve("new");
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertTrue(library.allCopies(BOOK_1).isEmpty());
+            assertTrue(library.find("Bloch").isEmpty());
+        }
+        assertTrue(Files.isDirectory(directory));
+    }
+
+    @Test
+    public void testReplayLog() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            BookCopy a = library.buy(BOOK_1);
+            BookCopy b = library.buy(BOOK_1);
+            BookCopy c = library.buy(BOOK_2);
+            BookCopy d = library.buy(BOOK_3);
+            library.checkout(a);
+            library.checkout(c);
+            library.checkin(c);
+            library.setCondition(b, Condition.DAMAGED);
+            library.lose(d);
+            before = describe(library);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertEquals(before, describe(library));
+            assertEquals(Arrays.asList(BOOK_2, BOOK_1), library.find("Structure and Interpretation"));
+            assertTrue(library.find("Bloch").isEmpty());
+        }
+    }
+
+    @Test
+    public void testRecoveredEditionsShareStrings() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            library.buy(new Book(new String(BOOK_1.getTitle()), BOOK_1.getAuthors(), BOOK_1.getYear()));
+            library.buy(BOOK_2);
+            library.snapshot();
+            library.buy(new Book(new String(BOOK_1.getTitle()), BOOK_1.getAuthors(), 2001));
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            List<Book> editions = library.find(BOOK_1.getTitle());
+            assertEquals(3, editions.size());
+            // from the snapshot and from the log, through one pool
+            for (Book edition: editions) {
+                assertSame(editions.get(0).getTitle(), edition.getTitle());
+                assertSame(editions.get(0).getAuthors().get(0), edition.getAuthors().get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testSmallLibraryAndMoreChangesAfterRecovery() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableLibrary library = DurableLibrary.open(directory, new SmallLibrary())) {
+            library.checkout(library.buy(BOOK_1));
+            library.buy(BOOK_3);
+        }
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new SmallLibrary())) {
+            BookCopy out = library.allCopies(BOOK_1).iterator().next();
+            assertFalse(library.isAvailable(out));
+            library.checkin(out);
+            library.lose(library.allCopies(BOOK_3).iterator().next());
+            library.buy(BOOK_2);
+            before = describe(library);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new SmallLibrary())) {
+            assertEquals(before, describe(library));
+        }
+    }
+
+    @Test
+    public void testBatches() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new ConcurrentLibrary())) {
+            List<BookCopy> copies = new ArrayList<>(library.buyCopies(BOOK_1, 5));
+            copies.addAll(library.buyCopies(BOOK_3, 2));
+            long forces = library.forces();
+            library.checkoutAll(copies);
+            library.checkinAll(copies.subList(0, 3));
+            library.loseAll(Arrays.asList(copies.get(1), copies.get(6)));
+            assertEquals(forces + 3, library.forces());
+            before = describe(library);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new ConcurrentLibrary())) {
+            assertEquals(before, describe(library));
+        }
+    }
+
+    @Test
+    public void testCopyNotInLibraryNotLogged() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            BookCopy stranger = new BookCopy(BOOK_1);
+            assertFalse(library.isAvailable(stranger));
+            library.setCondition(stranger, Condition.DAMAGED);
+            assertEquals(Condition.DAMAGED, stranger.getCondition());
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertTrue(library.allCopies(BOOK_1).isEmpty());
+        }
+    }
+
+    @Test
+    public void testSnapshotThenLog() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            BookCopy a = library.buy(BOOK_1);
+            BookCopy b = library.buy(BOOK_3);
+            library.checkout(a);
+            library.setCondition(b, Condition.DAMAGED);
+            library.lose(library.buy(BOOK_2));
+            library.snapshot();
+            assertEquals(Arrays.asList("log-1", "snapshot"), files(directory));
+
+            // changes after the snapshot refer to copies and books from before it
+            library.checkin(a);
+            library.checkout(b);
+            library.buy(BOOK_3);
+            library.buy(BOOK_2);
+            before = describe(library);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertEquals(before, describe(library));
+            library.snapshot();
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertEquals(before, describe(library));
+            assertEquals(Arrays.asList("log-2", "snapshot"), files(directory));
+        }
+    }
+
+    @Test
+    public void testAutomaticSnapshots() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary(), 10)) {
+            List<BookCopy> copies = new ArrayList<>();
+            for (int i = 0; i < 20; i++)
+                copies.add(library.buy(new Book("Book " + i, Arrays.asList("Author " + i % 3), 2000 + i)));
+            for (int round = 0; round < 5; round++) {
+                for (BookCopy copy: copies)
+                    library.checkout(copy);
+                for (BookCopy copy: copies)
+                    library.checkin(copy);
+            }
+            library.checkout(copies.get(7));
+            library.lose(copies.get(8));
+            before = describe(library);
+            assertTrue(files(directory).contains("snapshot"));
+            // a log holds fewer records than the interval
+            for (String file: files(directory))
+                if (file.startsWith("log-"))
+                    assertTrue(Files.size(directory.resolve(file)) < 10 * 32);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary(), 10)) {
+            assertEquals(before, describe(library));
+        }
+    }
+
+    @Test
+    public void testTornLastRecord() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            BookCopy copy = library.buy(BOOK_1);
+            library.checkout(copy);
+        }
+        Path log = directory.resolve("log-0");
+        try (FileChannel file = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            file.truncate(file.size() - 2);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            Set<BookCopy> copies = library.allCopies(BOOK_1);
+            assertEquals(1, copies.size());
+            // the checkout was torn off
+            BookCopy copy = copies.iterator().next();
+            assertTrue(library.isAvailable(copy));
+            library.checkout(copy);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertTrue(library.availableCopies(BOOK_1).isEmpty());
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBadSnapshotInterval() throws IOException {
+        DurableLibrary.open(folder.getRoot().toPath(), new BigLibrary(), 0);
+    }
+
+    @Test
+    public void testConcurrentCommits() throws IOException, InterruptedException {
+        Path directory = folder.getRoot().toPath();
+        int threads = 8, rounds = 50;
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary(), 300)) {
+            List<Thread> workers = new ArrayList<>();
+            List<Throwable> failures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Book book = new Book("Book " + t, Arrays.asList("Author"), 2000 + t);
+                Thread worker = new Thread(() -> {
+                    try {
+                        BookCopy copy = library.buy(book);
+                        for (int i = 0; i < rounds; i++) {
+                            library.checkout(copy);
+                            library.checkin(copy);
+                        }
+                        library.checkout(library.buy(book));
+                    } catch (Throwable e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker: workers)
+                worker.join();
+            assertEquals(new ArrayList<>(), failures);
+            before = describe(library);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertEquals(before, describe(library));
+            assertEquals(threads, library.find("Author").size());
+        }
+    }
+
+    @Test
+    public void testSnapshotFailsAfterClosingLog() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Map<Book, List<String>> before;
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            BookCopy copy = library.buy(BOOK_1);
+            library.checkout(copy);
+            before = describe(library);
+
+            // the new snapshot cannot be moved over a nonempty directory
+            Path blocker = Files.createDirectories(directory.resolve("snapshot").resolve("blocker"));
+            try {
+                library.snapshot();
+                fail("expected the snapshot to fail");
+            } catch (UncheckedIOException e) {
+                // expected
+            }
+            assertRejected(() -> library.checkin(copy));
+            assertRejected(() -> library.buy(BOOK_2));
+            assertRejected(() -> library.allCopies(BOOK_1));
+            assertRejected(() -> library.snapshot());
+            Files.delete(blocker);
+            Files.delete(blocker.getParent());
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary())) {
+            assertEquals(before, describe(library));
+            library.checkin(library.allCopies(BOOK_1).iterator().next());
+        }
+    }
+
+    @Test
+    public void testAutomaticSnapshotFailsInChange() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary(), 3)) {
+            BookCopy copy = library.buy(BOOK_1);
+
+            // the third record starts a snapshot, whose temporary file cannot be created
+            Path blocker = Files.createDirectory(directory.resolve("snapshot.tmp"));
+            try {
+                library.checkout(copy);
+                fail("expected the snapshot to fail");
+            } catch (UncheckedIOException e) {
+                // expected
+            }
+            assertRejected(() -> library.isAvailable(copy));
+            assertRejected(() -> library.checkinAll(Arrays.asList(copy)));
+            assertRejected(() -> library.buyCopies(BOOK_3, 2));
+            Files.delete(blocker);
+        }
+        try (DurableLibrary library = DurableLibrary.open(directory, new BigLibrary(), 3)) {
+            // the failed checkout may or may not have been recorded, but the purchase was
+            assertEquals(1, library.allCopies(BOOK_1).size());
+            assertTrue(library.allCopies(BOOK_3).isEmpty());
+            library.buy(BOOK_3);
+            assertEquals(1, library.allCopies(BOOK_3).size());
+        }
+    }
+
+    // assert that an operation on a failed library is rejected
+    private static void assertRejected(Runnable operation) {
+        try {
+            operation.run();
+            fail("expected a failed library to reject the operation");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    // list the files in a directory, sorted
+    private static List<String> files(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file: files)
+                names.add(file.getFileName().toString());
+        }
+        names.sort(null);
+        return names;
+    }
+
+    // map each book the library finds by title to its copies' availability and condition, sorted
+    private static Map<Book, List<String>> describe(Library library) {
+        Map<Book, List<String>> description = new HashMap<>();
+        List<Book> books = new ArrayList<>(Arrays.asList(BOOK_1, BOOK_2, BOOK_3));
+        for (int i = 0; i < 20; i++)
+            books.add(new Book("Book " + i, Arrays.asList("Author " + i % 3), 2000 + i));
+        for (int t = 0; t < 8; t++)
+            books.add(new Book("Book " + t, Arrays.asList("Author"), 2000 + t));
+        for (Book book: books) {
+            List<String> copies = new ArrayList<>();
+            for (BookCopy copy: library.allCopies(book))
+                copies.add((library.isAvailable(copy) ? "in " : "out ") + copy.getCondition());
+            copies.sort(null);
+            if (!copies.isEmpty())
+                description.put(book, copies);
+        }
+        return description;
+    }
+}
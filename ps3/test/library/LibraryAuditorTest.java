@@ -0,0 +1,150 @@
+package library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LibraryAuditorTest {
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+    /*
+     * Testing strategy:
+     *
+     * Partitions:
+     *    library: SmallLibrary, BigLibrary, ConcurrentLibrary, DurableLibrary; a broken one
+     *    audit(): empty collection; after buys, circulation, batches and losses
+     *    auditor: passing audits, a failing audit, while other threads use the library
+     *
+     * Also: bad intervals are rejected, and close() stops auditing.
+     */
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testAuditAfterChanges() throws IOException {
+        try (DurableLibrary durable = DurableLibrary.open(folder.getRoot().toPath(), new SmallLibrary())) {
+            List<Auditable> libraries = Arrays.asList(new SmallLibrary(), new BigLibrary(), new ConcurrentLibrary(), durable);
+            for (Auditable auditable: libraries) {
+                auditable.audit();
+                Library library = (Library) auditable;
+                Book book = new Book("Ulysses", Arrays.asList("Joyce"), 1922);
+                List<BookCopy> copies = new ArrayList<>(library.buyCopies(book, 4));
+                copies.add(library.buy(new Book("Dubliners", Arrays.asList("Joyce"), 1914)));
+                library.checkout(copies.get(0));
+                library.checkoutAll(copies.subList(1, 5));
+                library.checkin(copies.get(0));
+                library.lose(copies.get(1));
+                library.loseAll(copies.subList(3, 5));
+                auditable.audit();
+            }
+        }
+    }
+
+    @Test
+    public void testPeriodicAudits() throws InterruptedException {
+        BigLibrary library = new BigLibrary();
+        library.buy(new Book("Ulysses", Arrays.asList("Joyce"), 1922));
+        try (LibraryAuditor auditor = new LibraryAuditor(library, 1, TimeUnit.MILLISECONDS)) {
+            waitFor(() -> auditor.audits() >= 3);
+            assertNull(auditor.failure());
+        }
+    }
+
+    @Test
+    public void testFailingAuditStops() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        Auditable broken = () -> {
+            if (calls.incrementAndGet() == 2)
+                throw new AssertionError("broken");
+        };
+        try (LibraryAuditor auditor = new LibraryAuditor(broken, 1, TimeUnit.MILLISECONDS)) {
+            waitFor(() -> auditor.failure() != null);
+            assertEquals("broken", auditor.failure().getMessage());
+            assertEquals(1, auditor.audits());
+            Thread.sleep(20);
+            assertEquals(2, calls.get());
+        }
+    }
+
+    @Test
+    public void testCloseStopsAudits() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        LibraryAuditor auditor = new LibraryAuditor(calls::incrementAndGet, 1, TimeUnit.MILLISECONDS);
+        waitFor(() -> calls.get() > 0);
+        auditor.close();
+        int after = calls.get();
+        Thread.sleep(20);
+        assertEquals(after, calls.get());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testZeroInterval() {
+        new LibraryAuditor(new SmallLibrary(), 0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAuditWhileCirculating() throws InterruptedException {
+        ConcurrentLibrary library = new ConcurrentLibrary();
+        SmallLibrary small = new SmallLibrary();
+        int threads = 4, rounds = 2_000;
+        try (LibraryAuditor auditor = new LibraryAuditor(library, 1, TimeUnit.MILLISECONDS);
+                LibraryAuditor smallAuditor = new LibraryAuditor(small, 1, TimeUnit.MILLISECONDS)) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Book book = new Book("Book " + t, Arrays.asList("Author"), 2000);
+                Thread worker = new Thread(() -> {
+                    for (int i = 0; i < rounds; i++) {
+                        BookCopy copy = library.buy(book);
+                        library.checkout(copy);
+                        library.checkin(copy);
+                        if (i % 2 == 0)
+                            library.lose(copy);
+                        // SmallLibrary is not threadsafe, so it is used under its lock
+                        synchronized (small) {
+                            small.checkout(small.buy(book));
+                        }
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker: workers)
+                worker.join();
+            long audits = auditor.audits();
+            waitFor(() -> auditor.audits() > audits);
+            assertNull(auditor.failure());
+            assertNull(smallAuditor.failure());
+        }
+    }
+
+    // wait up to 10 seconds for a condition to hold
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out", System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -3,18 +3,24 @@ package library;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
+import org.junit.rules.TemporaryFolder;
 /**
  * Test suite for Library ADT.
  */
@@ -24,7 +30,7 @@ public class LibraryTest {
     /*
      * Note: all the tests you write here must be runnable against any
      * Library class that follows the spec.  JUnit will automatically
-     * run these tests against both SmallLibrary and BigLibrary.
+     * run these tests against SmallLibrary, BigLibrary, ConcurrentLibrary and DurableLibrary.
      */
 
     /**
@@ -36,7 +42,9 @@ public class LibraryTest {
     public static Object[] allImplementationClassNames() {
         return new Object[] { 
             "library.SmallLibrary", 
-            "library.BigLibrary"
+            "library.BigLibrary",
+            "library.ConcurrentLibrary",
+            "library.DurableLibrary"
         }; 
     }
 
@@ -48,11 +56,24 @@ public class LibraryTest {
     @Parameter
     public String implementationClassName;    
 
+    /**
+     * Directory for the files of a DurableLibrary, which has no default constructor.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     /**
      * @return a fresh instance of a Library, constructed from the implementation class specified
      * by implementationClassName.
      */
     public Library makeLibrary() {
+        if (implementationClassName.equals("library.DurableLibrary")) {
+            try {
+                return DurableLibrary.open(folder.newFolder().toPath(), new BigLibrary());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         try {
             Class<?> cls = Class.forName(implementationClassName);
             return (Library) cls.newInstance();
@@ -97,6 +118,23 @@ public class LibraryTest {
      *  date ordering
      * lose():
      *  available copies - 1, n
+     *  checked out copy
+     * buyCopies():
+     *  n - 0, 1, many; new book, book already in the library; negative n
+     * checkoutAll(), checkinAll():
+     *  batch - empty, one copy, many copies of one book, copies of several books
+     * loseAll():
+     *  batch - available and checked out copies, last copies of a book, some copies of a book
+     * search():
+     *  query - case, prefix of a title word, prefix of an author word, several words, no match
+     *  ranking - phrase before whole words before prefixes, then date ordering
+     *  limit - 0, less than the matches; negative
+     *  last copy lost, all copies lost by loseAll
+     * fuzzySearch():
+     *  query - exact, misspelled title word, misspelled author, too misspelled, several words
+     *  ranking - fewer edits first, then date ordering
+     *  limit - 0; negative
+     *  last copy lost, new copy bought
      *  
      */
     
@@ -109,6 +147,12 @@ public class LibraryTest {
         library = makeLibrary();
         book = new Book("What", Arrays.asList("Arthur"), 2009);
     }
+
+    @After
+    public void tearDown() throws IOException {
+        if (library instanceof Closeable)
+            ((Closeable) library).close();
+    }
     
     @Test
     public void testBuyNewBookCopy() {        
@@ -448,6 +492,187 @@ public class LibraryTest {
         assertEquals(copies, library.availableCopies(book));
     }
     
+    @Test
+    public void testLoseCheckedOutCopy() {
+        BookCopy copy = library.buy(book);
+        library.checkout(copy);
+        
+        library.lose(copy);
+        
+        assertEquals(false, library.isAvailable(copy));
+        assertEquals(Collections.emptySet(), library.allCopies(book));
+        assertEquals(Collections.emptyList(), library.find(book.getTitle()));
+    }
+    
+    @Test
+    public void testBuyCopiesNone() {
+        assertEquals(Collections.emptyList(), library.buyCopies(book, 0));
+        assertEquals(Collections.emptySet(), library.allCopies(book));
+        assertEquals(Collections.emptyList(), library.find(book.getTitle()));
+    }
+    
+    @Test
+    public void testBuyCopiesMany() {
+        BookCopy first = library.buy(book);
+        List<BookCopy> bought = library.buyCopies(book, 3);
+        
+        assertEquals(3, bought.size());
+        assertEquals(3, new HashSet<>(bought).size());
+        for (BookCopy copy: bought) {
+            assertEquals(book, copy.getBook());
+            assertEquals(BookCopy.Condition.GOOD, copy.getCondition());
+            assertTrue(library.isAvailable(copy));
+        }
+        Set<BookCopy> all = new HashSet<>(bought);
+        all.add(first);
+        assertEquals(all, library.allCopies(book));
+        assertEquals(Arrays.asList(book), library.find("Arthur"));
+    }
+    
+    @Test
+    public void testBuyCopiesNewBookSearchable() {
+        assertEquals(1, library.buyCopies(book, 1).size());
+        assertEquals(Arrays.asList(book), library.find(book.getTitle()));
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testBuyCopiesNegative() {
+        library.buyCopies(book, -1);
+    }
+    
+    @Test
+    public void testCheckoutAllAndCheckinAllSeveralBooks() {
+        Book other = new Book("Where", Arrays.asList("Arthur", "Ford"), 2010);
+        List<BookCopy> copies = library.buyCopies(book, 3);
+        BookCopy otherCopy = library.buy(other);
+        List<BookCopy> batch = Arrays.asList(copies.get(0), otherCopy, copies.get(2));
+        
+        library.checkoutAll(batch);
+        for (BookCopy copy: batch)
+            assertEquals(false, library.isAvailable(copy));
+        assertEquals(Collections.singleton(copies.get(1)), library.availableCopies(book));
+        assertEquals(Collections.emptySet(), library.availableCopies(other));
+        assertEquals(3, library.allCopies(book).size());
+        
+        library.checkinAll(batch);
+        assertEquals(new HashSet<>(copies), library.availableCopies(book));
+        assertEquals(Collections.singleton(otherCopy), library.availableCopies(other));
+    }
+    
+    @Test
+    public void testCheckoutAllEmptyBatch() {
+        BookCopy copy = library.buy(book);
+        library.checkoutAll(Collections.<BookCopy>emptyList());
+        library.checkinAll(Collections.<BookCopy>emptyList());
+        assertEquals(true, library.isAvailable(copy));
+    }
+    
+    @Test
+    public void testLoseAll() {
+        Book other = new Book("Where", Arrays.asList("Ford"), 2010);
+        List<BookCopy> copies = library.buyCopies(book, 3);
+        BookCopy otherCopy = library.buy(other);
+        library.checkout(copies.get(1));
+        library.checkout(otherCopy);
+        
+        library.loseAll(Arrays.asList(copies.get(0), copies.get(1), otherCopy));
+        
+        assertEquals(Collections.singleton(copies.get(2)), library.allCopies(book));
+        assertEquals(Collections.emptySet(), library.allCopies(other));
+        assertEquals(Arrays.asList(book), library.find(book.getTitle()));
+        assertEquals(Collections.emptyList(), library.find("Ford"));
+        
+        library.loseAll(Arrays.asList(copies.get(2)));
+        assertEquals(Collections.emptyList(), library.find(book.getTitle()));
+    }
+    
+    @Test
+    public void testSearchCaseInsensitivePrefix() {
+        Book newBook = new Book("How to fly", Arrays.asList("Vic", "Kumar", "Arthur"), 2014);
+        library.buy(book);
+        library.buy(newBook);
+
+        assertEquals(Arrays.asList(book), library.search("WHA", 10));
+        assertEquals(Arrays.asList(newBook), library.search("how FL", 10));
+        assertEquals(Arrays.asList(newBook), library.search("kum", 10));
+        assertEquals(Collections.emptyList(), library.search("what vic", 10));
+    }
+
+    @Test
+    public void testSearchRanking() {
+        Book phrase = new Book("Arthur", Arrays.asList("Merlin"), 1990);
+        Book newer = new Book("What", Arrays.asList("Arthur"), 2015);
+        Book prefix = new Book("Arthurian Legends", Arrays.asList("Malory"), 1485);
+        library.buy(prefix);
+        library.buy(book);
+        library.buy(newer);
+        library.buy(phrase);
+
+        assertEquals(Arrays.asList(phrase, newer, book, prefix), library.search("arthur", 10));
+        assertEquals(Arrays.asList(phrase, newer), library.search("arthur", 2));
+        assertEquals(Collections.emptyList(), library.search("arthur", 0));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSearchNegativeLimit() {
+        library.search("what", -1);
+    }
+
+    @Test
+    public void testSearchAfterLose() {
+        List<BookCopy> copies = library.buyCopies(book, 2);
+        library.lose(copies.get(0));
+        assertEquals(Arrays.asList(book), library.search("what", 10));
+
+        library.lose(copies.get(1));
+        assertEquals(Collections.emptyList(), library.search("what", 10));
+
+        library.loseAll(library.buyCopies(book, 2));
+        assertEquals(Collections.emptyList(), library.search("art", 10));
+    }
+    
+    @Test
+    public void testFuzzySearchMisspelled() {
+        Book newBook = new Book("How to fly", Arrays.asList("Vic", "Kumar", "Arthur"), 2014);
+        library.buy(book);
+        library.buy(newBook);
+
+        assertEquals(Arrays.asList(newBook, book), library.fuzzySearch("Artur", 10));
+        assertEquals(Arrays.asList(newBook), library.fuzzySearch("kunar flu", 10));
+        assertEquals(Arrays.asList(book), library.fuzzySearch("whot", 10));
+        assertEquals(Collections.emptyList(), library.fuzzySearch("kmura", 10));
+        assertEquals(Collections.emptyList(), library.fuzzySearch("kumar wat", 10));
+    }
+
+    @Test
+    public void testFuzzySearchRanking() {
+        Book newer = new Book("What", Arrays.asList("Arthur"), 2015);
+        Book closer = new Book("Wheat", Arrays.asList("Miller"), 1990);
+        library.buy(book);
+        library.buy(newer);
+        library.buy(closer);
+
+        assertEquals(Arrays.asList(closer, newer, book), library.fuzzySearch("wheat", 10));
+        assertEquals(Arrays.asList(newer, book, closer), library.fuzzySearch("what", 10));
+        assertEquals(Arrays.asList(newer), library.fuzzySearch("what", 1));
+        assertEquals(Collections.emptyList(), library.fuzzySearch("what", 0));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFuzzySearchNegativeLimit() {
+        library.fuzzySearch("what", -1);
+    }
+
+    @Test
+    public void testFuzzySearchAfterLose() {
+        BookCopy copy = library.buy(book);
+        library.lose(copy);
+        assertEquals(Collections.emptyList(), library.fuzzySearch("arthr", 10));
+
+        library.buy(book);
+        assertEquals(Arrays.asList(book), library.fuzzySearch("arthr", 10));
+    }
+
     @Test(expected=AssertionError.class)
     public void testAssertionsEnabled() {
         assert false; // make sure assertions are enabled with VM argument: -ea
@@ -0,0 +1,404 @@
+package library;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SearchIndexTest {
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+
+    /*
+     * Testing strategy:
+     *
+     * Partitions:
+     *    words(): case, accents, punctuation and repeated spaces; empty and wordless text
+     *    query: no words, one word, several words, repeated words; whole words and prefixes;
+     *      short prefixes (at most SHORT_PREFIX characters) and longer ones
+     *    match quality: phrase, whole words, prefixes, none; in title, in authors, across both
+     *    results: fewer than limit, exactly limit, more than limit; limit 0; negative limit
+     *    index: empty; after add, after remove, as seen by size() and contains(); more than
+     *      HEAD_SIZE editions per short prefix, before and after removing most of the first ones
+     *
+     * fuzzySearch():
+     *    distance(): equal strings, substitution, insertion, deletion, transposition; within the
+     *      bound, at the bound, beyond it; empty strings; lengths differing by more than the bound
+     *    maxEdits(): query word of 1-2, 3-5 and more characters; with and without letters
+     *    query word: exact, misspelled within and beyond maxEdits, a number; a word of repeated
+     *      characters, with too few n-grams to filter by
+     *    match: in title, in authors; several query words, all or some of which are close
+     *    ranking: by total edits, then FIND_ORDER; limit as for search()
+     *    index: after removing the only edition with a word, and adding it back
+     *
+     * Randomized tests compare search() and fuzzySearch() with a brute-force ranking of every
+     * edition.
+     */
+
+    private static final Book SICP = new Book("Structure and Interpretation of Computer Programs",
+            Arrays.asList("Harold Abelson", "Gerald Jay Sussman"), 1996);
+    private static final Book SICP_OLD = new Book("Structure and Interpretation of Computer Programs",
+            Arrays.asList("Harold Abelson", "Gerald Jay Sussman"), 1985);
+    private static final Book STRUCTURE = new Book("Structure", Arrays.asList("Anonymous"), 2000);
+    private static final Book STRUCTURED = new Book("Structured Programming", Arrays.asList("Dahl", "Dijkstra", "Hoare"), 1972);
+    private static final Book CAFE = new Book("Caf\u00e9 Society", Arrays.asList("Jos\u00e9 \u00c1lvarez"), 2001);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    @Test
+    public void testWords() {
+        assertEquals(Arrays.asList("cafe", "society"), SearchIndex.words("  CAF\u00c9 -- society!"));
+        assertEquals(Arrays.asList("cafe"), SearchIndex.words("Cafe\u0301"));
+        assertEquals(Arrays.asList("don", "t", "panic", "42"), SearchIndex.words("Don't Panic: 42"));
+        assertEquals(Collections.emptyList(), SearchIndex.words(""));
+        assertEquals(Collections.emptyList(), SearchIndex.words(" ?! "));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertEquals(Collections.emptyList(), new SearchIndex().search("structure", 10));
+    }
+
+    @Test
+    public void testCaseAccentsAndPunctuation() {
+        SearchIndex index = index(SICP, CAFE);
+        assertEquals(Arrays.asList(CAFE), index.search("cafe", 10));
+        assertEquals(Arrays.asList(CAFE), index.search("ALVAREZ", 10));
+        assertEquals(Arrays.asList(CAFE), index.search("jos\u00e9 \u00e1lv", 10));
+        assertEquals(Arrays.asList(SICP), index.search("sussman, gerald", 10));
+    }
+
+    @Test
+    public void testRankingByQualityThenOrder() {
+        SearchIndex index = index(SICP, SICP_OLD, STRUCTURE, STRUCTURED);
+        // STRUCTURE's title is the query; SICP has the word; STRUCTURED has only a prefix
+        assertEquals(Arrays.asList(STRUCTURE, SICP, SICP_OLD, STRUCTURED), index.search("structure", 10));
+        assertEquals(Arrays.asList(STRUCTURE, SICP, SICP_OLD, STRUCTURED), index.search("Struct", 10));
+        assertEquals(Arrays.asList(SICP, SICP_OLD, STRUCTURED), index.search("program str", 10));
+        assertEquals(Arrays.asList(STRUCTURED), index.search("structured programming", 10));
+    }
+
+    @Test
+    public void testAuthorPhrase() {
+        SearchIndex index = index(SICP, STRUCTURED);
+        assertEquals(Arrays.asList(SICP), index.search("harold abelson", 10));
+        assertEquals(Arrays.asList(SICP), index.search("harold computer", 10));
+        assertEquals(Arrays.asList(STRUCTURED), index.search("hoare hoare", 10));
+    }
+
+    @Test
+    public void testNoMatch() {
+        SearchIndex index = index(SICP, STRUCTURED);
+        assertEquals(Collections.emptyList(), index.search("abelson dijkstra", 10));
+        assertEquals(Collections.emptyList(), index.search("xyz", 10));
+        assertEquals(Collections.emptyList(), index.search(" -- ", 10));
+    }
+
+    @Test
+    public void testLimit() {
+        SearchIndex index = index(SICP, SICP_OLD, STRUCTURE, STRUCTURED);
+        assertEquals(Arrays.asList(STRUCTURE, SICP), index.search("struct", 2));
+        assertEquals(Collections.emptyList(), index.search("struct", 0));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNegativeLimit() {
+        new SearchIndex().search("struct", -1);
+    }
+
+    @Test
+    public void testAddTwiceAndRemove() {
+        SearchIndex index = index(SICP, STRUCTURE);
+        index.add(SICP);
+        assertEquals(2, index.size());
+        assertTrue(index.contains(SICP));
+        index.remove(SICP);
+        index.remove(SICP);
+        assertEquals(1, index.size());
+        assertFalse(index.contains(SICP));
+        assertTrue(index.contains(STRUCTURE));
+        assertEquals(Arrays.asList(STRUCTURE), index.search("s", 10));
+        index.remove(STRUCTURE);
+        assertEquals(Collections.emptyList(), index.search("s", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testShortPrefixBeyondHeads() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 3 * SearchIndex.HEAD_SIZE; i++)
+            books.add(new Book("Title " + i, Arrays.asList("Author"), 2000 + i % 7));
+        Collections.shuffle(books, new Random(6005));
+        SearchIndex index = new SearchIndex();
+        for (Book book: books)
+            index.add(book);
+        int limit = 2 * SearchIndex.HEAD_SIZE;
+        assertEquals(bruteForce(books, "1", limit), index.search("1", limit));
+        assertEquals(bruteForce(books, "t", limit), index.search("t", limit));
+
+        // remove most of the first editions of "1"
+        List<Book> first = index.search("1", SearchIndex.HEAD_SIZE);
+        for (Book book: first.subList(0, first.size() - 3)) {
+            index.remove(book);
+            books.remove(book);
+        }
+        assertEquals(bruteForce(books, "1", limit), index.search("1", limit));
+        assertEquals(bruteForce(books, "1", 5), index.search("1", 5));
+    }
+
+    @Test
+    public void testRandomAgainstBruteForce() {
+        Random random = new Random(6005);
+        List<Book> books = new ArrayList<>(SyntheticBooks.make(2_000, 40, 6005));
+        SearchIndex index = new SearchIndex();
+        for (Book book: books)
+            index.add(book);
+        List<String> vocabulary = new ArrayList<>(SyntheticBooks.words());
+        vocabulary.addAll(Arrays.asList("author1", "ben", "1", "12", "ar", "author", "eva author2"));
+        for (int round = 0; round < 300; round++) {
+            if (round % 10 == 0) {
+                for (int i = 0; i < 50; i++)
+                    index.remove(books.remove(random.nextInt(books.size())));
+                for (int i = 0; i < 40; i++) {
+                    Book book = SyntheticBooks.make(10_000 + round * 100 + i, 40, random);
+                    books.add(book);
+                    index.add(book);
+                }
+            }
+            String query = vocabulary.get(random.nextInt(vocabulary.size()));
+            if (random.nextBoolean())
+                query = query.substring(0, 1 + random.nextInt(query.length()));
+            if (random.nextBoolean())
+                query = vocabulary.get(random.nextInt(vocabulary.size())) + " " + query.toUpperCase();
+            int limit = 1 + random.nextInt(40);
+            assertEquals(query, bruteForce(books, query, limit), index.search(query, limit));
+        }
+        assertEquals(books.size(), index.size());
+    }
+
+    @Test
+    public void testDistance() {
+        assertEquals(0, SearchIndex.distance("abelson", "abelson", 2));
+        assertEquals(1, SearchIndex.distance("abelson", "abelsen", 2));
+        assertEquals(1, SearchIndex.distance("abelson", "abelsonn", 2));
+        assertEquals(1, SearchIndex.distance("abelson", "belson", 2));
+        assertEquals(2, SearchIndex.distance("abelson", "baelson", 2));
+        assertEquals(1, SearchIndex.distance("abelson", "abelsen", 0));
+        assertEquals(3, SearchIndex.distance("abelson", "nosleba", 2));
+        assertEquals(3, SearchIndex.distance("abelson", "abe", 2));
+        assertEquals(0, SearchIndex.distance("", "", 1));
+        assertEquals(1, SearchIndex.distance("", "a", 1));
+    }
+
+    @Test
+    public void testMaxEdits() {
+        assertEquals(0, SearchIndex.maxEdits("ab"));
+        assertEquals(1, SearchIndex.maxEdits("abc"));
+        assertEquals(1, SearchIndex.maxEdits("abcde"));
+        assertEquals(2, SearchIndex.maxEdits("abcdef"));
+        assertEquals(0, SearchIndex.maxEdits("123456"));
+        assertEquals(2, SearchIndex.maxEdits("r2d2c3po"));
+    }
+
+    @Test
+    public void testFuzzyMisspelledAuthorAndTitle() {
+        SearchIndex index = index(SICP, STRUCTURED, CAFE);
+        assertEquals(Arrays.asList(SICP), index.fuzzySearch("Abelsen", 10));
+        assertEquals(Arrays.asList(SICP), index.fuzzySearch("gerlad sussmann", 10));
+        assertEquals(Arrays.asList(STRUCTURED), index.fuzzySearch("Dijkstar", 10));
+        assertEquals(Arrays.asList(CAFE), index.fuzzySearch("alvares", 10));
+        assertEquals(Arrays.asList(SICP), index.fuzzySearch("interpetation", 10));
+    }
+
+    @Test
+    public void testFuzzyBeyondMaxEdits() {
+        SearchIndex index = index(SICP, STRUCTURED);
+        assertEquals(Collections.emptyList(), index.fuzzySearch("Abelsoon dahl", 10));
+        assertEquals(Collections.emptyList(), index.fuzzySearch("abelsooonn", 10));
+        assertEquals(Collections.emptyList(), index.fuzzySearch("da", 10));
+        assertEquals(Collections.emptyList(), index.fuzzySearch("1995", 10));
+        assertEquals(Collections.emptyList(), index.fuzzySearch(" -- ", 10));
+    }
+
+    @Test
+    public void testFuzzyRanking() {
+        Book hoar = new Book("Frost", Arrays.asList("Hoar"), 1990);
+        SearchIndex index = index(SICP, SICP_OLD, STRUCTURED, hoar);
+        assertEquals(Arrays.asList(hoar, STRUCTURED), index.fuzzySearch("hoar", 10));
+        assertEquals(Arrays.asList(STRUCTURED, hoar), index.fuzzySearch("hoare", 10));
+        assertEquals(Arrays.asList(STRUCTURED, SICP, SICP_OLD), index.fuzzySearch("structured", 10));
+        assertEquals(Arrays.asList(STRUCTURED), index.fuzzySearch("structured", 1));
+        assertEquals(Collections.emptyList(), index.fuzzySearch("structured", 0));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFuzzyNegativeLimit() {
+        new SearchIndex().fuzzySearch("struct", -1);
+    }
+
+    @Test
+    public void testFuzzyRepeatedCharacters() {
+        Book shout = new Book("Aaaaa", Arrays.asList("Zzz"), 2000);
+        SearchIndex index = index(SICP, shout);
+        assertEquals(Arrays.asList(shout), index.fuzzySearch("aaaaaaa", 10));
+        assertEquals(Arrays.asList(shout), index.fuzzySearch("zzzz", 10));
+    }
+
+    @Test
+    public void testFuzzyAfterRemove() {
+        SearchIndex index = index(SICP, STRUCTURED);
+        index.remove(STRUCTURED);
+        assertEquals(Collections.emptyList(), index.fuzzySearch("dijkstra", 10));
+        index.add(STRUCTURED);
+        assertEquals(Arrays.asList(STRUCTURED), index.fuzzySearch("dijkstra", 10));
+    }
+
+    @Test
+    public void testFuzzyRandomAgainstBruteForce() {
+        Random random = new Random(6005);
+        List<Book> books = new ArrayList<>(SyntheticBooks.make(2_000, 40, 6005));
+        SearchIndex index = new SearchIndex();
+        for (Book book: books)
+            index.add(book);
+        List<String> vocabulary = new ArrayList<>(SyntheticBooks.words());
+        vocabulary.addAll(Arrays.asList("alyssa", "barbara", "niklaus", "author12", "author3", "1234"));
+        for (int round = 0; round < 300; round++) {
+            if (round % 10 == 0) {
+                for (int i = 0; i < 50; i++)
+                    index.remove(books.remove(random.nextInt(books.size())));
+                for (int i = 0; i < 40; i++) {
+                    Book book = SyntheticBooks.make(10_000 + round * 100 + i, 40, random);
+                    books.add(book);
+                    index.add(book);
+                }
+            }
+            String query = misspell(vocabulary.get(random.nextInt(vocabulary.size())), random);
+            if (random.nextBoolean())
+                query = misspell(vocabulary.get(random.nextInt(vocabulary.size())), random) + " " + query;
+            int limit = 1 + random.nextInt(40);
+            assertEquals(query, fuzzyBruteForce(books, query, limit), index.fuzzySearch(query, limit));
+        }
+    }
+
+    // apply up to 3 random edits to word
+    private static String misspell(String word, Random random) {
+        StringBuilder misspelled = new StringBuilder(word);
+        for (int edits = random.nextInt(4); edits > 0 && misspelled.length() > 0; edits--) {
+            int at = random.nextInt(misspelled.length());
+            char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+            case 0: misspelled.setCharAt(at, letter); break;
+            case 1: misspelled.insert(at, letter); break;
+            default: misspelled.deleteCharAt(at); break;
+            }
+        }
+        return misspelled.toString();
+    }
+
+    // rank every book by total edits, then FIND_ORDER, and keep the first limit
+    private static List<Book> fuzzyBruteForce(List<Book> books, String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(SearchIndex.words(query));
+        List<Book> matches = new ArrayList<>();
+        Map<Book, Integer> costs = new HashMap<>();
+        for (Book book: books) {
+            Set<String> words = new HashSet<>(SearchIndex.words(book.getTitle()));
+            for (String author: book.getAuthors())
+                words.addAll(SearchIndex.words(author));
+            int total = 0;
+            for (String token: tokens) {
+                int fewest = Integer.MAX_VALUE;
+                for (String word: words) {
+                    int edits = levenshtein(token, word);
+                    boolean hasLetter = word.chars().anyMatch(Character::isLetter);
+                    if (edits <= SearchIndex.maxEdits(token) && (edits == 0 || hasLetter))
+                        fewest = Math.min(fewest, edits);
+                }
+                total = fewest == Integer.MAX_VALUE || total < 0 ? -1 : total + fewest;
+            }
+            if (total >= 0 && !tokens.isEmpty()) {
+                matches.add(book);
+                costs.put(book, total);
+            }
+        }
+        matches.sort(Comparator.<Book>comparingInt(costs::get).thenComparing(BookIndex.FIND_ORDER));
+        return new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+    }
+
+    // unbounded edit distance, by the textbook recurrence
+    private static int levenshtein(String a, String b) {
+        int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++)
+            for (int j = 0; j <= b.length(); j++)
+                table[i][j] = i == 0 ? j : j == 0 ? i
+                        : Math.min(table[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                                   Math.min(table[i - 1][j], table[i][j - 1]) + 1);
+        return table[a.length()][b.length()];
+    }
+
+    // rank every book by match quality, then FIND_ORDER, and keep the first limit
+    private static List<Book> bruteForce(List<Book> books, String query, int limit) {
+        List<String> queryWords = SearchIndex.words(query);
+        String phrase = String.join(" ", queryWords);
+        List<Book> matches = new ArrayList<>();
+        List<Integer> qualities = new ArrayList<>();
+        for (Book book: books) {
+            Set<String> words = new HashSet<>(SearchIndex.words(book.getTitle()));
+            Set<String> phrases = new HashSet<>();
+            phrases.add(String.join(" ", SearchIndex.words(book.getTitle())));
+            for (String author: book.getAuthors()) {
+                words.addAll(SearchIndex.words(author));
+                phrases.add(String.join(" ", SearchIndex.words(author)));
+            }
+            int quality = 0;
+            for (String queryWord: queryWords) {
+                if (words.contains(queryWord))
+                    continue;
+                boolean prefix = false;
+                for (String word: words)
+                    prefix |= word.startsWith(queryWord);
+                quality = prefix ? Math.max(quality, 2) : 3;
+            }
+            if (quality == 0 && !phrases.contains(phrase))
+                quality = 1;
+            if (quality < 3 && !queryWords.isEmpty()) {
+                matches.add(book);
+                qualities.add(quality);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++)
+            order.add(i);
+        order.sort(Comparator.<Integer>comparingInt(qualities::get)
+                .thenComparing((i, j) -> BookIndex.FIND_ORDER.compare(matches.get(i), matches.get(j))));
+        List<Book> ranked = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, order.size()); i++)
+            ranked.add(matches.get(order.get(i)));
+        return ranked;
+    }
+
+    private static SearchIndex index(Book... books) {
+        SearchIndex index = new SearchIndex();
+        for (Book book: books)
+            index.add(book);
+        return index;
+    }
+}
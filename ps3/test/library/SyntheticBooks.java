@@ -0,0 +1,92 @@
+package library;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic-looking books for benchmarks: titles of two to six
+ * words drawn from a small vocabulary, one to three authors drawn from a skewed population,
+ * and publication years over the last century.
+ */
+public class SyntheticBooks {
+
+    private static final String[] WORDS = {
+        "the", "of", "and", "java", "software", "construction", "structure", "interpretation",
+        "computer", "programs", "art", "programming", "introduction", "algorithms", "design",
+        "patterns", "effective", "concurrency", "practice", "elements", "style", "pragmatic",
+        "clean", "code", "systems", "networks", "theory", "compilers", "principles", "data"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Alyssa", "Ben", "Louis", "Eva", "Cy", "Lem", "Harold", "Gerald", "Donald", "Barbara",
+        "Joshua", "Brian", "Dennis", "Frances", "Grace", "Niklaus"
+    };
+
+    private SyntheticBooks() {
+        // static methods only
+    }
+
+    /**
+     * Make a list of books.
+     * @param count number of books
+     * @param authors number of distinct authors, at least 1
+     * @param seed random seed; equal seeds give equal lists
+     * @return count books, distinct from each other because every title is numbered
+     */
+    public static List<Book> make(int count, int authors, long seed) {
+        List<Book> books = new ArrayList<>(count);
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++)
+            books.add(make(i, authors, random));
+        return books;
+    }
+
+    /**
+     * Make one book.
+     * @param number number that ends the title of the book
+     * @param authors number of distinct authors, at least 1
+     * @param random source of randomness
+     * @return a book by one to three of authors
+     */
+    public static Book make(int number, int authors, Random random) {
+        StringBuilder title = new StringBuilder();
+        int words = 2 + random.nextInt(5);
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            title.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word)
+                 .append(' ');
+        }
+        title.append(number);
+
+        int count = 1 + random.nextInt(3);
+        List<String> names = new ArrayList<>(count);
+        while (names.size() < count) {
+            String name = author(random, authors);
+            if (!names.contains(name))
+                names.add(name);
+        }
+        return new Book(title.toString(), Collections.unmodifiableList(names), 1916 + random.nextInt(101));
+    }
+
+    /**
+     * @return words of the vocabulary that titles are made of, for building queries
+     */
+    public static List<String> words() {
+        return Collections.unmodifiableList(Arrays.asList(WORDS));
+    }
+
+    /**
+     * @return an author's name, drawn with a skew towards low-numbered authors
+     */
+    private static String author(Random random, int authors) {
+        int author = (int) (authors * Math.pow(random.nextDouble(), 3));
+        return FIRST_NAMES[author % FIRST_NAMES.length] + " Author" + author;
+    }
+
+    /* Copyright (c) 2016 MIT 6.005 course staff, all rights reserved.
+     * Redistribution of original or derived work requires explicit permission.
+     * Don't post any of this code on the web or to a public Github repository.
+     */
+}